@@ -0,0 +1,48 @@
+package org.jsoup.benchmark;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.safety.Cleaner;
+import org.jsoup.safety.Safelist;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ {@link Cleaner#clean(Document)} throughput with the {@link Safelist#relaxed()} safelist, over a pre-parsed
+ document. A single Cleaner is shared across invocations, as it would be in an application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CleanBenchmark {
+    @Param({"medium.html", "yahoo-jp.html.gz", "large.html", "xwiki-edit.html.gz"})
+    String file;
+
+    Document doc;
+    Cleaner cleaner;
+
+    @Setup
+    public void setup() {
+        doc = Jsoup.parse(Corpus.load(file), Corpus.BaseUri);
+        cleaner = new Cleaner(Safelist.relaxed());
+    }
+
+    @Benchmark
+    public Document clean() {
+        return cleaner.clean(doc);
+    }
+}
@@ -0,0 +1,35 @@
+package org.jsoup.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/**
+ Loads the benchmark corpus: real-world pages from the test resources ({@code /htmltests}), spanning small to large
+ inputs: {@code medium.html} (~6 KB), {@code yahoo-jp.html.gz} (~88 KB), {@code large.html} (~280 KB), and
+ {@code xwiki-edit.html.gz} (~700 KB). All are UTF-8; {@code .gz} files are inflated.
+ */
+final class Corpus {
+    static final String BaseUri = "https://example.com/";
+
+    private Corpus() {}
+
+    static String load(String name) {
+        String path = "/htmltests/" + name;
+        try (InputStream resource = Corpus.class.getResourceAsStream(path)) {
+            if (resource == null) throw new IllegalArgumentException("Missing corpus file " + path);
+            InputStream in = name.endsWith(".gz") ? new GZIPInputStream(resource) : resource;
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[8 * 1024];
+            int read;
+            while ((read = in.read(buf)) != -1)
+                out.write(buf, 0, read);
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
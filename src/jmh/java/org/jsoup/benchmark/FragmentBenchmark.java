@@ -0,0 +1,43 @@
+package org.jsoup.benchmark;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.safety.Safelist;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ Per-call cost of parsing and cleaning small, comment-sized fragments, where the parser setup is a large share of the
+ work. Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm} for the bytes allocated per parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FragmentBenchmark {
+    static final String Comment = "Great post! <b>Thanks</b> for sharing, see <a href='https://example.com/more'>this</a>" +
+        " <i>too</i>.<br>Cheers";
+
+    final Safelist safelist = Safelist.basic();
+
+    @Benchmark
+    public Document parseBodyFragment() {
+        return Jsoup.parseBodyFragment(Comment);
+    }
+
+    @Benchmark
+    public String clean() {
+        return Jsoup.clean(Comment, safelist);
+    }
+}
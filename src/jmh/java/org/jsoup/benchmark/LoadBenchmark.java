@@ -0,0 +1,61 @@
+package org.jsoup.benchmark;
+
+import org.jsoup.helper.DataUtil;
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ File load throughput, via the stream path ({@link DataUtil#load(Path, String, String, Parser)}) and the memory-mapped
+ path ({@link DataUtil#loadMapped(Path, String, String, Parser)}). Corpus files are written uncompressed to a temp file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LoadBenchmark {
+    @Param({"medium.html", "yahoo-jp.html.gz", "large.html", "xwiki-edit.html.gz"})
+    String file;
+
+    Path path;
+
+    @Setup
+    public void setup() throws IOException {
+        path = Files.createTempFile("jsoup-bench", ".html");
+        Files.write(path, Corpus.load(file).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public Document load() throws IOException {
+        return DataUtil.load(path, null, Corpus.BaseUri, Parser.htmlParser());
+    }
+
+    @Benchmark
+    public Document loadMapped() throws IOException {
+        return DataUtil.loadMapped(path, null, Corpus.BaseUri, Parser.htmlParser());
+    }
+}
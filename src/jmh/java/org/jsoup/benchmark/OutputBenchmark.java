@@ -0,0 +1,96 @@
+package org.jsoup.benchmark;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Entities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ Serialization throughput: {@link org.jsoup.nodes.Element#outerHtml()} (pretty-printed and not), writing encoded
+ bytes via {@link org.jsoup.nodes.Node#writeHtml(OutputStream)} vs an OutputStreamWriter, and
+ {@link Entities#escape(String)} of the document's text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class OutputBenchmark {
+    @Param({"medium.html", "yahoo-jp.html.gz", "large.html", "xwiki-edit.html.gz"})
+    String file;
+
+    Document pretty;
+    Document compact;
+    String text;
+
+    @Setup
+    public void setup() {
+        String html = Corpus.load(file);
+        pretty = Jsoup.parse(html, Corpus.BaseUri);
+        compact = Jsoup.parse(html, Corpus.BaseUri);
+        compact.outputSettings().prettyPrint(false);
+        text = pretty.wholeText();
+    }
+
+    @Benchmark
+    public String outerHtmlPretty() {
+        return pretty.outerHtml();
+    }
+
+    @Benchmark
+    public String outerHtml() {
+        return compact.outerHtml();
+    }
+
+    @Benchmark
+    public long writeHtml() throws IOException {
+        CountingStream out = new CountingStream();
+        compact.writeHtml(out);
+        return out.count;
+    }
+
+    @Benchmark
+    public long writerHtml() throws IOException {
+        CountingStream out = new CountingStream();
+        try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            compact.html(writer);
+        }
+        return out.count;
+    }
+
+    /** Discards and counts the bytes written, as a stand-in for a file or socket. */
+    static class CountingStream extends OutputStream {
+        long count;
+
+        @Override public void write(int b) {
+            count++;
+        }
+
+        @Override public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    @Benchmark
+    public String escape() {
+        return Entities.escape(text);
+    }
+}
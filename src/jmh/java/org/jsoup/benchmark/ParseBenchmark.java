@@ -0,0 +1,69 @@
+package org.jsoup.benchmark;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.ParseFilter;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ Parse throughput, to a full DOM via {@link Parser#parseInput(String, String)}, and progressively via
+ {@link StreamParser}. {@code parseFiltered} skips page chrome (scripts, styles, SVG, navigation, forms, and footers)
+ with a {@link ParseFilter}, as in targeted extraction; and {@code parseLazyAttributes} leaves the attributes unparsed,
+ as none are read. Compare their {@code gc.alloc.rate.norm} with {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParseBenchmark {
+    @Param({"medium.html", "yahoo-jp.html.gz", "large.html", "xwiki-edit.html.gz"})
+    String file;
+
+    String html;
+
+    static final ParseFilter SkipChrome = el ->
+        el.nameIs("script") || el.nameIs("style") || el.nameIs("svg") || el.nameIs("nav") || el.nameIs("form") ||
+            el.nameIs("footer") ? ParseFilter.Action.SKIP : ParseFilter.Action.KEEP;
+
+    @Setup
+    public void setup() {
+        html = Corpus.load(file);
+    }
+
+    @Benchmark
+    public Document parseInput() {
+        return Parser.htmlParser().parseInput(html, Corpus.BaseUri);
+    }
+
+    @Benchmark
+    public Document parseFiltered() {
+        return Parser.htmlParser().parseFilter(SkipChrome).parseInput(html, Corpus.BaseUri);
+    }
+
+    @Benchmark
+    public Document parseLazyAttributes() {
+        return Parser.htmlParser().setLazyAttributes(true).parseInput(html, Corpus.BaseUri);
+    }
+
+    @Benchmark
+    public long streamParser() {
+        try (StreamParser streamer = new StreamParser(Parser.htmlParser()).parse(html, Corpus.BaseUri)) {
+            return streamer.stream().count();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.jsoup.benchmark;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ Selector throughput via {@link org.jsoup.select.Selector#select(String, org.jsoup.nodes.Element)}, over a
+ pre-parsed document. Includes query lookup and evaluation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SelectBenchmark {
+    @Param({"medium.html", "yahoo-jp.html.gz", "large.html", "xwiki-edit.html.gz"})
+    String file;
+
+    @Param({"a[href]", "div.content p", "#body", "ul > li:nth-child(odd) a", "img[src$=.png], img[src$=.gif]"})
+    String query;
+
+    Document doc;
+    Document indexedDoc;
+
+    @Setup
+    public void setup() {
+        String html = Corpus.load(file);
+        doc = Jsoup.parse(html, Corpus.BaseUri);
+        indexedDoc = Jsoup.parse(html, Corpus.BaseUri).selectorIndex(true);
+    }
+
+    @Benchmark
+    public Elements select() {
+        return doc.select(query);
+    }
+
+    /** As {@link #select()}, with the document's selector index enabled (and built on the first invocation). */
+    @Benchmark
+    public Elements selectIndexed() {
+        return indexedDoc.select(query);
+    }
+}
@@ -0,0 +1,57 @@
+package org.jsoup.benchmark;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ Tree builder cost on tag-dense input, where most of the parse is spent dispatching start and end tags through the
+ insertion modes rather than tokenising text. The {@code tag-dense} input is generated: nested tables, lists,
+ definition lists, headings, and formatting elements, with very little text. {@code xwiki-edit.html.gz} is a
+ real-world comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TreeBuilderBenchmark {
+    @Param({"tag-dense", "xwiki-edit.html.gz"})
+    String file;
+
+    String html;
+
+    @Setup
+    public void setup() {
+        html = file.equals("tag-dense") ? tagDense(2000) : Corpus.load(file);
+    }
+
+    @Benchmark
+    public Document parseInput() {
+        return Parser.htmlParser().parseInput(html, Corpus.BaseUri);
+    }
+
+    static String tagDense(int blocks) {
+        StringBuilder sb = new StringBuilder("<!doctype html><html><head><title>T</title><meta charset=utf-8></head><body>");
+        for (int i = 0; i < blocks; i++) {
+            sb.append("<div><h2>H</h2><p><b>a</b><i>b</i><a href=#>c</a><p><em><strong>d</strong></em>")
+                .append("<table><tr><td><span>e</span><td><b>f</b></tr><tr><th>g<td><a href=#>h</a></table>")
+                .append("<ul><li>i<li><b>j</b><li>k</ul><dl><dt>l<dd>m<dt>n<dd>o</dl>")
+                .append("<section><article><p>p</article></section></div>");
+        }
+        return sb.append("</body></html>").toString();
+    }
+}
@@ -1,5 +1,8 @@
 package org.jsoup;
 
+import org.jsoup.helper.ClientPool;
+import org.jsoup.helper.ContentDecoder;
+import org.jsoup.helper.HttpCache;
 import org.jsoup.helper.RequestAuthenticator;
 import org.jsoup.nodes.Document;
 import org.jsoup.parser.Parser;
@@ -19,6 +22,8 @@ import java.net.URL;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  The Connection interface is a convenient HTTP client and session object to fetch content from the web, and parse them
@@ -27,10 +32,10 @@ import java.util.Map;
  Connections contain {@link Connection.Request} and {@link Connection.Response} objects (once executed). Configuration
  settings (URL, timeout, useragent, etc) set on a session will be applied by default to each subsequent request.</p>
  <p>To start a new request from the session, use {@link #newRequest()}.</p>
- <p>Cookies are stored in memory for the duration of the session. For that reason, do not use one single session for all
- requests in a long-lived application, or you are likely to run out of memory, unless care is taken to clean up the
- cookie store. The cookie store for the session is available via {@link #cookieStore()}. You may provide your own
- implementation via {@link #cookieStore(java.net.CookieStore)} before making requests.</p>
+ <p>Cookies are stored in memory for the duration of the session, in a {@link org.jsoup.helper.ConcurrentCookieStore},
+ which is safe for concurrent requests, removes expired cookies, and is capped in size. The cookie store for the
+ session is available via {@link #cookieStore()}. You may provide your own implementation via
+ {@link #cookieStore(java.net.CookieStore)} before making requests.</p>
  <p>Request configuration can be made using either the shortcut methods in Connection (e.g. {@link #userAgent(String)}),
  or by methods in the {@link Connection.Request} object directly. All request configuration must be made before the request is
  executed. When used as an ongoing session, initialize all defaults prior to making multi-threaded {@link
@@ -496,6 +501,117 @@ public interface Connection {
      */
     Response execute() throws IOException;
 
+    /**
+     Execute the request asynchronously. When the JDK HttpClient is in use (Java 11+), the request is sent with
+     non-blocking I/O, so no thread is held while waiting for the server. The response body is read into memory (up to
+     the {@link #maxBodySize(int) max body size}) before the future completes, so reading or parsing the completed
+     response will not block on I/O.
+     <p>With the HttpURLConnection fallback (or when a proxy is set), the blocking request runs on the
+     {@link #executor(Executor) executor} instead.</p>
+     <p>The future completes exceptionally with the same exceptions that {@link #execute()} throws. Don't reuse this
+     Connection for another request until the future completes; use {@link #newRequest()} for concurrent requests.</p>
+     <p>On Android, the async methods require API level 24.</p>
+     @return a future for the executed {@link Response}
+     @since 1.23.1
+     */
+    default CompletableFuture<Response> executeAsync() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     Execute the request asynchronously as a GET, and parse the result. The response is fetched as in
+     {@link #executeAsync()}, and then parsed on the {@link #executor(Executor) executor}.
+     @return a future for the parsed Document
+     @since 1.23.1
+     */
+    default CompletableFuture<Document> getAsync() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     Execute the request asynchronously as a POST, and parse the result. The response is fetched as in
+     {@link #executeAsync()}, and then parsed on the {@link #executor(Executor) executor}.
+     @return a future for the parsed Document
+     @since 1.23.1
+     */
+    default CompletableFuture<Document> postAsync() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     Execute the request asynchronously, and complete with a {@link StreamParser} over the response once its headers
+     have been received. Unlike {@link #executeAsync()}, the body is not buffered first: when the JDK HttpClient is in
+     use, bytes are fed to the parser as they arrive from the network, so {@link StreamParser#selectFirst(String)} and
+     {@link StreamParser#selectNext(String)} return as soon as the matching element has been read.
+     <p>Closing the StreamParser closes the response, and abandons any of the body not yet received. So to fetch just
+     the {@code <head>} of a page, for example:</p>
+     <pre>{@code
+     try (StreamParser streamer = Jsoup.connect(url).streamParserAsync().get()) {
+         Element title = streamer.selectFirst("title");
+     }
+     }</pre>
+     <p>The parser reads from the network on the calling thread. The charset sniff (if the response does not declare a
+     charset) runs on the {@link #executor(Executor) executor} before the future completes.</p>
+     @return a future for a StreamParser, prepared to parse the response
+     @since 1.23.1
+     */
+    default CompletableFuture<StreamParser> streamParserAsync() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     Set the executor used by the asynchronous methods to parse responses, and to run blocking requests when non-blocking
+     I/O isn't available. Defaults to {@link java.util.concurrent.ForkJoinPool#commonPool()}. If you use the
+     HttpURLConnection (or a proxy), supply an executor sized for the number of concurrent requests.
+     @param executor the executor
+     @return this Connection, for chaining
+     @since 1.23.1
+     */
+    default Connection executor(Executor executor) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     Register a decoder for a response {@code Content-Encoding}, such as {@code br} or {@code zstd}. Registered encodings
+     are advertised in the request's {@code Accept-Encoding} header (unless that header has been set explicitly), in
+     the order they were registered. {@code gzip} is registered by default; {@code deflate} is decoded if received, but
+     not advertised unless registered. Registering a decoder for an existing encoding replaces it.
+     <p>The response body is decoded as it is read, and the {@link #maxBodySize(int) max body size} is applied to the
+     decoded content. Requests created with {@link #newRequest()} inherit the registered decoders.</p>
+     @param encoding the content-coding name, e.g. {@code br}. Case-insensitive.
+     @param decoder the decoder
+     @return this Connection, for chaining
+     @since 1.23.1
+     */
+    default Connection decoder(String encoding, ContentDecoder decoder) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     Get this session's pool of HTTP clients. When requests are executed via the JDK HttpClient (Java 11+), a client is
+     held for each authenticator and SSL context used by the session's requests, so that requests with the same
+     settings reuse its connections. Use to size the pool, or to read its connection reuse counters. Requests created
+     with {@link #newRequest()} share their session's pool.
+     @return the session's client pool
+     @since 1.23.1
+     */
+    default ClientPool clientPool() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     Set an HTTP cache for this session. Successful GET responses that carry validators or a freshness lifetime are
+     stored; fresh responses are then served from the cache, and stale ones are revalidated with a conditional GET. On a
+     {@code 304 Not Modified}, the stored body (or a clone of its parsed Document) is served. Requests created with
+     {@link #newRequest()} share their session's cache. See {@link HttpCache} for details.
+     @param cache the cache to use, or null to disable caching
+     @return this Connection, for chaining
+     @since 1.23.1
+     */
+    default Connection cache(@Nullable HttpCache cache) {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * Get the request object associated with this connection
      * @return request
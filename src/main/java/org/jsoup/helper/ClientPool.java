@@ -0,0 +1,216 @@
+package org.jsoup.helper;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ A session's pool of HTTP clients, used when requests are executed via the JDK HttpClient (Java 11+). An HttpClient is
+ bound to an authenticator and an SSL context when it is built, so a client is held for each combination of those that
+ the session's requests use. Requests with the same settings share a client, and so can reuse its kept-alive
+ connections and HTTP/2 sessions, rather than connecting and handshaking again.
+ <p>Obtain a session's pool with {@link org.jsoup.Connection#clientPool()}. The pool holds up to {@link #maxSize()}
+ clients; when full, the least recently used client is evicted. An evicted client is not closed, but is released, and
+ its connections are closed when it is no longer referenced by in-flight requests.</p>
+ <p>The counters can be used to verify that connections are being reused across a crawl. As the HttpClient does not
+ report when it opens a connection, {@link #connectionReuseCount()} counts requests to an origin that their client had
+ already connected to; the client will reuse an idle kept-alive connection for those, if it still holds one.</p>
+ <p>This class is thread-safe.</p>
+ @since 1.23.1
+ */
+public final class ClientPool {
+    /** The default maximum number of clients held in a session's pool. */
+    public static final int DefaultMaxSize = 8;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true); // access order, for LRU
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong connectionReuses = new AtomicLong();
+    private final AtomicLong multiplexed = new AtomicLong();
+    private int maxSize;
+
+    /**
+     Create a new, empty pool.
+     @param maxSize the maximum number of clients to hold; must be at least 1
+     */
+    public ClientPool(int maxSize) {
+        Validate.isTrue(maxSize >= 1, "maxSize must be >= 1");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     Get the pooled client for the authenticator and SSL context, or create one.
+     @param auth the request's authenticator, compared by identity; may be null
+     @param sslContext the request's SSL context, compared by identity; may be null
+     @param create creates a new client, if there is none for these settings
+     */
+    synchronized Entry client(@Nullable Object auth, @Nullable Object sslContext, Supplier<Object> create) {
+        Key key = new Key(auth, sslContext);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(create.get());
+            created.incrementAndGet();
+            entries.put(key, entry);
+            trim();
+        }
+        return entry;
+    }
+
+    private void trim() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     Get the maximum number of clients this pool will hold.
+     @return the max size
+     */
+    public synchronized int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     Set the maximum number of clients this pool will hold. If the pool currently holds more than that, the least
+     recently used clients are evicted.
+     @param maxSize the maximum number of clients to hold; must be at least 1
+     @return this pool, for chaining
+     */
+    public synchronized ClientPool maxSize(int maxSize) {
+        Validate.isTrue(maxSize >= 1, "maxSize must be >= 1");
+        this.maxSize = maxSize;
+        trim();
+        return this;
+    }
+
+    /**
+     Get the number of clients currently held.
+     @return the current size
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     Release all clients from the pool. The statistics counters are not reset.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     Get the number of clients that have been created, because no pooled client matched a request's settings.
+     @return the created count
+     */
+    public long clientCreatedCount() {
+        return created.get();
+    }
+
+    /**
+     Get the number of clients that have been evicted to keep the pool within its max size.
+     @return the eviction count
+     */
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     Get the number of requests that have been sent via the pool's clients. Each redirect hop counts as a request.
+     @return the request count
+     */
+    public long requestCount() {
+        return requests.get();
+    }
+
+    /**
+     Get the number of requests that went to an origin (scheme, host, and port) their client had already connected to,
+     and so could reuse a kept-alive connection or HTTP/2 session rather than connecting and handshaking again.
+     @return the connection reuse count
+     */
+    public long connectionReuseCount() {
+        return connectionReuses.get();
+    }
+
+    /**
+     Get the number of requests that were sent as a new stream on an existing HTTP/2 connection. This is a subset of the
+     {@link #connectionReuseCount()}.
+     @return the multiplexed stream count
+     */
+    public long multiplexedCount() {
+        return multiplexed.get();
+    }
+
+    /**
+     Reset the statistics counters to zero.
+     */
+    public void resetStats() {
+        created.set(0);
+        evictions.set(0);
+        requests.set(0);
+        connectionReuses.set(0);
+        multiplexed.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ClientPool[size=%d, maxSize=%d, created=%d, evictions=%d, requests=%d, connectionReuses=%d, multiplexed=%d]",
+            size(), maxSize(), clientCreatedCount(), evictionCount(), requestCount(), connectionReuseCount(), multiplexedCount());
+    }
+
+    /** A pooled client, and the origins it has connected to. */
+    final class Entry {
+        final Object client;
+        private final Set<String> origins = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        private final Set<String> http2Origins = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        Entry(Object client) {
+            this.client = client;
+        }
+
+        /**
+         Records a completed exchange on this client.
+         @param origin the request origin, e.g. {@code https://example.com:443}
+         @param http2 if the response was received over HTTP/2
+         */
+        void exchanged(String origin, boolean http2) {
+            requests.incrementAndGet();
+            if (!origins.add(origin))
+                connectionReuses.incrementAndGet();
+            if (http2 && !http2Origins.add(origin))
+                multiplexed.incrementAndGet();
+        }
+    }
+
+    /** The client settings, compared by identity. */
+    private static final class Key {
+        final @Nullable Object auth;
+        final @Nullable Object sslContext;
+
+        Key(@Nullable Object auth, @Nullable Object sslContext) {
+            this.auth = auth;
+            this.sslContext = sslContext;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return auth == key.auth && sslContext == key.sslContext;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(auth) + System.identityHashCode(sslContext);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package org.jsoup.helper;
+
+import org.jspecify.annotations.Nullable;
+
+import java.net.CookieStore;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.jsoup.internal.Normalizer.lowerCase;
+
+/**
+ A thread-safe {@link CookieStore} for sessions that make many concurrent requests. This is the default store for
+ {@link org.jsoup.Jsoup#newSession()}; a different store can be set with
+ {@link org.jsoup.Connection#cookieStore(CookieStore)}.
+ <p>Cookies are indexed by domain, and the domains are spread over lock-striped shards. A lookup visits only the shards
+ for the request host and its parent domains (e.g. {@code www.example.com} and {@code example.com}), rather than
+ scanning all cookies under a single lock as the JDK's default store does, so requests to different hosts rarely
+ contend.</p>
+ <p>Expired cookies are removed as they are encountered in lookups, and each shard is swept periodically as cookies are
+ added. The store holds at most {@link #maxCookies()} cookies in total, and {@link #maxCookiesPerDomain()} per domain;
+ when a limit is exceeded, expired cookies are swept and then the oldest cookies are evicted.</p>
+ @since 1.23.1
+ */
+public final class ConcurrentCookieStore implements CookieStore {
+    /** The default maximum number of cookies held. */
+    public static final int DefaultMaxCookies = 3000;
+    /** The default maximum number of cookies held for a single domain. */
+    public static final int DefaultMaxCookiesPerDomain = 180;
+    private static final int DefaultShards = 32;
+    private static final int SweepInterval = 256; // adds to a shard between sweeps of its expired cookies
+
+    private final Shard[] shards;
+    private final int maxCookies;
+    private final int maxCookiesPerDomain;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong(); // orders cookies by when they were stored
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicInteger evictCursor = new AtomicInteger();
+
+    /**
+     Create a new store, with the default limits.
+     */
+    public ConcurrentCookieStore() {
+        this(DefaultShards, DefaultMaxCookies, DefaultMaxCookiesPerDomain);
+    }
+
+    /**
+     Create a new store.
+     @param shards the number of lock stripes; rounded up to a power of two
+     @param maxCookies the maximum number of cookies to hold; must be at least 1
+     @param maxCookiesPerDomain the maximum number of cookies to hold for a single domain; must be at least 1
+     */
+    public ConcurrentCookieStore(int shards, int maxCookies, int maxCookiesPerDomain) {
+        Validate.isTrue(shards >= 1, "shards must be >= 1");
+        Validate.isTrue(maxCookies >= 1, "maxCookies must be >= 1");
+        Validate.isTrue(maxCookiesPerDomain >= 1, "maxCookiesPerDomain must be >= 1");
+        int count = Integer.highestOneBit(shards);
+        if (count < shards) count <<= 1;
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++)
+            this.shards[i] = new Shard();
+        this.maxCookies = maxCookies;
+        this.maxCookiesPerDomain = maxCookiesPerDomain;
+    }
+
+    @Override
+    public void add(@Nullable URI uri, HttpCookie cookie) {
+        Validate.notNullParam(cookie, "cookie");
+        String domain = domainKey(uri, cookie);
+        Shard shard = shard(domain);
+        long seq = sequence.incrementAndGet();
+        synchronized (shard) {
+            List<Stored> cookies = shard.domains.get(domain);
+            if (cookies != null && removeCookie(cookies, cookie)) {
+                size.decrementAndGet();
+                if (cookies.isEmpty()) shard.domains.remove(domain);
+            }
+            if (cookie.getMaxAge() == 0) return; // a deletion
+            if (cookies == null || cookies.isEmpty()) {
+                cookies = new ArrayList<>(4);
+                shard.domains.put(domain, cookies);
+            }
+            cookies.add(new Stored(cookie, effectiveUri(uri), seq));
+            size.incrementAndGet();
+
+            if (cookies.size() > maxCookiesPerDomain) {
+                size.addAndGet(-removeExpired(cookies));
+                while (cookies.size() > maxCookiesPerDomain) {
+                    cookies.remove(0); // oldest, as cookies are appended
+                    size.decrementAndGet();
+                    evictions.incrementAndGet();
+                }
+            }
+            if (++shard.adds % SweepInterval == 0)
+                sweep(shard);
+        }
+        if (size.get() > maxCookies)
+            trim(seq);
+    }
+
+    /**
+     Evicts the oldest cookie from each shard in turn (other than the just added cookie), after sweeping its expired
+     cookies, until the store is within its limit. Locks one shard at a time.
+     */
+    private void trim(long protect) {
+        for (int attempts = 0; size.get() > maxCookies && attempts < shards.length * 2; attempts++) {
+            Shard shard = shards[evictCursor.getAndIncrement() & (shards.length - 1)];
+            synchronized (shard) {
+                sweep(shard);
+                if (size.get() <= maxCookies) return;
+                List<Stored> oldestList = null;
+                String oldestDomain = null;
+                for (Map.Entry<String, List<Stored>> entry : shard.domains.entrySet()) {
+                    Stored first = entry.getValue().get(0);
+                    if (first.seq != protect && (oldestList == null || first.seq < oldestList.get(0).seq)) {
+                        oldestList = entry.getValue();
+                        oldestDomain = entry.getKey();
+                    }
+                }
+                if (oldestList != null) {
+                    oldestList.remove(0);
+                    if (oldestList.isEmpty()) shard.domains.remove(oldestDomain);
+                    size.decrementAndGet();
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<HttpCookie> get(URI uri) {
+        Validate.notNullParam(uri, "uri");
+        String host = uri.getHost();
+        if (host == null) return Collections.emptyList();
+        host = lowerCase(host);
+
+        List<HttpCookie> matched = new ArrayList<>();
+        String domain = host;
+        while (true) {
+            Shard shard = shard(domain);
+            synchronized (shard) {
+                List<Stored> cookies = shard.domains.get(domain);
+                if (cookies != null) {
+                    size.addAndGet(-removeExpired(cookies));
+                    if (cookies.isEmpty())
+                        shard.domains.remove(domain);
+                    for (Stored stored : cookies)
+                        matched.add(stored.cookie);
+                }
+            }
+            int dot = domain.indexOf('.');
+            if (dot == -1 || isIpAddress(host)) break;
+            domain = domain.substring(dot + 1); // visit the parent domain
+        }
+        return matched;
+    }
+
+    @Override
+    public List<HttpCookie> getCookies() {
+        List<HttpCookie> all = new ArrayList<>();
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                sweep(shard);
+                for (List<Stored> cookies : shard.domains.values()) {
+                    for (Stored stored : cookies)
+                        all.add(stored.cookie);
+                }
+            }
+        }
+        return Collections.unmodifiableList(all);
+    }
+
+    @Override
+    public List<URI> getURIs() {
+        Set<URI> uris = new LinkedHashSet<>();
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                for (List<Stored> cookies : shard.domains.values()) {
+                    for (Stored stored : cookies) {
+                        if (stored.uri != null) uris.add(stored.uri);
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableList(new ArrayList<>(uris));
+    }
+
+    @Override
+    public boolean remove(@Nullable URI uri, HttpCookie cookie) {
+        Validate.notNullParam(cookie, "cookie");
+        String domain = domainKey(uri, cookie);
+        Shard shard = shard(domain);
+        synchronized (shard) {
+            List<Stored> cookies = shard.domains.get(domain);
+            if (cookies == null || !removeCookie(cookies, cookie)) return false;
+            if (cookies.isEmpty()) shard.domains.remove(domain);
+            size.decrementAndGet();
+            return true;
+        }
+    }
+
+    @Override
+    public boolean removeAll() {
+        boolean removed = false;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                for (List<Stored> cookies : shard.domains.values()) {
+                    size.addAndGet(-cookies.size());
+                    removed = true;
+                }
+                shard.domains.clear();
+            }
+        }
+        return removed;
+    }
+
+    /**
+     Remove all expired cookies from the store.
+     @return the number of cookies removed
+     */
+    public int sweepExpired() {
+        int removed = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                removed += sweep(shard);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     Get the number of cookies currently held, which may include cookies that have expired but not yet been swept.
+     @return the number of cookies
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     Get the maximum number of cookies this store will hold.
+     @return the max cookies
+     */
+    public int maxCookies() {
+        return maxCookies;
+    }
+
+    /**
+     Get the maximum number of cookies this store will hold for a single domain.
+     @return the max cookies per domain
+     */
+    public int maxCookiesPerDomain() {
+        return maxCookiesPerDomain;
+    }
+
+    /**
+     Get the number of unexpired cookies that have been evicted to keep the store within its limits.
+     @return the eviction count
+     */
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConcurrentCookieStore[size=%d, maxCookies=%d, maxCookiesPerDomain=%d, evictions=%d]",
+            size(), maxCookies, maxCookiesPerDomain, evictionCount());
+    }
+
+    private Shard shard(String domain) {
+        int h = domain.hashCode();
+        h ^= (h >>> 16); // spread the high bits, as in HashMap
+        return shards[h & (shards.length - 1)];
+    }
+
+    /** Sweeps the shard's expired cookies. Must hold the shard lock. */
+    private int sweep(Shard shard) {
+        int removed = 0;
+        Iterator<List<Stored>> it = shard.domains.values().iterator();
+        while (it.hasNext()) {
+            List<Stored> cookies = it.next();
+            removed += removeExpired(cookies);
+            if (cookies.isEmpty()) it.remove();
+        }
+        size.addAndGet(-removed);
+        return removed;
+    }
+
+    /** Removes expired cookies from the list, returning the number removed. Does not update the size. */
+    private static int removeExpired(List<Stored> cookies) {
+        int removed = 0;
+        Iterator<Stored> it = cookies.iterator();
+        while (it.hasNext()) {
+            if (it.next().cookie.hasExpired()) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /** Removes the cookie with the same name, domain, and path (per HttpCookie#equals). Does not update the size. */
+    private static boolean removeCookie(List<Stored> cookies, HttpCookie cookie) {
+        for (Iterator<Stored> it = cookies.iterator(); it.hasNext(); ) {
+            if (it.next().cookie.equals(cookie)) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     Gets the domain that the cookie is indexed under: its lower-cased domain, without a leading dot. The CookieManager
+     sets the domain of a cookie from a dotless host (like {@code localhost}) to {@code host.local}; that is indexed as
+     the host, so that it matches requests to the host.
+     */
+    private static String domainKey(@Nullable URI uri, HttpCookie cookie) {
+        String host = uri != null && uri.getHost() != null ? lowerCase(uri.getHost()) : null;
+        String domain = cookie.getDomain();
+        if (domain == null) return host != null ? host : "";
+        domain = lowerCase(domain);
+        if (domain.startsWith(".")) domain = domain.substring(1);
+        if (host != null && host.indexOf('.') == -1 && domain.equals(host + ".local"))
+            return host;
+        return domain;
+    }
+
+    private static boolean isIpAddress(String host) {
+        if (host.startsWith("[")) return true; // IPv6
+        for (int i = 0; i < host.length(); i++) {
+            char c = host.charAt(i);
+            if (c != '.' && (c < '0' || c > '9')) return false;
+        }
+        return true;
+    }
+
+    /** The scheme and host of the URI that set a cookie, as reported by getURIs(). */
+    private static @Nullable URI effectiveUri(@Nullable URI uri) {
+        if (uri == null) return null;
+        try {
+            return new URI(uri.getScheme() != null ? uri.getScheme() : "http", uri.getHost(), null, null);
+        } catch (URISyntaxException e) {
+            return uri;
+        }
+    }
+
+    /** A lock stripe, holding the cookies for the domains that hash to it, in the order they were stored. */
+    private static final class Shard {
+        final Map<String, List<Stored>> domains = new HashMap<>();
+        int adds;
+    }
+
+    private static final class Stored {
+        final HttpCookie cookie;
+        final @Nullable URI uri;
+        final long seq;
+
+        Stored(HttpCookie cookie, @Nullable URI uri, long seq) {
+            this.cookie = cookie;
+            this.uri = uri;
+            this.seq = seq;
+        }
+    }
+}
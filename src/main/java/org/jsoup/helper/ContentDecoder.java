@@ -0,0 +1,38 @@
+package org.jsoup.helper;
+
+import org.jsoup.Connection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ A {@code ContentDecoder} decodes a response body that was sent with a {@code Content-Encoding}, such as {@code gzip}.
+ Decoders are registered on a {@link Connection} with {@link Connection#decoder(String, ContentDecoder)}, and the
+ registered encodings are advertised in the request's {@code Accept-Encoding} header.
+ <p>A decoder wraps the encoded stream, and should decode it incrementally as it is read, so that the body can be
+ parsed as it arrives, and so that the connection's max body size is applied to the decoded content. For example, to
+ add Brotli via a third-party library: {@code con.decoder("br", BrotliInputStream::new)}.</p>
+ @since 1.23.1
+ */
+@FunctionalInterface
+public interface ContentDecoder {
+    /**
+     Wrap the encoded body stream in a stream that decodes it.
+     @param encoded the encoded body
+     @return a stream of the decoded body
+     @throws IOException if the stream could not be set up (e.g. if its header is invalid)
+     */
+    InputStream decode(InputStream encoded) throws IOException;
+
+    /** Decodes {@code gzip} content. Registered by default. */
+    ContentDecoder Gzip = GZIPInputStream::new;
+
+    /**
+     Decodes {@code deflate} content, as raw deflate data. Not advertised by default, as servers differ in whether they
+     send raw or zlib-wrapped data; but used if a server sends it anyway.
+     */
+    ContentDecoder Deflate = encoded -> new InflaterInputStream(encoded, new Inflater(true));
+}
@@ -2,6 +2,7 @@ package org.jsoup.helper;
 
 import org.jsoup.Connection;
 import org.jsoup.internal.ControllableInputStream;
+import org.jsoup.internal.MappedReader;
 import org.jsoup.internal.Normalizer;
 import org.jsoup.internal.SimpleStreamReader;
 import org.jsoup.internal.StringUtil;
@@ -25,6 +26,7 @@ import java.io.Reader;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.IllegalCharsetNameException;
@@ -150,6 +152,92 @@ public final class DataUtil {
         return streamer;
     }
 
+    /**
+     * Loads and parses a file to a Document, reading it through a memory-mapped buffer. The file is decoded directly from
+     * the mapping into the parser's character buffer, avoiding intermediate byte copies, and letting the OS page cache
+     * manage the file's pages. This is typically more efficient than {@link #load(Path, String, String, Parser)} for
+     * large files (many megabytes).
+     * <p>The charset is detected as in the regular load (byte order mark, then {@code meta} or XML declaration). Files
+     * that are compressed with gzip (and end in {@code .gz} or {@code .z}), empty files, and paths that are not on the
+     * default file system, cannot be mapped, and are loaded via the regular stream path. The file must not be truncated
+     * while it is being read.</p>
+     *
+     * @param path file to load
+     * @param charsetName (optional) character set of input; specify {@code null} to attempt to autodetect. A BOM in
+     * the file will always override this setting.
+     * @param baseUri base URI of document, to resolve relative links against
+     * @param parser alternate {@link Parser#xmlParser() parser} to use.
+     * @return Document
+     * @throws IOException on IO error
+     * @since 1.23.1
+     */
+    public static Document loadMapped(Path path, @Nullable String charsetName, String baseUri, Parser parser) throws IOException {
+        FileChannel channel = openMappable(path);
+        if (channel == null) return load(path, charsetName, baseUri, parser);
+        try {
+            CharsetDoc charsetDoc = detectCharset(sniffStream(channel), charsetName, baseUri, parser);
+            if (charsetDoc.doc != null) return charsetDoc.doc; // fully read during charset detection
+            return parseReader(new MappedReader(channel, bomLength(channel), charsetDoc.charset), charsetDoc.charset, baseUri, parser);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Returns a {@link StreamParser} that will parse the supplied file progressively, reading it through a memory-mapped
+     * buffer. See {@link #loadMapped(Path, String, String, Parser)} for when that is used.
+     *
+     * @param path file to load
+     * @param charset (optional) character set of input; specify {@code null} to attempt to autodetect from metadata.
+     * A BOM in the file will always override this setting.
+     * @param baseUri base URI of document, to resolve relative links against
+     * @param parser underlying HTML or XML parser to use.
+     * @return the StreamParser
+     * @throws IOException on IO error
+     * @since 1.23.1
+     */
+    public static StreamParser streamParserMapped(Path path, @Nullable Charset charset, String baseUri, Parser parser) throws IOException {
+        FileChannel channel = openMappable(path);
+        if (channel == null) return streamParser(path, charset, baseUri, parser);
+        StreamParser streamer = new StreamParser(parser);
+        String charsetName = charset != null? charset.name() : null;
+        try {
+            CharsetDoc charsetDoc = detectCharsetForStreamParser(sniffStream(channel), charsetName, baseUri, parser);
+            Reader reader = new MappedReader(channel, bomLength(channel), charsetDoc.charset); // closes the channel when done
+            streamer.parse(reader, baseUri);
+        } catch (IOException e) {
+            channel.close();
+            streamer.close();
+            throw e;
+        }
+        return streamer;
+    }
+
+    /** Opens a file for mapping, or returns null if it must be read as a stream. */
+    private static @Nullable FileChannel openMappable(Path path) throws IOException {
+        String name = Normalizer.lowerCase(path.getFileName().toString());
+        if (name.endsWith(".gz") || name.endsWith(".z")) return null;
+        SeekableByteChannel byteChannel = Files.newByteChannel(path);
+        if (!(byteChannel instanceof FileChannel) || byteChannel.size() == 0) {
+            byteChannel.close();
+            return null;
+        }
+        return (FileChannel) byteChannel;
+    }
+
+    /** A stream over the start of the file, for charset detection. The mapped reader reads by absolute position, so
+     is not affected by this stream's reads. */
+    private static ControllableInputStream sniffStream(FileChannel channel) {
+        return ControllableInputStream.wrap(Channels.newInputStream(channel), 0);
+    }
+
+    /** The length of a UTF-8 BOM at the start of the file, which {@link #detectCharsetFromBom} consumes. */
+    private static int bomLength(FileChannel channel) throws IOException {
+        ByteBuffer bom = ByteBuffer.allocate(3);
+        while (bom.hasRemaining() && channel.read(bom, bom.position()) > 0) { /* fill */ }
+        return bom.position() == 3 && bom.get(0) == (byte) 0xEF && bom.get(1) == (byte) 0xBB && bom.get(2) == (byte) 0xBF ? 3 : 0;
+    }
+
     /** Open an input stream from a file; if it's a gzip file, returns a GZIPInputStream to unzip it. */
     private static ControllableInputStream openStream(Path path) throws IOException {
         final SeekableByteChannel byteChannel = Files.newByteChannel(path);
@@ -327,9 +415,13 @@ public final class DataUtil {
 
         final InputStream input = charsetDoc.input;
         Validate.notNull(input);
+        return parseReader(new SimpleStreamReader(input, charsetDoc.charset), charsetDoc.charset, baseUri, parser);
+    }
+
+    /** Parses the decoded input, and closes it. */
+    private static Document parseReader(Reader input, Charset charset, String baseUri, Parser parser) throws IOException {
         final Document doc;
-        final Charset charset = charsetDoc.charset;
-        try (Reader reader = new SimpleStreamReader(input, charset)) {
+        try (Reader reader = input) {
             try {
                 doc = parser.parseInput(reader, baseUri);
             } catch (UncheckedIOException e) {
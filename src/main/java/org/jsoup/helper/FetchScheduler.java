@@ -0,0 +1,531 @@
+package org.jsoup.helper;
+
+import org.jsoup.Connection;
+import org.jsoup.nodes.Document;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.jsoup.internal.Normalizer.lowerCase;
+
+/**
+ Schedules many requests across hosts, limiting the number of concurrent requests and the request rate for each host,
+ so that a crawl can run at full throughput without hammering any single origin.
+ <pre>{@code
+ Connection session = Jsoup.newSession();
+ FetchScheduler scheduler = new FetchScheduler().maxPerHost(2).ratePerHost(5);
+ List<CompletableFuture<Document>> docs = new ArrayList<>();
+ for (String url : urls)
+     docs.add(scheduler.get(session.newRequest(url)));
+ }</pre>
+ <p>Requests are queued per host, and hosts are served round-robin, so a host with a deep queue does not hold back
+ others. A request is started once its host has fewer than {@link #maxPerHost(int)} requests in flight, a token is
+ available from the host's {@link #ratePerHost(double, int) rate limit}, and the scheduler as a whole has fewer than
+ {@link #maxConcurrent(int)} in flight.</p>
+ <p>Requests are run with the Connection's async methods (e.g. {@link Connection#executeAsync()}), so with the JDK
+ HttpClient they use non-blocking I/O and no thread is held per request. With the HttpURLConnection, they run on each
+ Connection's {@link Connection#executor(java.util.concurrent.Executor) executor}; on Java 21+, a virtual thread per
+ task executor is a good fit there. Each submitted Connection should be its own request, e.g. from
+ {@link Connection#newRequest(String)} on a session.</p>
+ <p>Per host {@link #stats() statistics}, including queue depth and histograms of queue wait and fetch latency, can be
+ used to tune the limits. So that a long crawl over many hosts doesn't accumulate them without bound, only the most
+ recently idle {@link #maxIdleHosts(int)} hosts are retained once they have no requests queued or in flight.</p>
+ <p>This class is thread-safe. Configure the limits before submitting requests; changes apply to requests not yet
+ started.</p>
+ @since 1.23.1
+ */
+public final class FetchScheduler implements Closeable {
+    private static final long[] BucketBoundsMillis = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final Map<String, Host> hosts = new LinkedHashMap<>();
+    private final ArrayDeque<Host> ready = new ArrayDeque<>(); // hosts with queued requests, in round-robin order
+    private final LinkedHashSet<Host> idle = new LinkedHashSet<>(); // hosts with nothing queued or in flight, least recently idle first
+    private int maxConcurrent = 64;
+    private int maxIdleHosts = 1000;
+    private int maxPerHost = 2;
+    private double ratePerHost = 0; // requests per second; 0 is unlimited
+    private int burst = 1;
+    private int inFlight = 0;
+    private boolean closed = false;
+    private @Nullable ScheduledExecutorService timer; // to dispatch once a rate limit allows
+    private long wakeAt = Long.MAX_VALUE;
+    private boolean dispatching = false; // a dispatch is starting requests
+    private boolean redispatch = false; // state changed during that dispatch, so it should run again
+
+    /**
+     Create a new FetchScheduler, with default limits of 2 concurrent requests per host, no rate limit, and 64
+     concurrent requests in total.
+     */
+    public FetchScheduler() {}
+
+    /**
+     Set the maximum number of requests in flight across all hosts.
+     @param maxConcurrent the maximum number of concurrent requests
+     @return this, for chaining
+     */
+    public synchronized FetchScheduler maxConcurrent(int maxConcurrent) {
+        Validate.isTrue(maxConcurrent > 0, "maxConcurrent must be > 0");
+        this.maxConcurrent = maxConcurrent;
+        return this;
+    }
+
+    /**
+     Set the maximum number of requests in flight to any one host.
+     @param maxPerHost the maximum number of concurrent requests per host
+     @return this, for chaining
+     */
+    public synchronized FetchScheduler maxPerHost(int maxPerHost) {
+        Validate.isTrue(maxPerHost > 0, "maxPerHost must be > 0");
+        this.maxPerHost = maxPerHost;
+        return this;
+    }
+
+    /**
+     Set the maximum number of idle hosts (with no requests queued or in flight) to retain. Beyond that, the least
+     recently idle hosts are dropped (once their rate limit has fully recovered) as new hosts are submitted to, and so
+     no longer appear in the {@link #stats()}. If such a host is submitted to again, its statistics start afresh.
+     @param maxIdleHosts the maximum number of idle hosts to retain
+     @return this, for chaining
+     */
+    public synchronized FetchScheduler maxIdleHosts(int maxIdleHosts) {
+        Validate.isTrue(maxIdleHosts >= 0, "maxIdleHosts must be >= 0");
+        this.maxIdleHosts = maxIdleHosts;
+        return this;
+    }
+
+    /**
+     Set the maximum rate that requests are started to any one host, with a burst of one.
+     @param perSecond the number of requests per second; {@code 0} for no limit
+     @return this, for chaining
+     @see #ratePerHost(double, int)
+     */
+    public FetchScheduler ratePerHost(double perSecond) {
+        return ratePerHost(perSecond, 1);
+    }
+
+    /**
+     Set the maximum rate that requests are started to any one host. Each host has a token bucket that holds up to
+     {@code burst} tokens, and is refilled at {@code perSecond}; each request takes a token when it starts.
+     @param perSecond the number of requests per second; {@code 0} for no limit
+     @param burst the number of requests that may be started at once, after a host has been idle
+     @return this, for chaining
+     */
+    public synchronized FetchScheduler ratePerHost(double perSecond, int burst) {
+        Validate.isTrue(perSecond >= 0, "perSecond must be >= 0");
+        Validate.isTrue(burst > 0, "burst must be > 0");
+        this.ratePerHost = perSecond;
+        this.burst = burst;
+        return this;
+    }
+
+    /**
+     Schedule the request, and execute it with {@link Connection#executeAsync()}.
+     @param con the request to execute
+     @return a future for the response
+     */
+    public CompletableFuture<Connection.Response> execute(Connection con) {
+        return submit(con, Connection::executeAsync);
+    }
+
+    /**
+     Schedule the request, and execute it as a GET with {@link Connection#getAsync()}.
+     @param con the request to execute
+     @return a future for the parsed Document
+     */
+    public CompletableFuture<Document> get(Connection con) {
+        return submit(con, Connection::getAsync);
+    }
+
+    /**
+     Schedule the request, to be run by the supplied function once the host's limits allow. The request counts against
+     the limits until the function's future completes.
+     @param con the request to schedule; its URL determines the host
+     @param fetch runs the request, e.g. {@code Connection::postAsync}
+     @param <T> the result type
+     @return a future for the result of the fetch. If cancelled before the request is started, the request is not run.
+     */
+    public <T> CompletableFuture<T> submit(Connection con, Function<Connection, CompletableFuture<T>> fetch) {
+        Validate.notNullParam(con, "con");
+        Validate.notNullParam(fetch, "fetch");
+        URL url = con.request().url();
+        Validate.notNull(url, "URL must be specified to connect");
+        Task<T> task = new Task<>(con, fetch);
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("FetchScheduler is closed");
+            Host host = hosts.get(lowerCase(url.getHost()));
+            if (host == null) {
+                evictIdle();
+                host = new Host(lowerCase(url.getHost()), burst);
+                hosts.put(host.name, host);
+            } else {
+                idle.remove(host);
+            }
+            task.host = host;
+            host.queue.addLast(task);
+            host.peakQueued = Math.max(host.peakQueued, host.queue.size());
+            if (!host.ready) {
+                host.ready = true;
+                ready.addLast(host);
+            }
+        }
+        dispatch();
+        return task.result;
+    }
+
+    /**
+     Starts the queued requests that the limits allow, round-robin across hosts. A fetch that completes immediately
+     (e.g. from a cache, or a fast failure) calls back into dispatch from its start; rather than recursing, that call
+     marks a rerun for the dispatch already in progress, which loops until no more requests can be started.
+     */
+    private void dispatch() {
+        synchronized (this) {
+            if (dispatching) {
+                redispatch = true;
+                return;
+            }
+            dispatching = true;
+        }
+        boolean again = true;
+        try {
+            while (again) {
+                for (Task<?> task : startable())
+                    task.start();
+                synchronized (this) {
+                    again = redispatch;
+                    redispatch = false;
+                    if (!again) dispatching = false;
+                }
+            }
+        } finally {
+            if (again) {
+                synchronized (this) {
+                    dispatching = false;
+                }
+            }
+        }
+    }
+
+    /** Takes the queued requests that the limits allow to be started now, and counts them as in flight. */
+    private synchronized List<Task<?>> startable() {
+        List<Task<?>> starts = new ArrayList<>();
+        if (closed) return starts;
+        redispatch = false; // this pass sees all changes so far
+        long now = System.nanoTime();
+        long nextToken = Long.MAX_VALUE;
+        boolean progress = true;
+        while (progress && inFlight < maxConcurrent) {
+            progress = false;
+            for (int i = 0, n = ready.size(); i < n && inFlight < maxConcurrent; i++) {
+                Host host = ready.removeFirst();
+                host.dropCancelled();
+                if (host.queue.isEmpty()) {
+                    host.ready = false;
+                    if (host.inFlight == 0) idle.add(host);
+                    continue;
+                }
+                if (host.inFlight < maxPerHost) {
+                    long wait = host.takeToken(now, ratePerHost, burst);
+                    if (wait == 0) {
+                        Task<?> task = host.queue.removeFirst();
+                        host.inFlight++;
+                        inFlight++;
+                        task.started = now;
+                        host.queueWait.record(now - task.queued);
+                        starts.add(task);
+                        progress = true;
+                    } else {
+                        nextToken = Math.min(nextToken, now + wait);
+                    }
+                }
+                if (host.queue.isEmpty()) host.ready = false;
+                else ready.addLast(host);
+            }
+        }
+        if (nextToken != Long.MAX_VALUE) wakeAt(nextToken, now);
+        return starts;
+    }
+
+    /** Schedules a dispatch for when the next rate limit token is available. */
+    private void wakeAt(long at, long now) {
+        if (at >= wakeAt && wakeAt > now) return; // already scheduled at or before then
+        wakeAt = at;
+        if (timer == null) {
+            ScheduledThreadPoolExecutor exec = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "jsoup-fetch-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            exec.setRemoveOnCancelPolicy(true);
+            exec.setKeepAliveTime(1, TimeUnit.SECONDS); // don't hold a thread once the crawl is idle
+            exec.allowCoreThreadTimeOut(true);
+            timer = exec;
+        }
+        timer.schedule(this::dispatch, at - now, TimeUnit.NANOSECONDS);
+    }
+
+    private void finished(Task<?> task, boolean success) {
+        synchronized (this) {
+            Host host = task.host;
+            assert host != null;
+            host.inFlight--;
+            inFlight--;
+            host.latency.record(System.nanoTime() - task.started);
+            if (success) host.completed++;
+            else host.failed++;
+            if (host.inFlight == 0 && host.queue.isEmpty()) idle.add(host);
+        }
+        dispatch();
+    }
+
+    /**
+     Drops the least recently idle hosts beyond the max idle hosts. A host is only dropped once its token bucket is full,
+     so that a new Host for it would not allow a burst beyond the rate limit.
+     */
+    private void evictIdle() {
+        long now = System.nanoTime();
+        Iterator<Host> it = idle.iterator();
+        while (idle.size() > maxIdleHosts && it.hasNext()) {
+            Host host = it.next();
+            if (!host.bucketFull(now, ratePerHost, burst)) break; // hosts idle since then will not be full either
+            it.remove();
+            hosts.remove(host.name);
+        }
+    }
+
+    /**
+     Get a snapshot of the statistics for each host that requests have been submitted to, other than idle hosts that
+     have been dropped per {@link #maxIdleHosts(int)}.
+     @return the statistics, by host name, in order of first submission
+     */
+    public synchronized Map<String, HostStats> stats() {
+        Map<String, HostStats> stats = new LinkedHashMap<>();
+        for (Host host : hosts.values())
+            stats.put(host.name, new HostStats(host));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     Get the upper bounds (inclusive, in milliseconds) of the histogram buckets in {@link HostStats}. The final bucket
+     holds the times above the last bound.
+     @return a copy of the bucket bounds
+     */
+    public static long[] histogramBoundsMillis() {
+        return BucketBoundsMillis.clone();
+    }
+
+    /**
+     Close the scheduler. Requests that have not been started are cancelled; requests in flight continue to completion.
+     No further requests may be submitted.
+     */
+    @Override
+    public void close() {
+        List<Task<?>> cancelled = new ArrayList<>();
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            for (Host host : hosts.values()) {
+                cancelled.addAll(host.queue);
+                host.queue.clear();
+                host.ready = false;
+            }
+            ready.clear();
+            idle.clear();
+            if (timer != null) timer.shutdownNow();
+        }
+        for (Task<?> task : cancelled)
+            task.result.completeExceptionally(new CancellationException("FetchScheduler closed"));
+    }
+
+    private final class Task<T> {
+        final Connection con;
+        final Function<Connection, CompletableFuture<T>> fetch;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final long queued = System.nanoTime();
+        long started;
+        @Nullable Host host;
+
+        Task(Connection con, Function<Connection, CompletableFuture<T>> fetch) {
+            this.con = con;
+            this.fetch = fetch;
+        }
+
+        void start() {
+            CompletableFuture<T> future;
+            try {
+                future = fetch.apply(con);
+            } catch (RuntimeException e) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+            }
+            future.whenComplete((value, error) -> {
+                finished(this, error == null);
+                if (error == null) result.complete(value);
+                else result.completeExceptionally(error);
+            });
+        }
+    }
+
+    private static final class Host {
+        final String name;
+        final ArrayDeque<Task<?>> queue = new ArrayDeque<>();
+        boolean ready = false; // if in the ready queue
+        int inFlight = 0;
+        int peakQueued = 0;
+        long completed = 0;
+        long failed = 0;
+        double tokens;
+        long refilled = System.nanoTime();
+        final Histogram queueWait = new Histogram();
+        final Histogram latency = new Histogram();
+
+        Host(String name, int burst) {
+            this.name = name;
+            this.tokens = burst;
+        }
+
+        void dropCancelled() {
+            while (!queue.isEmpty() && queue.peekFirst().result.isDone())
+                queue.removeFirst();
+        }
+
+        /** Takes a token if one is available, and returns 0; or returns the nanos until one will be. */
+        long takeToken(long now, double rate, int burst) {
+            if (rate <= 0) return 0;
+            tokens = Math.min(burst, tokens + (now - refilled) * rate / 1e9);
+            refilled = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) * 1e9 / rate));
+        }
+
+        /** Tests if the token bucket would be full now, as for a new Host. */
+        boolean bucketFull(long now, double rate, int burst) {
+            return rate <= 0 || tokens + (now - refilled) * rate / 1e9 >= burst;
+        }
+    }
+
+    private static final class Histogram {
+        final long[] counts = new long[BucketBoundsMillis.length + 1];
+
+        void record(long nanos) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            int i = 0;
+            while (i < BucketBoundsMillis.length && millis > BucketBoundsMillis[i]) i++;
+            counts[i]++;
+        }
+    }
+
+    /**
+     A snapshot of the statistics for one host.
+     */
+    public static final class HostStats {
+        private final String host;
+        private final int queued;
+        private final int peakQueued;
+        private final int inFlight;
+        private final long completed;
+        private final long failed;
+        private final long[] queueWait;
+        private final long[] latency;
+
+        private HostStats(Host host) {
+            this.host = host.name;
+            this.queued = host.queue.size();
+            this.peakQueued = host.peakQueued;
+            this.inFlight = host.inFlight;
+            this.completed = host.completed;
+            this.failed = host.failed;
+            this.queueWait = host.queueWait.counts.clone();
+            this.latency = host.latency.counts.clone();
+        }
+
+        /**
+         Get the host name.
+         @return the host
+         */
+        public String host() {
+            return host;
+        }
+
+        /**
+         Get the number of requests waiting to be started.
+         @return the current queue depth
+         */
+        public int queued() {
+            return queued;
+        }
+
+        /**
+         Get the largest number of requests that have been waiting at once.
+         @return the peak queue depth
+         */
+        public int peakQueued() {
+            return peakQueued;
+        }
+
+        /**
+         Get the number of requests in flight.
+         @return the in flight count
+         */
+        public int inFlight() {
+            return inFlight;
+        }
+
+        /**
+         Get the number of requests that completed successfully.
+         @return the completed count
+         */
+        public long completed() {
+            return completed;
+        }
+
+        /**
+         Get the number of requests that failed.
+         @return the failed count
+         */
+        public long failed() {
+            return failed;
+        }
+
+        /**
+         Get the histogram of the time requests waited in the queue before starting, with buckets per
+         {@link FetchScheduler#histogramBoundsMillis()}.
+         @return a copy of the bucket counts
+         */
+        public long[] queueWaitHistogram() {
+            return queueWait.clone();
+        }
+
+        /**
+         Get the histogram of the time from starting each request to its completion, with buckets per
+         {@link FetchScheduler#histogramBoundsMillis()}.
+         @return a copy of the bucket counts
+         */
+        public long[] latencyHistogram() {
+            return latency.clone();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("HostStats[%s, queued=%d, peakQueued=%d, inFlight=%d, completed=%d, failed=%d]",
+                host, queued, peakQueued, inFlight, completed, failed);
+        }
+    }
+}
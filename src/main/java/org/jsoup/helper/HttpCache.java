@@ -0,0 +1,578 @@
+package org.jsoup.helper;
+
+import org.jsoup.Connection;
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.jsoup.internal.Normalizer.lowerCase;
+
+/**
+ An HTTP response cache for a {@link Connection} session. Set a cache with {@link Connection#cache(HttpCache)}; requests
+ created with {@link Connection#newRequest()} share their session's cache.
+ <p>Successful {@code GET} responses are stored if they carry a validator ({@code ETag} or {@code Last-Modified}) or
+ an explicit freshness lifetime ({@code Cache-Control: max-age}, or {@code Expires}), and are not marked
+ {@code no-store}. Responses to requests with credentials (an {@code Authorization} header, or an
+ {@link Connection#auth(RequestAuthenticator) authenticator}) are only stored if marked {@code public},
+ {@code must-revalidate}, or {@code s-maxage}, as entries are shared by all the session's requests. While a stored response is fresh, it is served without contacting the server. Once stale (or if
+ marked {@code no-cache}), the request is sent as a conditional GET, with {@code If-None-Match} and
+ {@code If-Modified-Since}; if the server replies {@code 304 Not Modified}, the stored body is served. When a cached
+ body is parsed, the parsed Document is retained alongside it (in the memory storage), so later hits are served as a
+ clone of that Document, without reparsing.</p>
+ <p>Storage is pluggable: use {@link #memory(int)} for an in-memory LRU cache, {@link #directory(Path)} to persist
+ responses on disk, or implement {@link Storage}. Stored bodies are held decoded, and are bounded by the request's
+ {@link Connection#maxBodySize(int) max body size}. The {@code Vary} header is not evaluated (other than
+ {@code Vary: *}, which is not stored), so use a separate cache for requests that vary their content negotiation
+ headers.</p>
+ <p>If the storage fails to load or store an entry, the request proceeds as a cache miss. This class is
+ thread-safe.</p>
+ @since 1.23.1
+ */
+public final class HttpCache {
+    /**
+     Stores cache entries, keyed by their request URL. Implementations must be thread-safe.
+     */
+    public interface Storage {
+        /**
+         Load the entry for the key.
+         @param key the request URL
+         @return the stored entry, or null if there is none
+         @throws IOException if the entry could not be read
+         */
+        @Nullable Entry load(String key) throws IOException;
+
+        /**
+         Store the entry for the key, replacing any existing entry.
+         @param key the request URL
+         @param entry the entry to store
+         @throws IOException if the entry could not be written
+         */
+        void store(String key, Entry entry) throws IOException;
+
+        /**
+         Remove the entry for the key, if any.
+         @param key the request URL
+         @throws IOException if the entry could not be removed
+         */
+        void remove(String key) throws IOException;
+    }
+
+    private static final String CACHE_CONTROL = "Cache-Control";
+    private static final String ETAG = "ETag";
+    private static final String LAST_MODIFIED = "Last-Modified";
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+    private static final String[] Unstored = {"Set-Cookie", "Set-Cookie2", "Content-Encoding", "Content-Length", "Transfer-Encoding", "Connection", "Keep-Alive"};
+
+    private final Storage storage;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     Create a cache backed by the given storage.
+     @param storage the storage
+     */
+    public HttpCache(Storage storage) {
+        Validate.notNullParam(storage, "storage");
+        this.storage = storage;
+    }
+
+    /**
+     Create a cache that holds up to {@code maxEntries} responses in memory, evicting the least recently used.
+     @param maxEntries the maximum number of entries to hold; must be at least 1
+     @return a new memory cache
+     */
+    public static HttpCache memory(int maxEntries) {
+        return new HttpCache(new MemoryStorage(maxEntries));
+    }
+
+    /**
+     Create a cache that stores responses as files in the directory, which is created if it does not exist. Parsed
+     Documents are not retained between requests, so hits are reparsed from the stored body.
+     @param dir the cache directory
+     @return a new directory cache
+     @throws IOException if the directory could not be created
+     */
+    public static HttpCache directory(Path dir) throws IOException {
+        return new HttpCache(new DirectoryStorage(dir));
+    }
+
+    /**
+     Get this cache's storage.
+     @return the storage
+     */
+    public Storage storage() {
+        return storage;
+    }
+
+    /**
+     Get the number of requests that were served from a fresh cache entry, without contacting the server.
+     @return the hit count
+     */
+    public long hitCount() {
+        return hits.get();
+    }
+
+    /**
+     Get the number of requests that were revalidated with a conditional GET, and served from the cache after the server
+     replied {@code 304 Not Modified}.
+     @return the revalidation count
+     */
+    public long revalidatedCount() {
+        return revalidations.get();
+    }
+
+    /**
+     Get the number of cacheable requests (GETs) that were fetched in full from the server.
+     @return the miss count
+     */
+    public long missCount() {
+        return misses.get();
+    }
+
+    /**
+     Reset the statistics counters to zero.
+     */
+    public void resetStats() {
+        hits.set(0);
+        revalidations.set(0);
+        misses.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HttpCache[hits=%d, revalidated=%d, misses=%d]", hitCount(), revalidatedCount(), missCount());
+    }
+
+    /**
+     Look up the stored entry for the request.
+     @return the entry, or null if the request is not cacheable or there is no (readable) entry
+     */
+    @Nullable Entry lookup(HttpConnection.Request req) {
+        if (req.method() != Connection.Method.GET) return null;
+        try {
+            return storage.load(key(req));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** Tests if the entry can be served without revalidation, and if so, counts the hit. */
+    boolean serveFresh(HttpConnection.Request req, Entry entry) {
+        List<String> reqDirectives = directives(req.headers(CACHE_CONTROL));
+        if (reqDirectives.contains("no-cache") || reqDirectives.contains("max-age=0")) return false;
+        List<String> directives = directives(entry.headers(CACHE_CONTROL));
+        if (directives.contains("no-cache")) return false;
+        long lifetime = entry.freshnessLifetime();
+        if (lifetime <= 0 || System.currentTimeMillis() - entry.storedAt >= lifetime) return false;
+        hits.incrementAndGet();
+        return true;
+    }
+
+    /**
+     Adds the entry's validators to the request, unless the request already has conditional headers.
+     @return the names of the headers that were added, to be removed once sent
+     */
+    static List<String> addValidators(HttpConnection.Request req, @Nullable Entry entry) {
+        if (entry == null || req.hasHeader(IF_NONE_MATCH) || req.hasHeader(IF_MODIFIED_SINCE))
+            return Collections.emptyList();
+        List<String> added = new ArrayList<>(2);
+        String etag = entry.header(ETAG);
+        if (etag != null) {
+            req.header(IF_NONE_MATCH, etag);
+            added.add(IF_NONE_MATCH);
+        }
+        String lastModified = entry.header(LAST_MODIFIED);
+        if (lastModified != null) {
+            req.header(IF_MODIFIED_SINCE, lastModified);
+            added.add(IF_MODIFIED_SINCE);
+        }
+        return added;
+    }
+
+    static void removeValidators(HttpConnection.Request req, List<String> added) {
+        for (String name : added)
+            req.removeHeader(name);
+    }
+
+    /**
+     Updates the entry's headers from a 304 response, stores it, and counts the revalidation.
+     @return the updated entry
+     */
+    Entry revalidated(HttpConnection.Request req, Entry entry, HttpConnection.Response res) {
+        revalidations.incrementAndGet();
+        Map<String, List<String>> headers = new LinkedHashMap<>(entry.headers);
+        for (Map.Entry<String, List<String>> header : storedHeaders(res).entrySet()) {
+            headers.keySet().removeIf(name -> name.equalsIgnoreCase(header.getKey()));
+            headers.put(header.getKey(), header.getValue());
+        }
+        Entry updated = new Entry(entry.url, headers, entry.body, System.currentTimeMillis());
+        updated.document = entry.document;
+        store(key(req), updated);
+        return updated;
+    }
+
+    /** Counts a miss for a GET request that was fetched from the server. */
+    void miss(HttpConnection.Request req) {
+        if (req.method() == Connection.Method.GET) misses.incrementAndGet();
+    }
+
+    /** Tests if the (not yet read) response may be stored. */
+    static boolean cacheable(HttpConnection.Request req, HttpConnection.Response res) {
+        if (req.method() != Connection.Method.GET || res.statusCode() != 200) return false;
+        if (directives(req.headers(CACHE_CONTROL)).contains("no-store")) return false;
+        List<String> directives = directives(res.headers(CACHE_CONTROL));
+        if (directives.contains("no-store")) return false;
+        for (String vary : res.headers("Vary")) {
+            if (vary.trim().equals("*")) return false;
+        }
+        if (authorized(req) && !sharable(directives)) return false;
+        return res.hasHeader(ETAG) || res.hasHeader(LAST_MODIFIED) || res.hasHeader("Expires") || maxAge(directives) > 0;
+    }
+
+    /**
+     Tests if the request carries credentials: an {@code Authorization} header, or an authenticator that may supply one
+     if challenged. Entries are keyed by URL only, so a response to such a request must not be served to others.
+     */
+    private static boolean authorized(HttpConnection.Request req) {
+        return req.hasHeader("Authorization") || req.authenticator != null;
+    }
+
+    /** Tests if the response directives allow a response to an authorized request to be stored (RFC 9111 §3.5). */
+    private static boolean sharable(List<String> directives) {
+        for (String directive : directives) {
+            if (directive.equals("public") || directive.equals("must-revalidate") || directive.startsWith("s-maxage="))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     Stores the read response body.
+     @return the stored entry
+     */
+    Entry store(HttpConnection.Request req, HttpConnection.Response res, byte[] body) {
+        String key = key(req);
+        Entry entry = new Entry(key, storedHeaders(res), body, System.currentTimeMillis());
+        store(key, entry);
+        return entry;
+    }
+
+    private void store(String key, Entry entry) {
+        try {
+            storage.store(key, entry);
+        } catch (IOException e) {
+            // not stored; the next request will be a miss
+        }
+    }
+
+    private static String key(HttpConnection.Request req) {
+        return req.url().toExternalForm();
+    }
+
+    private static Map<String, List<String>> storedHeaders(HttpConnection.Response res) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> header : res.multiHeaders().entrySet()) {
+            if (!unstored(header.getKey()))
+                headers.put(header.getKey(), new ArrayList<>(header.getValue()));
+        }
+        return headers;
+    }
+
+    private static boolean unstored(String name) {
+        for (String unstored : Unstored) {
+            if (unstored.equalsIgnoreCase(name)) return true;
+        }
+        return false;
+    }
+
+    /** Splits Cache-Control header values into lower-cased directives, e.g. {@code max-age=60}. */
+    private static List<String> directives(List<String> values) {
+        List<String> directives = new ArrayList<>();
+        for (String value : values) {
+            for (String directive : value.split(",")) {
+                directive = lowerCase(directive.trim()).replace(" ", "");
+                if (!directive.isEmpty()) directives.add(directive);
+            }
+        }
+        return directives;
+    }
+
+    /** Gets the max-age directive in seconds, or -1 if not set. */
+    private static long maxAge(List<String> directives) {
+        for (String directive : directives) {
+            if (directive.startsWith("max-age=")) {
+                try {
+                    return Long.parseLong(directive.substring(8).replace("\"", ""));
+                } catch (NumberFormatException e) {
+                    return 0; // invalid, so treat as stale
+                }
+            }
+        }
+        return -1;
+    }
+
+    /** Parses an HTTP-date, returning the epoch millis, or -1 if not valid. */
+    private static long parseDate(@Nullable String value) {
+        if (value == null) return -1;
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try {
+            return format.parse(value.trim()).getTime();
+        } catch (ParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     A stored response: its URL, headers, and decoded body. Entries are immutable, other than the parsed Document that
+     may be retained with them.
+     */
+    public static final class Entry {
+        final String url;
+        final Map<String, List<String>> headers;
+        final byte[] body;
+        final long storedAt;
+        private volatile @Nullable ParsedDocument document;
+
+        /**
+         Create an entry.
+         @param url the request URL
+         @param headers the response headers
+         @param body the decoded response body; not copied
+         @param storedAt when the response was received or last revalidated, in epoch milliseconds
+         */
+        public Entry(String url, Map<String, List<String>> headers, byte[] body, long storedAt) {
+            Validate.notNullParam(url, "url");
+            Validate.notNullParam(headers, "headers");
+            Validate.notNullParam(body, "body");
+            this.url = url;
+            this.headers = Collections.unmodifiableMap(headers);
+            this.body = body;
+            this.storedAt = storedAt;
+        }
+
+        /**
+         Get the request URL.
+         @return the URL
+         */
+        public String url() {
+            return url;
+        }
+
+        /**
+         Get the stored response headers. Headers that describe the transfer rather than the content (such as
+         {@code Content-Encoding}) and {@code Set-Cookie} are not stored.
+         @return the headers, unmodifiable
+         */
+        public Map<String, List<String>> headers() {
+            return headers;
+        }
+
+        /**
+         Get a copy of the decoded response body.
+         @return the body bytes
+         */
+        public byte[] body() {
+            return body.clone();
+        }
+
+        /**
+         Get when the response was received or last revalidated.
+         @return the epoch milliseconds
+         */
+        public long storedAt() {
+            return storedAt;
+        }
+
+        @Nullable String header(String name) {
+            List<String> values = headers(name);
+            return values.isEmpty() ? null : values.get(0);
+        }
+
+        List<String> headers(String name) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                if (header.getKey().equalsIgnoreCase(name)) return header.getValue();
+            }
+            return Collections.emptyList();
+        }
+
+        /** The time in millis after storedAt that this entry is fresh for, per max-age or Expires. */
+        long freshnessLifetime() {
+            long maxAge = maxAge(directives(headers(CACHE_CONTROL)));
+            if (maxAge >= 0) return maxAge * 1000;
+            long expires = parseDate(header("Expires"));
+            if (expires == -1) return 0;
+            long date = parseDate(header("Date"));
+            return expires - (date != -1 ? date : storedAt);
+        }
+
+        /**
+         Get a clone of the Document parsed from this entry's body, if one was parsed with the same kind of parser (HTML or
+         XML) and charset.
+         */
+        @Nullable Document document(Parser parser, @Nullable String charset) {
+            ParsedDocument parsed = document;
+            if (parsed == null || !parsed.matches(parser, charset)) return null;
+            return parsed.doc.clone();
+        }
+
+        /** Retain a clone of the Document parsed from this entry's body. */
+        void document(Parser parser, @Nullable String charset, Document doc) {
+            document = new ParsedDocument(parser, charset, doc.clone());
+        }
+    }
+
+    private static final class ParsedDocument {
+        final String namespace;
+        final @Nullable String charset;
+        final Document doc;
+
+        ParsedDocument(Parser parser, @Nullable String charset, Document doc) {
+            this.namespace = parser.defaultNamespace();
+            this.charset = charset;
+            this.doc = doc;
+        }
+
+        boolean matches(Parser parser, @Nullable String charset) {
+            return namespace.equals(parser.defaultNamespace())
+                && !parser.isTrackErrors() && !parser.isTrackPosition() // those are recorded as the input is parsed
+                && (this.charset == null ? charset == null : this.charset.equals(charset));
+        }
+    }
+
+    /** Holds entries in memory, evicting the least recently used when full. */
+    private static final class MemoryStorage implements Storage {
+        private final LinkedHashMap<String, Entry> entries;
+
+        MemoryStorage(int maxEntries) {
+            Validate.isTrue(maxEntries >= 1, "maxEntries must be >= 1");
+            entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) { // access order, for LRU
+                @Override protected boolean removeEldestEntry(Map.Entry<String, HttpCache.Entry> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        @Override public synchronized @Nullable Entry load(String key) {
+            return entries.get(key);
+        }
+
+        @Override public synchronized void store(String key, Entry entry) {
+            entries.put(key, entry);
+        }
+
+        @Override public synchronized void remove(String key) {
+            entries.remove(key);
+        }
+    }
+
+    /** Stores each entry in a file in the directory, named by the SHA-256 hash of its key. */
+    private static final class DirectoryStorage implements Storage {
+        private static final int Magic = 0x6a736331; // jsc1
+        private final Path dir;
+
+        DirectoryStorage(Path dir) throws IOException {
+            Validate.notNullParam(dir, "dir");
+            this.dir = Files.createDirectories(dir);
+        }
+
+        @Override public @Nullable Entry load(String key) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file(key))))) {
+                if (in.readInt() != Magic) return null;
+                String url = in.readUTF();
+                if (!url.equals(key)) return null; // hash collision
+                long storedAt = in.readLong();
+                int headerCount = in.readInt();
+                Map<String, List<String>> headers = new LinkedHashMap<>();
+                for (int i = 0; i < headerCount; i++) {
+                    String name = in.readUTF();
+                    int valueCount = in.readInt();
+                    List<String> values = new ArrayList<>(valueCount);
+                    for (int j = 0; j < valueCount; j++)
+                        values.add(in.readUTF());
+                    headers.put(name, values);
+                }
+                byte[] body = new byte[in.readInt()];
+                in.readFully(body);
+                return new Entry(url, headers, body, storedAt);
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+        }
+
+        @Override public void store(String key, Entry entry) throws IOException {
+            Path tmp = Files.createTempFile(dir, "entry", ".tmp");
+            try {
+                try (OutputStream os = Files.newOutputStream(tmp);
+                     DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+                    out.writeInt(Magic);
+                    out.writeUTF(entry.url);
+                    out.writeLong(entry.storedAt);
+                    out.writeInt(entry.headers.size());
+                    for (Map.Entry<String, List<String>> header : entry.headers.entrySet()) {
+                        out.writeUTF(header.getKey());
+                        out.writeInt(header.getValue().size());
+                        for (String value : header.getValue())
+                            out.writeUTF(value);
+                    }
+                    out.writeInt(entry.body.length);
+                    out.write(entry.body);
+                }
+                try {
+                    Files.move(tmp, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, file(key), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+
+        @Override public void remove(String key) throws IOException {
+            Files.deleteIfExists(file(key));
+        }
+
+        private Path file(String key) {
+            return dir.resolve(sha256(key) + ".cache");
+        }
+
+        private static String sha256(String key) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+                StringBuilder hex = new StringBuilder(hash.length * 2);
+                for (byte b : hash)
+                    hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+                return hex.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e); // SHA-256 is required on all platforms
+            }
+        }
+    }
+}
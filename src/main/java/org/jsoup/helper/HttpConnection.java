@@ -41,11 +41,12 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.Inflater;
-import java.util.zip.InflaterInputStream;
 
 import static org.jsoup.Connection.Method.HEAD;
 import static org.jsoup.helper.DataUtil.UTF_8;
@@ -59,6 +60,7 @@ import static org.jsoup.internal.SharedConstants.DefaultBufferSize;
 @SuppressWarnings("CharsetObjectCanBeUsed")
 public class HttpConnection implements Connection {
     public static final String CONTENT_ENCODING = "Content-Encoding";
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
     /**
      * Many users would get caught by not setting a user-agent and therefore getting different responses on their desktop
      * vs in jsoup, which would otherwise default to {@code Java}. So by default, use a desktop UA.
@@ -75,8 +77,7 @@ public class HttpConnection implements Connection {
 
     private HttpConnection.Request req;
     private Connection.@Nullable Response res;
-    @Nullable Object client; // The HttpClient for this Connection, if via the HttpClientExecutor
-    @Nullable RequestAuthenticator lastAuth; // The previous Authenticator used by this Connection, if via the HttpClientExecutor
+    private @Nullable ClientPool clientPool; // The HttpClients for this Connection (session), if via the HttpClientExecutor
 
     /**
      Create a new Connection, with the request URL specified.
@@ -367,6 +368,65 @@ public class HttpConnection implements Connection {
         return res;
     }
 
+    @Override
+    public CompletableFuture<Connection.Response> executeAsync() {
+        return Response.executeAsync(req, true).thenApply(response -> {
+            res = response;
+            return response;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Document> getAsync() {
+        req.method(Method.GET);
+        return parseAsync();
+    }
+
+    @Override
+    public CompletableFuture<Document> postAsync() {
+        req.method(Method.POST);
+        return parseAsync();
+    }
+
+    private CompletableFuture<Document> parseAsync() {
+        return executeAsync().thenApplyAsync(response -> {
+            try {
+                return response.parse();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, req.executor());
+    }
+
+    @Override
+    public CompletableFuture<StreamParser> streamParserAsync() {
+        return Response.executeAsync(req, false).thenApplyAsync(response -> {
+            res = response;
+            try {
+                return response.streamParser();
+            } catch (IOException e) {
+                response.safeClose();
+                throw new CompletionException(e);
+            }
+        }, req.executor());
+    }
+
+    @Override
+    public Connection executor(Executor executor) {
+        Validate.notNullParam(executor, "executor");
+        req.executor = executor;
+        return this;
+    }
+
+    @Override
+    public ClientPool clientPool() {
+        HttpConnection session = req.connection;
+        synchronized (session) {
+            if (session.clientPool == null) session.clientPool = new ClientPool(ClientPool.DefaultMaxSize);
+            return session.clientPool;
+        }
+    }
+
     @Override
     public Connection.Request request() {
         return req;
@@ -403,6 +463,16 @@ public class HttpConnection implements Connection {
         return this;
     }
 
+    @Override public Connection decoder(String encoding, ContentDecoder decoder) {
+        req.decoder(encoding, decoder);
+        return this;
+    }
+
+    @Override public Connection cache(@Nullable HttpCache cache) {
+        req.cache = cache;
+        return this;
+    }
+
     @Override public Connection onResponseProgress(Progress<Connection.Response> handler) {
         req.responseProgress = handler;
         return this;
@@ -630,6 +700,9 @@ public class HttpConnection implements Connection {
         private CookieManager cookieManager;
         @Nullable RequestAuthenticator authenticator;
         private @Nullable Progress<Connection.Response> responseProgress;
+        private @Nullable Executor executor; // for async parses and blocking requests
+        private LinkedHashMap<String, ContentDecoder> decoders; // by lower-case content-coding, in registration order
+        @Nullable HttpCache cache;
 
         private final ReentrantLock executing = new ReentrantLock(); // detects and warns if same request used concurrently
 
@@ -640,10 +713,12 @@ public class HttpConnection implements Connection {
             followRedirects = true;
             data = new ArrayList<>();
             method = Method.GET;
-            addHeader("Accept-Encoding", "gzip");
+            decoders = new LinkedHashMap<>();
+            decoders.put("gzip", ContentDecoder.Gzip);
+            addHeader(ACCEPT_ENCODING, "gzip");
             addHeader(USER_AGENT, DEFAULT_UA);
             parser = Parser.htmlParser();
-            cookieManager = new CookieManager(); // creates a default InMemoryCookieStore
+            cookieManager = new CookieManager(new ConcurrentCookieStore(), null); // null policy: accept original server
         }
 
         Request(Request copy) {
@@ -665,6 +740,9 @@ public class HttpConnection implements Connection {
             cookieManager = copy.cookieManager;
             authenticator = copy.authenticator;
             responseProgress = copy.responseProgress;
+            executor = copy.executor;
+            decoders = new LinkedHashMap<>(copy.decoders);
+            cache = copy.cache;
         }
 
         @Override @Nullable
@@ -684,6 +762,31 @@ public class HttpConnection implements Connection {
             return this;
         }
 
+        void decoder(String encoding, ContentDecoder decoder) {
+            Validate.notEmptyParam(encoding, "encoding");
+            Validate.notNullParam(decoder, "decoder");
+            String advertised = acceptEncoding();
+            decoders.put(lowerCase(encoding.trim()), decoder);
+            if (advertised.equals(header(ACCEPT_ENCODING))) // update the header, unless it was set explicitly
+                header(ACCEPT_ENCODING, acceptEncoding());
+        }
+
+        private String acceptEncoding() {
+            return StringUtil.join(decoders.keySet(), ", ");
+        }
+
+        /** Get the decoder for the content-coding, or null if it is not supported. */
+        @Nullable ContentDecoder decoder(String encoding) {
+            ContentDecoder decoder = decoders.get(encoding);
+            if (decoder == null && encoding.equals("deflate"))
+                decoder = ContentDecoder.Deflate; // decoded if received, but not advertised unless registered
+            return decoder;
+        }
+
+        Executor executor() {
+            return executor != null ? executor : ForkJoinPool.commonPool();
+        }
+
         @Override
         public int timeout() {
             return timeoutMilliseconds;
@@ -846,6 +949,7 @@ public class HttpConnection implements Connection {
         private boolean inputStreamRead = false;
         private int numRedirects = 0;
         private final HttpConnection.Request req;
+        HttpCache.@Nullable Entry cacheEntry; // if served from or stored to the cache
 
         /*
          * Matches XML content types (like text/xml, image/svg+xml, application/xhtml+xml;charset=UTF8, etc)
@@ -871,6 +975,191 @@ public class HttpConnection implements Connection {
         static Response execute(HttpConnection.Request req, @Nullable Response prevRes) throws IOException {
             Validate.isTrue(req.executing.tryLock(), "Multiple threads were detected trying to execute the same request concurrently. Make sure to use Connection#newRequest() and do not share an executing request between threads.");
             Validate.notNullParam(req, "req");
+            try {
+                long startTime = System.nanoTime();
+                prepareRequest(req);
+                return send(req, RequestDispatch.get(req, prevRes), startTime);
+            } finally {
+                req.executing.unlock();
+
+                // detach any thread local auth delegate
+                if (req.authenticator != null)
+                    AuthenticationHandler.handler.remove();
+            }
+        }
+
+        /** Sends the prepared request, following any redirects, and sets up the response body. */
+        private static Response send(HttpConnection.Request req, RequestExecutor executor, long startTime) throws IOException {
+            HttpCache cache = req.cache;
+            HttpCache.Entry cached = cache != null ? cache.lookup(req) : null;
+            if (cache != null && cached != null && cache.serveFresh(req, cached))
+                return fromCache(req, cached, executor.prevRes);
+
+            Response res = null;
+            try {
+                List<String> validators = HttpCache.addValidators(req, cached);
+                try {
+                    res = executor.execute();
+                } finally {
+                    HttpCache.removeValidators(req, validators);
+                }
+
+                // redirect if there's a location header (from 3xx, or 201 etc)
+                if (isRedirect(req, res)) {
+                    redirect(req, res);
+                    prepareRequest(req);
+                    return send(req, RequestDispatch.get(req, res), System.nanoTime());
+                }
+                if (cache != null) {
+                    Response cachedRes = cacheResponse(req, cache, cached, res, executor, startTime, true);
+                    if (cachedRes != null) return cachedRes;
+                } else {
+                    res.prepareBody(executor, startTime);
+                }
+            } catch (IOException e) {
+                if (res != null) res.safeClose(); // will be non-null if got to conn
+                throw e;
+            }
+
+            res.executed = true;
+            return res;
+        }
+
+        /**
+         Executes the request asynchronously. Via the HttpClient, the request is sent with non-blocking I/O. Otherwise
+         (with the HttpURLConnection, or a proxy), the blocking send (and read, if buffering) runs on the request's
+         executor.
+         @param buffer if true, the response body is read into memory before the future completes. Otherwise, the future
+         completes with the headers, and the body stream is read as it arrives.
+         */
+        static CompletableFuture<Response> executeAsync(HttpConnection.Request req, boolean buffer) {
+            Validate.notNullParam(req, "req");
+            RequestExecutor executor;
+            long startTime = System.nanoTime();
+            Validate.isTrue(req.executing.tryLock(), "Multiple threads were detected trying to execute the same request concurrently. Make sure to use Connection#newRequest() and do not share an executing request between threads.");
+            try {
+                prepareRequest(req);
+                executor = RequestDispatch.get(req, null);
+            } catch (IOException e) {
+                return failed(e);
+            } finally {
+                req.executing.unlock();
+            }
+
+            if (!executor.supportsAsync()) {
+                return CompletableFuture.supplyAsync(() -> {
+                    Validate.isTrue(req.executing.tryLock(), "Multiple threads were detected trying to execute the same request concurrently. Make sure to use Connection#newRequest() and do not share an executing request between threads.");
+                    try {
+                        Response res = send(req, executor, startTime);
+                        if (buffer) res.readFully();
+                        return res;
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    } finally {
+                        req.executing.unlock();
+                        if (req.authenticator != null)
+                            AuthenticationHandler.handler.remove();
+                    }
+                }, req.executor());
+            }
+            return executeAsync(req, executor, startTime, buffer);
+        }
+
+        private static CompletableFuture<Response> executeAsync(HttpConnection.Request req, RequestExecutor executor, long startTime, boolean buffer) {
+            HttpCache cache = req.cache;
+            HttpCache.Entry cached = cache != null ? cache.lookup(req) : null;
+            if (cache != null && cached != null && cache.serveFresh(req, cached)) {
+                try {
+                    return CompletableFuture.completedFuture(fromCache(req, cached, executor.prevRes));
+                } catch (IOException e) {
+                    return failed(e);
+                }
+            }
+
+            List<String> validators = HttpCache.addValidators(req, cached);
+            CompletableFuture<Response> sent;
+            try {
+                sent = executor.executeAsync(buffer, startTime); // the request headers are read before this returns
+            } finally {
+                HttpCache.removeValidators(req, validators);
+            }
+            return sent.thenCompose(res -> {
+                try {
+                    if (isRedirect(req, res)) {
+                        res.safeClose(); // discard the redirect's body
+                        redirect(req, res);
+                        prepareRequest(req);
+                        return executeAsync(req, RequestDispatch.get(req, res), System.nanoTime(), buffer);
+                    }
+                    if (cache != null) {
+                        Response cachedRes = cacheResponse(req, cache, cached, res, executor, startTime, buffer);
+                        if (cachedRes != null) return CompletableFuture.completedFuture(cachedRes);
+                    } else {
+                        res.prepareBody(executor, startTime);
+                    }
+                    res.executed = true;
+                    return CompletableFuture.completedFuture(res);
+                } catch (IOException e) {
+                    res.safeClose();
+                    throw new CompletionException(e);
+                }
+            });
+        }
+
+        /**
+         Applies the cache to a response received from the server. If it's a 304 for the cached entry, returns the cached
+         response. Otherwise prepares the body, and if the response can be cached and {@code store} is set, reads and
+         stores it, unless the body was (or may have been) truncated at the request's max body size.
+         @return the cached response to serve, or null to serve the (prepared) received response
+         */
+        private static @Nullable Response cacheResponse(HttpConnection.Request req, HttpCache cache,
+            HttpCache.@Nullable Entry cached, Response res, RequestExecutor executor, long startTime, boolean store) throws IOException {
+            if (cached != null && res.statusCode == 304) {
+                res.safeClose();
+                return fromCache(req, cache.revalidated(req, cached, res), null);
+            }
+            res.prepareBody(executor, startTime);
+            cache.miss(req);
+            if (store && HttpCache.cacheable(req, res)) {
+                res.executed = true;
+                res.readFully();
+                byte[] body = res.bodyAsBytes();
+                int max = req.maxBodySize();
+                if (max == 0 || body.length < max) // a body that reached the max may have been truncated, so isn't stored
+                    res.cacheEntry = cache.store(req, res, body);
+            }
+            return null;
+        }
+
+        /** Creates a response that serves the cached entry. */
+        private static Response fromCache(HttpConnection.Request req, HttpCache.Entry entry, @Nullable Response prevRes) throws IOException {
+            if (prevRes != null) prevRes.safeClose();
+            Response res = new Response(req);
+            res.method = Method.GET;
+            res.url = req.url();
+            res.statusCode = 200;
+            res.statusMessage = "OK";
+            for (Map.Entry<String, List<String>> header : entry.headers.entrySet()) {
+                for (String value : header.getValue())
+                    res.addHeader(header.getKey(), value);
+            }
+            res.contentType = res.header(CONTENT_TYPE);
+            res.contentLength = entry.body.length;
+            res.checkContent();
+            res.byteData = ByteBuffer.wrap(entry.body);
+            res.cacheEntry = entry;
+            res.executed = true;
+            return res;
+        }
+
+        private static <T> CompletableFuture<T> failed(Throwable e) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        /** Validates the request, and serializes its data into the URL or sets the request body content type. */
+        private static void prepareRequest(HttpConnection.Request req) throws IOException {
             URL url = req.url();
             Validate.notNull(url, "URL must be specified to connect");
             String protocol = url.getProtocol();
@@ -886,79 +1175,91 @@ public class HttpConnection implements Connection {
                 serialiseRequestUrl(req);
             else if (supportsBody)
                 setOutputContentType(req);
+        }
 
-            long startTime = System.nanoTime();
-            RequestExecutor executor = RequestDispatch.get(req, prevRes);
-            Response res = null;
-            try {
-                res = executor.execute();
+        private static boolean isRedirect(HttpConnection.Request req, Response res) {
+            return res.hasHeader(LOCATION) && req.followRedirects();
+        }
 
-                // redirect if there's a location header (from 3xx, or 201 etc)
-                if (res.hasHeader(LOCATION) && req.followRedirects()) {
-                    if (res.statusCode != HTTP_TEMP_REDIR) {
-                        req.method(Method.GET); // always redirect with a get. any data param from original req are dropped.
-                        req.data().clear();
-                        req.requestBody(null);
-                        req.removeHeader(CONTENT_TYPE);
-                    }
+        /** Updates the request to follow the response's redirect. */
+        private static void redirect(HttpConnection.Request req, Response res) throws MalformedURLException {
+            if (res.statusCode != HTTP_TEMP_REDIR) {
+                req.method(Method.GET); // always redirect with a get. any data param from original req are dropped.
+                req.data().clear();
+                req.requestBody(null);
+                req.removeHeader(CONTENT_TYPE);
+            }
 
-                    String location = res.header(LOCATION);
-                    Validate.notNull(location);
-                    if (location.startsWith("http:/") && location.charAt(6) != '/') // fix broken Location: http:/temp/AAG_New/en/index.php
-                        location = location.substring(6);
-                    URL redir = StringUtil.resolve(req.url(), location);
-                    req.url(redir);
+            String location = res.header(LOCATION);
+            Validate.notNull(location);
+            if (location.startsWith("http:/") && location.charAt(6) != '/') // fix broken Location: http:/temp/AAG_New/en/index.php
+                location = location.substring(6);
+            URL redir = StringUtil.resolve(req.url(), location);
+            req.url(redir);
+        }
 
-                    return execute(req, res);
-                }
-                if ((res.statusCode < 200 || res.statusCode >= 400) && !req.ignoreHttpErrors())
-                        throw new HttpStatusException("HTTP error fetching URL", res.statusCode, req.url().toString());
-
-                // check that we can handle the returned content type; if not, abort before fetching it
-                String contentType = res.contentType();
-                if (contentType != null
-                        && !req.ignoreContentType()
-                        && !contentType.startsWith("text/")
-                        && !xmlContentTypeRxp.matcher(contentType).matches()
-                        )
-                    throw new UnsupportedMimeTypeException("Unhandled content type. Must be text/*, */xml, or */*+xml",
-                            contentType, req.url().toString());
-
-                // switch to the XML parser if content type is xml and not parser not explicitly set
-                if (contentType != null && xmlContentTypeRxp.matcher(contentType).matches()) {
-                    if (!req.parserDefined) req.parser(Parser.xmlParser());
-                }
+        /** Checks the response status and content type, and sets up the body stream. */
+        private void prepareBody(RequestExecutor executor, long startTime) throws IOException {
+            checkContent();
+            if (contentLength != 0 && req.method() != HEAD) { // -1 means unknown, chunked. sun throws an IO exception on 500 response with no content when trying to read body
+                InputStream stream = decode(executor.responseBody());
 
-                res.charset = DataUtil.getCharsetFromContentType(res.contentType); // may be null, readInputStream deals with it
-                if (res.contentLength != 0 && req.method() != HEAD) { // -1 means unknown, chunked. sun throws an IO exception on 500 response with no content when trying to read body
-                    InputStream stream = executor.responseBody();
-                    if (res.hasHeaderWithValue(CONTENT_ENCODING, "gzip"))
-                        stream = new GZIPInputStream(stream);
-                    else if (res.hasHeaderWithValue(CONTENT_ENCODING, "deflate"))
-                        stream = new InflaterInputStream(stream, new Inflater(true));
-                    
-                    res.bodyStream = ControllableInputStream.wrap(
-                        stream, DefaultBufferSize, req.maxBodySize())
-                        .timeout(startTime, req.timeout());
-
-                    if (req.responseProgress != null) // set response progress listener
-                        res.bodyStream.onProgress(res.contentLength, req.responseProgress, res);
-                } else {
-                    res.byteData = DataUtil.emptyByteBuffer();
-                }
-            } catch (IOException e) {
-                if (res != null) res.safeClose(); // will be non-null if got to conn
-                throw e;
-            } finally {
-                req.executing.unlock();
+                bodyStream = ControllableInputStream.wrap(
+                    stream, DefaultBufferSize, req.maxBodySize())
+                    .timeout(startTime, req.timeout());
 
-                // detach any thread local auth delegate
-                if (req.authenticator != null)
-                    AuthenticationHandler.handler.remove();
+                if (req.responseProgress != null) // set response progress listener
+                    bodyStream.onProgress(contentLength, req.responseProgress, this);
+            } else {
+                byteData = DataUtil.emptyByteBuffer();
             }
+        }
 
-            res.executed = true;
-            return res;
+        /** Checks the response status and content type, and sets the parser and charset to suit. */
+        private void checkContent() throws IOException {
+            if ((statusCode < 200 || statusCode >= 400) && !req.ignoreHttpErrors())
+                    throw new HttpStatusException("HTTP error fetching URL", statusCode, req.url().toString());
+
+            // check that we can handle the returned content type; if not, abort before fetching it
+            String contentType = contentType();
+            if (contentType != null
+                    && !req.ignoreContentType()
+                    && !contentType.startsWith("text/")
+                    && !xmlContentTypeRxp.matcher(contentType).matches()
+                    )
+                throw new UnsupportedMimeTypeException("Unhandled content type. Must be text/*, */xml, or */*+xml",
+                        contentType, req.url().toString());
+
+            // switch to the XML parser if content type is xml and not parser not explicitly set
+            if (contentType != null && xmlContentTypeRxp.matcher(contentType).matches()) {
+                if (!req.parserDefined) req.parser(Parser.xmlParser());
+            }
+
+            charset = DataUtil.getCharsetFromContentType(this.contentType); // may be null, readInputStream deals with it
+        }
+
+        /**
+         Wraps the body stream in the decoders for its content-codings, in the reverse of the order they were applied. If
+         any of the codings is not supported, the body is left as received.
+         */
+        private InputStream decode(InputStream stream) throws IOException {
+            List<String> codings = new ArrayList<>();
+            for (String value : headers(CONTENT_ENCODING)) {
+                for (String coding : value.split(",")) {
+                    coding = lowerCase(coding.trim());
+                    if (!coding.isEmpty() && !coding.equals("identity")) codings.add(coding);
+                }
+            }
+
+            ContentDecoder[] decoders = new ContentDecoder[codings.size()];
+            for (int i = 0; i < decoders.length; i++) {
+                ContentDecoder decoder = req.decoder(codings.get(i));
+                if (decoder == null) return stream;
+                decoders[i] = decoder;
+            }
+            for (int i = decoders.length - 1; i >= 0; i--)
+                stream = decoders[i].decode(stream);
+            return stream;
         }
 
         @Override
@@ -1003,8 +1304,16 @@ public class HttpConnection implements Connection {
         }
 
         @Override public Document parse() throws IOException {
-            ControllableInputStream stream = prepareParse();
-            Document doc = DataUtil.parseInputStream(stream, charset, url.toExternalForm(), req.parser());
+            HttpCache.Entry entry = cacheEntry;
+            Document doc = entry != null ? entry.document(req.parser(), charset) : null;
+            if (doc == null) {
+                String setCharset = charset;
+                ControllableInputStream stream = prepareParse();
+                doc = DataUtil.parseInputStream(stream, setCharset, url.toExternalForm(), req.parser());
+                if (entry != null) entry.document(req.parser(), setCharset, doc);
+            } else {
+                Validate.isTrue(executed, "Request must be executed (with .execute(), .get(), or .post() before parsing response");
+            }
             doc.connection(new HttpConnection(req, this)); // because we're static, don't have the connection obj. // todo - maybe hold in the req?
             charset = doc.outputSettings().charset().name(); // update charset from meta-equiv, possibly
             safeClose();
@@ -7,6 +7,7 @@ import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 
 /**
  A shim interface to support both HttpURLConnection and HttpClient implementations, in a multi-version jar.
@@ -22,6 +23,21 @@ abstract class RequestExecutor {
 
     abstract Response execute() throws IOException;
 
+    /** If this executor can send the request with non-blocking I/O, via {@link #executeAsync()}. */
+    boolean supportsAsync() {
+        return false;
+    }
+
+    /**
+     Sends the request with non-blocking I/O. Only called if {@link #supportsAsync()}.
+     @param buffer if true, the response's body is read fully into memory before the future completes; otherwise the
+     future completes once the headers are received, and the body stream is fed as the body arrives.
+     @param startTime the request's start time, in nanos, from which the request timeout runs
+     */
+    CompletableFuture<Response> executeAsync(boolean buffer, long startTime) {
+        throw new UnsupportedOperationException();
+    }
+
     abstract InputStream responseBody() throws IOException;
 
     abstract void safeClose();
@@ -0,0 +1,243 @@
+package org.jsoup.internal;
+
+import org.jsoup.SerializationException;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ A jsoup internal class: a QuietAppendable that encodes directly into a byte buffer, which is written to an OutputStream
+ or a WritableByteChannel as it fills. UTF-8 and US-ASCII are encoded inline; other charsets go through a
+ CharsetEncoder. Unmappable characters (and unpaired surrogates) are replaced with {@code ?}, as an OutputStreamWriter
+ would. The byte buffer is recycled, so call {@link #close()} when done.
+ <p>I/O errors are thrown as {@link SerializationException}s, as with the other QuietAppendables.</p>
+ @since 1.23.1
+ */
+public final class ByteAppendable extends QuietAppendable implements Closeable {
+    private enum Mode {utf8, ascii, encoder}
+
+    private static final int MaxCharBytes = 4; // the longest UTF-8 sequence, for a surrogate pair
+    private static final byte Replacement = '?';
+
+    private final @Nullable OutputStream stream;
+    private final @Nullable WritableByteChannel channel;
+    private final Mode mode;
+    private byte @Nullable [] buf;
+    private int pos = 0;
+    private char pendingHigh = 0; // a high surrogate, waiting for its low pair
+
+    // for the encoder mode, chars are staged and encoded in bulk
+    private @Nullable CharsetEncoder encoder;
+    private char @Nullable [] chars;
+    private int charPos = 0;
+
+    public ByteAppendable(OutputStream out, Charset charset) {
+        this(out, null, charset);
+    }
+
+    public ByteAppendable(WritableByteChannel out, Charset charset) {
+        this(null, out, charset);
+    }
+
+    private ByteAppendable(@Nullable OutputStream stream, @Nullable WritableByteChannel channel, Charset charset) {
+        this.stream = stream;
+        this.channel = channel;
+        String name = charset.name();
+        if (name.equals("UTF-8"))
+            mode = Mode.utf8;
+        else if (name.equals("US-ASCII"))
+            mode = Mode.ascii;
+        else {
+            mode = Mode.encoder;
+            encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            chars = new char[SharedConstants.DefaultBufferSize / 4];
+        }
+        buf = SimpleBufferedInput.BufferPool.borrow();
+    }
+
+    @Override
+    public ByteAppendable append(CharSequence csq) {
+        if (mode == Mode.encoder) {
+            for (int i = 0, len = csq.length(); i < len; i++)
+                stage(csq.charAt(i));
+            return this;
+        }
+
+        byte[] b = buffer();
+        final int len = csq.length();
+        int i = 0;
+        while (i < len) {
+            // ASCII run, straight into the buffer
+            int end = Math.min(len, i + b.length - pos);
+            while (i < end) {
+                char c = csq.charAt(i);
+                if (c >= 0x80 || pendingHigh != 0) break;
+                b[pos++] = (byte) c;
+                i++;
+            }
+            if (i == len) break;
+            if (i < end) encode(csq.charAt(i++));
+            else drain();
+        }
+        return this;
+    }
+
+    @Override
+    public ByteAppendable append(char c) {
+        if (mode == Mode.encoder) stage(c);
+        else encode(c);
+        return this;
+    }
+
+    @Override
+    public ByteAppendable append(char[] chars, int offset, int len) {
+        for (int i = offset, end = offset + len; i < end; i++)
+            append(chars[i]);
+        return this;
+    }
+
+    /** Encodes a single char, in utf8 or ascii mode. */
+    private void encode(char c) {
+        byte[] b = buffer();
+        if (pos + MaxCharBytes > b.length) drain();
+
+        if (pendingHigh != 0) {
+            char high = pendingHigh;
+            pendingHigh = 0;
+            if (Character.isLowSurrogate(c)) {
+                if (mode == Mode.ascii) {
+                    b[pos++] = Replacement; // one replacement for the pair
+                    return;
+                }
+                int cp = Character.toCodePoint(high, c);
+                b[pos++] = (byte) (0xF0 | (cp >> 18));
+                b[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                b[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                b[pos++] = (byte) (0x80 | (cp & 0x3F));
+                return;
+            }
+            b[pos++] = Replacement; // unpaired high surrogate; fall through to encode c
+        }
+
+        if (c < 0x80) {
+            b[pos++] = (byte) c;
+        } else if (Character.isHighSurrogate(c)) {
+            pendingHigh = c;
+        } else if (mode == Mode.ascii || Character.isLowSurrogate(c)) {
+            b[pos++] = Replacement; // unmappable, or an unpaired low surrogate
+        } else if (c < 0x800) {
+            b[pos++] = (byte) (0xC0 | (c >> 6));
+            b[pos++] = (byte) (0x80 | (c & 0x3F));
+        } else {
+            b[pos++] = (byte) (0xE0 | (c >> 12));
+            b[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            b[pos++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    /** Stages a char for the encoder mode. */
+    private void stage(char c) {
+        char[] cs = chars;
+        assert cs != null;
+        if (charPos == cs.length) encodeStaged(false);
+        cs[charPos++] = c;
+    }
+
+    private void encodeStaged(boolean endOfInput) {
+        CharsetEncoder enc = encoder;
+        char[] cs = chars;
+        assert enc != null && cs != null;
+        CharBuffer in = CharBuffer.wrap(cs, 0, charPos);
+        while (true) {
+            byte[] b = buffer();
+            ByteBuffer out = ByteBuffer.wrap(b, pos, b.length - pos);
+            CoderResult result = enc.encode(in, out, endOfInput);
+            pos = out.position();
+            if (!result.isOverflow()) break;
+            drain();
+        }
+        while (endOfInput) {
+            byte[] b = buffer();
+            ByteBuffer out = ByteBuffer.wrap(b, pos, b.length - pos);
+            CoderResult result = enc.flush(out);
+            pos = out.position();
+            if (!result.isOverflow()) break;
+            drain();
+        }
+        // keep any unencoded remainder (e.g. a trailing high surrogate) for the next batch
+        int remaining = in.remaining();
+        if (remaining > 0) System.arraycopy(cs, in.position(), cs, 0, remaining);
+        charPos = remaining;
+    }
+
+    private byte[] buffer() {
+        byte[] b = buf;
+        if (b == null) throw new SerializationException("Appendable is closed");
+        return b;
+    }
+
+    /** Writes the buffered bytes to the output. */
+    private void drain() {
+        byte[] b = buffer();
+        if (pos == 0) return;
+        try {
+            if (stream != null) {
+                stream.write(b, 0, pos);
+            } else {
+                assert channel != null;
+                ByteBuffer out = ByteBuffer.wrap(b, 0, pos);
+                while (out.hasRemaining())
+                    channel.write(out);
+            }
+        } catch (IOException e) {
+            throw new SerializationException(e);
+        }
+        pos = 0;
+    }
+
+    /**
+     Encodes any pending characters and writes all buffered bytes to the output, flushing it if it's an OutputStream.
+     Call once all content has been appended; an unpaired trailing surrogate is written as a replacement.
+     @throws IOException if the output throws
+     */
+    public void finish() throws IOException {
+        try {
+            if (mode == Mode.encoder) {
+                encodeStaged(true);
+            } else if (pendingHigh != 0) {
+                pendingHigh = 0;
+                if (pos == buffer().length) drain();
+                buffer()[pos++] = Replacement;
+            }
+            drain();
+        } catch (SerializationException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw e;
+        }
+        if (stream != null) stream.flush();
+    }
+
+    /**
+     Releases the byte buffer. Does not close the underlying output, and does not write out any buffered content; call
+     {@link #finish()} for that.
+     */
+    @Override
+    public void close() {
+        byte[] b = buf;
+        if (b != null) {
+            buf = null;
+            SimpleBufferedInput.BufferPool.release(b);
+        }
+    }
+}
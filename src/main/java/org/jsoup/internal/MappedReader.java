@@ -0,0 +1,110 @@
+package org.jsoup.internal;
+
+import org.jsoup.helper.Validate;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ A decoding Reader over a memory-mapped file. Bytes are decoded directly from the mapped region into the caller's char
+ buffer, without being copied into an intermediate byte buffer. Files larger than the window size are mapped in
+ successive windows; a multibyte sequence that spans a window boundary is carried into the next window.
+ <p>The mapping is released by the garbage collector (there is no portable way to unmap it), so on some platforms the
+ file may remain locked for a while after the reader is closed.</p>
+ @since 1.23.1
+ */
+public final class MappedReader extends Reader {
+    static final long MaxWindow = Integer.MAX_VALUE;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long windowSize;
+    private final CharsetDecoder decoder;
+    private @Nullable ByteBuffer window; // null before the first read, and after close
+    private long windowStart;
+    private boolean flushing = false; // input is consumed, but the decoder may still hold output
+    private boolean eof = false;
+    private boolean closed = false;
+
+    /**
+     Create a new reader.
+     @param channel the file to read. It will be closed when this reader is closed.
+     @param offset the byte offset to start reading from (e.g. to skip a byte order mark)
+     @param charset the charset to decode with. Malformed input is replaced.
+     */
+    public MappedReader(FileChannel channel, long offset, Charset charset) throws IOException {
+        this(channel, offset, charset, MaxWindow);
+    }
+
+    MappedReader(FileChannel channel, long offset, Charset charset, long windowSize) throws IOException {
+        Validate.isTrue(windowSize >= 16); // must hold the longest byte sequence for a char
+        this.channel = channel;
+        this.size = channel.size();
+        Validate.isTrue(offset >= 0 && offset <= size, "Offset must be within the file");
+        this.windowSize = windowSize;
+        this.windowStart = offset;
+        this.decoder = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /** Maps the next window of the file, starting at the given byte position. */
+    private void map(long start) throws IOException {
+        long len = Math.min(windowSize, size - start);
+        MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, start, len);
+        windowStart = start;
+        window = buf;
+    }
+
+    @Override
+    public int read(char[] charArray, int off, int len) throws IOException {
+        Validate.isFalse(closed, "Reader is closed");
+        if (eof) return -1;
+        if (window == null) map(windowStart);
+        ByteBuffer in = window;
+        assert in != null;
+
+        CharBuffer out = CharBuffer.wrap(charArray, off, len);
+        while (out.hasRemaining()) {
+            if (flushing) {
+                if (decoder.flush(out).isUnderflow()) eof = true;
+                break;
+            }
+            boolean lastWindow = windowStart + in.limit() >= size;
+            CoderResult result = decoder.decode(in, out, lastWindow);
+            if (result.isOverflow()) break;
+            if (result.isUnderflow()) {
+                if (lastWindow) {
+                    flushing = true;
+                    continue;
+                }
+                map(windowStart + in.position()); // remap from the first unconsumed byte
+                in = window;
+                assert in != null;
+                continue;
+            }
+            result.throwException(); // not reached, as errors are replaced
+        }
+
+        int read = out.position() - off;
+        if (read == 0 && eof) return -1;
+        return read; // may be 0 if only a surrogate pair would fit
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        window = null;
+        channel.close();
+    }
+}
@@ -74,7 +74,7 @@ public class Attribute implements Map.Entry<String, String>, Cloneable  {
         if (parent != null) {
             int i = parent.indexOfKey(this.key);
             if (i != Attributes.NotFound) {
-                parent.keys[i] = key;
+                parent.setKey(i, key);
                 // Source ranges are index-aligned in the parent, so a key update keeps the same range.
             }
         }
@@ -109,7 +109,7 @@ public class Attribute implements Map.Entry<String, String>, Cloneable  {
             int i = parent.indexOfKey(this.key);
             if (i != Attributes.NotFound) {
                 oldVal = parent.get(this.key); // trust the container more
-                parent.vals[i] = val;
+                parent.setVal(i, val);
             }
         }
         this.val = val;
@@ -20,6 +20,8 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 import static org.jsoup.internal.Normalizer.lowerCase;
 import static org.jsoup.nodes.Range.AttributeRange.UntrackedAttr;
@@ -47,33 +49,116 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
     protected static final String dataPrefix = "data-"; // data attributes
     private static final String EmptyString = "";
 
-    // manages the key/val arrays
-    private static final int InitialCapacity = 3; // sampling found mean count when attrs present = 1.49; 1.08 overall. 2.6:1 don't have any attrs.
+    // manages the key/val storage. Sampling found mean count when attrs present = 1.49; 1.08 overall. 2.6:1 don't have
+    // any attrs. So up to InlineCapacity attributes are held inline in fields, and only larger sets allocate arrays.
+    private static final int InlineCapacity = 2;
+    private static final int InitialCapacity = 4; // array capacity on leaving inline storage
     private static final int GrowthFactor = 2;
     static final int NotFound = -1;
 
-    // the number of instance fields is kept as low as possible giving an object size of 24 bytes
-    int size = 0; // number of slots used (not total capacity, which is keys.length). Package visible for actual size (incl internal)
-    @Nullable String[] keys = new String[InitialCapacity]; // keys is not null, but contents may be. Same for vals
-    @Nullable Object[] vals = new Object[InitialCapacity]; // Genericish: all non-internal attribute values must be Strings and are cast on access.
-    // todo - make keys iterable without creating Attribute objects
+    // with compressed oops, an object size of 40 bytes, vs 88 bytes for the previous object + two arrays of 3
+    int size = 0; // number of slots used (not total capacity). Package visible for actual size (incl internal)
+    private @Nullable String key0;
+    private @Nullable String key1;
+    private @Nullable Object val0; // Genericish: all non-internal attribute values must be Strings and are cast on access.
+    private @Nullable Object val1;
+    private @Nullable String @Nullable [] keys; // null while inline; once set, holds all keys (contents may be null beyond size). Same for vals
+    private @Nullable Object @Nullable [] vals;
+
+    // A lazily parsed set is pending until first used: it holds its parser in val0, marked by this key in key0, with a
+    // size of 0. A distinct instance (not a literal), so that it can be compared by identity.
+    private static final String PendingKey = internalKey("pending");
+
+    /**
+     Creates a lazily parsed set of attributes, which are parsed by the supplier when first used.
+     */
+    static Attributes pending(Supplier<Attributes> parser) {
+        Attributes attributes = new Attributes();
+        attributes.key0 = PendingKey;
+        attributes.val0 = parser;
+        return attributes;
+    }
+
+    /**
+     If these attributes are pending, parses them. Must be called before the slots are read or updated, other than via
+     the methods that already do so.
+     */
+    void ensureParsed() {
+        if (key0 != PendingKey) return;
+        @SuppressWarnings("unchecked")
+        Supplier<Attributes> parser = (Supplier<Attributes>) val0;
+        assert parser != null;
+        key0 = null;
+        val0 = null;
+        Attributes parsed = parser.get();
+        size = parsed.size;
+        key0 = parsed.key0;
+        key1 = parsed.key1;
+        val0 = parsed.val0;
+        val1 = parsed.val1;
+        keys = parsed.keys;
+        vals = parsed.vals;
+    }
 
     // check there's room for more
     private void checkCapacity(int minNewSize) {
         Validate.isTrue(minNewSize >= size);
+        if (keys == null) {
+            if (minNewSize <= InlineCapacity) return;
+            int newCap = Math.max(InitialCapacity, minNewSize);
+            String[] newKeys = new String[newCap];
+            Object[] newVals = new Object[newCap];
+            newKeys[0] = key0; newKeys[1] = key1;
+            newVals[0] = val0; newVals[1] = val1;
+            key0 = key1 = null;
+            val0 = val1 = null;
+            keys = newKeys;
+            vals = newVals;
+            return;
+        }
         int curCap = keys.length;
         if (curCap >= minNewSize)
             return;
-        int newCap = curCap >= InitialCapacity ? size * GrowthFactor : InitialCapacity;
-        if (minNewSize > newCap)
-            newCap = minNewSize;
-
+        int newCap = Math.max(size * GrowthFactor, minNewSize);
         keys = Arrays.copyOf(keys, newCap);
         vals = Arrays.copyOf(vals, newCap);
     }
 
+    /** Get the key at the slot index, which must be less than size. */
+    String key(int i) {
+        String key = keys != null ? keys[i] : i == 0 ? key0 : key1;
+        assert key != null;
+        return key;
+    }
+
+    /** Get the value at the slot index. */
+    @Nullable Object val(int i) {
+        return vals != null ? vals[i] : i == 0 ? val0 : val1;
+    }
+
+    void setKey(int i, @Nullable String key) {
+        if (keys != null) keys[i] = key;
+        else if (i == 0) key0 = key;
+        else key1 = key;
+    }
+
+    void setVal(int i, @Nullable Object val) {
+        if (vals != null) vals[i] = val;
+        else if (i == 0) val0 = val;
+        else val1 = val;
+    }
+
     int indexOfKey(String key) {
         Validate.notNull(key);
+        if (key0 == PendingKey) {
+            if (isInternalKey(key)) return NotFound; // a pending set has no internal keys, as they're added after parsing
+            ensureParsed();
+        }
+        if (keys == null) { // inline
+            if (size > 0 && key.equals(key0)) return 0;
+            if (size > 1 && key.equals(key1)) return 1;
+            return NotFound;
+        }
         for (int i = 0; i < size; i++) {
             if (key.equals(keys[i]))
                 return i;
@@ -86,9 +171,10 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
      */
     int visibleIndexOfKey(String key) {
         Validate.notNull(key);
+        ensureParsed();
         int visible = 0;
         for (int i = 0; i < size; i++) {
-            String attrKey = keys[i];
+            String attrKey = key(i);
             if (isInternalKey(attrKey))
                 continue;
             if (key.equals(attrKey))
@@ -104,7 +190,7 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
     private int visibleIndex(int index) {
         int visible = 0;
         for (int i = 0; i < index; i++) {
-            if (!isInternalKey(keys[i]))
+            if (!isInternalKey(key(i)))
                 visible++;
         }
         return visible;
@@ -112,8 +198,9 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
 
     private int indexOfKeyIgnoreCase(String key) {
         Validate.notNull(key);
+        ensureParsed();
         for (int i = 0; i < size; i++) {
-            if (key.equalsIgnoreCase(keys[i]))
+            if (key.equalsIgnoreCase(key(i)))
                 return i;
         }
         return NotFound;
@@ -133,7 +220,7 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
      */
     public String get(String key) {
         int i = indexOfKey(key);
-        return i == NotFound ? EmptyString : checkNotNull(vals[i]);
+        return i == NotFound ? EmptyString : checkNotNull(val(i));
     }
 
     /**
@@ -146,7 +233,7 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
      */
     @Nullable public Attribute attribute(String key) {
         int i = indexOfKey(key);
-        return i == NotFound ? null : new Attribute(key, checkNotNull(vals[i]), this);
+        return i == NotFound ? null : new Attribute(key, checkNotNull(val(i)), this);
     }
 
     /**
@@ -156,7 +243,7 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
      */
     public String getIgnoreCase(String key) {
         int i = indexOfKeyIgnoreCase(key);
-        return i == NotFound ? EmptyString : checkNotNull(vals[i]);
+        return i == NotFound ? EmptyString : checkNotNull(val(i));
     }
 
     /**
@@ -169,9 +256,10 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
     }
 
     private void addObject(String key, @Nullable Object value) {
+        ensureParsed();
         checkCapacity(size + 1);
-        keys[size] = key;
-        vals[size] = value;
+        setKey(size, key);
+        setVal(size, value);
         size++;
     }
 
@@ -185,7 +273,7 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
         Validate.notNull(key);
         int i = indexOfKey(key);
         if (i != NotFound)
-            vals[i] = value;
+            setVal(i, value);
         else
             addObject(key, value);
         return this;
@@ -205,7 +293,7 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
             userData = new HashMap<>();
             addObject(SharedConstants.UserDataKey, userData);
         } else {
-            userData = (Map<String, Object>) vals[i];
+            userData = (Map<String, Object>) val(i);
         }
         assert userData != null;
         return userData;
@@ -255,7 +343,7 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
      */
     Range.@Nullable Spans spans() {
         int i = indexOfKey(SharedConstants.RangeSpansKey);
-        return i == NotFound ? null : (Range.Spans) vals[i];
+        return i == NotFound ? null : (Range.Spans) val(i);
     }
 
     /**
@@ -278,17 +366,15 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
         if (i == NotFound)
             addObject(SharedConstants.RangeSpansKey, rangeSpans);
         else
-            vals[i] = rangeSpans;
+            setVal(i, rangeSpans);
     }
 
     void putIgnoreCase(String key, @Nullable String value) {
         int i = indexOfKeyIgnoreCase(key);
         if (i != NotFound) {
-            vals[i] = value;
-            String old = keys[i];
-            assert old != null;
-            if (!old.equals(key)) // case changed, update
-                keys[i] = key;
+            setVal(i, value);
+            if (!key(i).equals(key)) // case changed, update
+                setKey(i, key);
         }
         else
             addObject(key, value);
@@ -326,9 +412,20 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
         Validate.isFalse(index >= size);
         Range.Spans rangeSpans = spans();
         // Source ranges are stored by visible attribute index; internal metadata slots have no matching range record.
-        if (rangeSpans != null && !isInternalKey(keys[index]))
+        if (rangeSpans != null && !isInternalKey(key(index)))
             rangeSpans.removeAttributeRange(visibleIndex(index));
 
+        if (keys == null) { // inline; shift key1 down if removing key0
+            if (index == 0) {
+                key0 = key1;
+                val0 = val1;
+            }
+            key1 = null; // release hold
+            val1 = null;
+            size--;
+            return;
+        }
+        assert vals != null;
         int shifted = size - index - 1;
         if (shifted > 0) {
             System.arraycopy(keys, index + 1, keys, index, shifted);
@@ -384,7 +481,7 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
      */
     public boolean hasDeclaredValueForKey(String key) {
         int i = indexOfKey(key);
-        return i != NotFound && vals[i] != null;
+        return i != NotFound && val(i) != null;
     }
 
     /**
@@ -394,7 +491,7 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
      */
     public boolean hasDeclaredValueForKeyIgnoreCase(String key) {
         int i = indexOfKeyIgnoreCase(key);
-        return i != NotFound && vals[i] != null;
+        return i != NotFound && val(i) != null;
     }
 
     /**
@@ -405,10 +502,11 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
      @return size
      */
     public int size() {
+        ensureParsed();
         if (size == 0) return 0;
         int count = 0;
         for (int i = 0; i < size; i++) {
-            if (!isInternalKey(keys[i]))  count++;
+            if (!isInternalKey(key(i)))  count++;
         }
         return count;
     }
@@ -428,6 +526,7 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
     public void addAll(Attributes incoming) {
         int incomingSize = incoming.size(); // not adding internal
         if (incomingSize == 0) return;
+        ensureParsed();
         checkCapacity(size + incomingSize);
 
         boolean needsPut = size != 0; // if this set is empty, no need to check existing set, so can add() vs put()
@@ -480,6 +579,7 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
 
     @Override
     public Iterator<Attribute> iterator() {
+        ensureParsed();
         //noinspection ReturnOfInnerClass
         return new Iterator<Attribute>() {
             int expectedSize = size;
@@ -489,8 +589,7 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
             public boolean hasNext() {
                 checkModified();
                 while (i < size) {
-                    String key = keys[i];
-                    assert key != null;
+                    String key = key(i);
                     if (isInternalKey(key)) // skip over internal keys
                         i++;
                     else
@@ -504,9 +603,7 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
             public Attribute next() {
                 checkModified();
                 if (i >= size) throw new NoSuchElementException();
-                String key = keys[i];
-                assert key != null;
-                final Attribute attr = new Attribute(key, (String) vals[i], Attributes.this);
+                final Attribute attr = new Attribute(key(i), (String) val(i), Attributes.this);
                 i++;
                 return attr;
             }
@@ -523,18 +620,38 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
         };
     }
 
+    /**
+     Perform the action for each attribute's key and value, in order. Unlike {@link #iterator()}, this does not create
+     an {@link Attribute} object per attribute, so is preferable when visiting the attributes of many elements.
+     Internal attributes are skipped, and boolean attributes have an empty value. The attributes must not be modified
+     by the action.
+     @param action the action to perform with each attribute's key and value
+     @since 1.23.1
+     */
+    public void forEach(BiConsumer<String, String> action) {
+        Validate.notNull(action);
+        ensureParsed();
+        final int sz = size;
+        for (int i = 0; i < sz; i++) {
+            if (size != sz) throw new ConcurrentModificationException("Attributes must not be modified in forEach()");
+            String key = key(i);
+            if (!isInternalKey(key))
+                action.accept(key, checkNotNull(val(i)));
+        }
+    }
+
     /**
      Get the attributes as a List, for iteration.
      @return a view of the attributes as an unmodifiable List.
      */
     public List<Attribute> asList() {
+        ensureParsed();
         ArrayList<Attribute> list = new ArrayList<>(size);
         for (int i = 0; i < size; i++) {
-            String key = keys[i];
-            assert key != null;
+            String key = key(i);
             if (isInternalKey(key))
                 continue; // skip internal keys
-            Attribute attr = new Attribute(key, (String) vals[i], Attributes.this);
+            Attribute attr = new Attribute(key, (String) val(i), Attributes.this);
             list.add(attr);
         }
         return Collections.unmodifiableList(list);
@@ -560,15 +677,15 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
     }
 
     final void html(final QuietAppendable accum, final Document.OutputSettings out) {
+        ensureParsed();
         final int sz = size;
         for (int i = 0; i < sz; i++) {
-            String key = keys[i];
-            assert key != null;
+            String key = key(i);
             if (isInternalKey(key))
                 continue;
             final String validated = Attribute.getValidKey(key, out.syntax());
             if (validated != null)
-                Attribute.htmlNoValidate(validated, (String) vals[i], accum.append(' '), out);
+                Attribute.htmlNoValidate(validated, (String) val(i), accum.append(' '), out);
         }
     }
 
@@ -589,12 +706,12 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
         if (o == null || getClass() != o.getClass()) return false;
 
         Attributes that = (Attributes) o;
+        ensureParsed();
+        that.ensureParsed();
         if (size != that.size) return false;
         for (int i = 0; i < size; i++) {
-            String key = keys[i];
-            assert key != null;
-            int thatI = that.indexOfKey(key);
-            if (thatI == NotFound || !Objects.equals(vals[i], that.vals[thatI]))
+            int thatI = that.indexOfKey(key(i));
+            if (thatI == NotFound || !Objects.equals(val(i), that.val(thatI)))
                 return false;
         }
         return true;
@@ -606,15 +723,20 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
      */
     @Override
     public int hashCode() {
+        ensureParsed();
         int result = size;
-        result = 31 * result + Arrays.hashCode(keys);
-        result = 31 * result + Arrays.hashCode(vals);
+        for (int i = 0; i < size; i++) // summed, as equality is independent of order
+            result += Objects.hashCode(key(i)) ^ Objects.hashCode(val(i));
         return result;
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public Attributes clone() {
+        if (key0 == PendingKey) { // the clone can parse the same source
+            assert val0 != null;
+            return pending((Supplier<Attributes>) val0);
+        }
         Attributes clone;
         try {
             clone = (Attributes) super.clone();
@@ -622,19 +744,22 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
             throw new RuntimeException(e);
         }
         clone.size = size;
-        clone.keys = Arrays.copyOf(keys, size);
-        clone.vals = Arrays.copyOf(vals, size);
+        if (keys != null) {
+            assert vals != null;
+            clone.keys = Arrays.copyOf(keys, size);
+            clone.vals = Arrays.copyOf(vals, size);
+        } // else inline fields are copied by super.clone()
 
         // make a copy of the user data map. (Contents are shallow).
         int i = indexOfKey(SharedConstants.UserDataKey);
         if (i != NotFound) {
-            clone.vals[i] = new HashMap<>((Map<String, Object>) vals[i]);
+            clone.setVal(i, new HashMap<>((Map<String, Object>) val(i)));
         }
 
         // make a copy of the range spans, if present.
         i = indexOfKey(SharedConstants.RangeSpansKey);
         if (i != NotFound) {
-            clone.vals[i] = ((Range.Spans) vals[i]).copy();
+            clone.setVal(i, ((Range.Spans) val(i)).copy());
         }
 
         return clone;
@@ -644,12 +769,11 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
      * Internal method. Lowercases all (non-internal) keys.
      */
     public void normalize() {
+        ensureParsed();
         for (int i = 0; i < size; i++) {
-            assert keys[i] != null;
-            String key = keys[i];
-            assert key != null;
+            String key = key(i);
             if (!isInternalKey(key))
-                keys[i] = lowerCase(key);
+                setKey(i, lowerCase(key));
         }
     }
 
@@ -659,14 +783,14 @@ public class Attributes implements Iterable<Attribute>, Cloneable {
      * @return number of removed dupes
      */
     public int deduplicate(ParseSettings settings) {
+        ensureParsed();
         if (size == 0) return 0;
         boolean preserve = settings.preserveAttributeCase();
         int dupes = 0;
         for (int i = 0; i < size; i++) {
-            String keyI = keys[i];
-            assert keyI != null;
+            String keyI = key(i);
             for (int j = i + 1; j < size; j++) {
-                if ((preserve && keyI.equals(keys[j])) || (!preserve && keyI.equalsIgnoreCase(keys[j]))) {
+                if ((preserve && keyI.equals(key(j))) || (!preserve && keyI.equalsIgnoreCase(key(j)))) {
                     dupes++;
                     remove(j);
                     j--;
@@ -0,0 +1,691 @@
+package org.jsoup.nodes;
+
+import org.jsoup.helper.Validate;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.Tag;
+import org.jsoup.select.Elements;
+import org.jsoup.select.NodeVisitor;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.jsoup.parser.Parser.NamespaceXml;
+
+/**
+ A compact, read-only copy of a {@link Document}, for holding many parsed documents in memory, e.g. in a cache. Create
+ one with {@link Document#freeze()}.
+ <p>Rather than a tree of objects, the nodes are held in primitive arrays in document order: each node's kind, parent
+ index, subtree end index, and tag or text, and each element's attributes. Strings are held once each, in a single
+ byte buffer, as UTF-8 (or as UTF-16, if that is smaller, as for mostly CJK text), which may optionally be a direct
+ (off-heap) buffer; and each distinct {@link Tag} is held once. That typically takes around half the memory of the
+ source document, or less: e.g. 107 KB rather than 230 KB for a 1,600 node Japanese news page, and 230 KB rather than
+ 566 KB for a 4,300 node page of mostly text.</p>
+ <p>Elements are read through lightweight {@link ElementView}s. Methods that need the full DOM, such as
+ {@link #select(String)}, {@link ElementView#text()}, and {@link ElementView#outerHtml()}, inflate a transient copy of
+ the required nodes to run against, so give the same results as the source document. A query inflates the whole
+ document each time, so to run many queries, it is more efficient to inflate a document once with
+ {@link #toDocument()}.</p>
+ <p>A CompactDocument is immutable, so may be read concurrently.</p>
+ @since 1.23.1
+ */
+public final class CompactDocument {
+    private static final byte KindDocument = 0;
+    private static final byte KindElement = 1;
+    private static final byte KindForm = 2;
+    private static final byte KindText = 3;
+    private static final byte KindCData = 4;
+    private static final byte KindData = 5;
+    private static final byte KindComment = 6;
+    private static final byte KindDoctype = 7;
+    private static final byte KindDeclaration = 8;
+    private static final byte KindInstruction = 9;
+
+    // per node, in document order:
+    private final byte[] kinds;
+    private final int[] parents; // index of parent; -1 for the root
+    private final int[] ends; // index after the last node in this node's subtree
+    private final int[] values; // tag id of an element, or string id of a leaf node's value
+    private final int[] attrStarts; // index into the attr arrays; node i's attributes are [attrStarts[i], attrStarts[i+1])
+
+    private final int[] attrKeys; // string ids
+    private final int[] attrVals; // string ids, or -1 for a boolean attribute
+    private final int[] stringStarts; // string i is the bytes [stringStarts[i], stringStarts[i+1]) in data
+    private final ByteBuffer data;
+    private final boolean utf8; // if data is UTF-8; else UTF-16 chars, when that is smaller or the strings aren't valid
+    private final Tag[] tags; // shared with the source document, as parsed documents share their parser's tags
+
+    private final String location;
+    private final boolean xml;
+    private final Document.OutputSettings outputSettings;
+    private final Document.QuirksMode quirksMode;
+
+    private CompactDocument(Builder builder, Document doc, boolean direct) {
+        int size = builder.size;
+        kinds = new byte[size];
+        System.arraycopy(builder.kinds, 0, kinds, 0, size);
+        parents = copyOf(builder.parents, size);
+        ends = copyOf(builder.ends, size);
+        values = copyOf(builder.values, size);
+        attrStarts = copyOf(builder.attrStarts, size + 1);
+        attrKeys = copyOf(builder.attrKeys, builder.attrSize);
+        attrVals = copyOf(builder.attrVals, builder.attrSize);
+        stringStarts = new int[builder.strings.size() + 1];
+        tags = builder.tags.keySet().toArray(new Tag[0]);
+
+        List<String> strings = builder.strings;
+        int chars = 0;
+        long utf8Len = 0;
+        for (String string : strings) {
+            chars += string.length();
+            utf8Len = utf8Len == -1 ? -1 : utf8Length(string, utf8Len);
+        }
+        utf8 = utf8Len != -1 && utf8Len <= chars * 2L;
+        byte[] bytes = new byte[utf8 ? (int) utf8Len : chars * 2];
+        int pos = 0;
+        for (int i = 0; i < strings.size(); i++) {
+            String string = strings.get(i);
+            if (utf8) {
+                byte[] encoded = string.getBytes(UTF_8);
+                System.arraycopy(encoded, 0, bytes, pos, encoded.length);
+                pos += encoded.length;
+            } else {
+                for (int j = 0; j < string.length(); j++) {
+                    char c = string.charAt(j);
+                    bytes[pos++] = (byte) (c >> 8);
+                    bytes[pos++] = (byte) c;
+                }
+            }
+            stringStarts[i + 1] = pos;
+        }
+        if (direct) {
+            data = ByteBuffer.allocateDirect(bytes.length);
+            data.put(bytes); // read with absolute gets, so the position doesn't matter
+        } else {
+            data = ByteBuffer.wrap(bytes);
+        }
+
+        location = doc.location();
+        xml = NamespaceXml.equals(doc.parser().defaultNamespace());
+        outputSettings = doc.outputSettings().clone();
+        quirksMode = doc.quirksMode();
+    }
+
+    /**
+     Create a compact copy of a document, holding its strings on the heap.
+     @param doc the document to copy
+     @return a compact copy
+     */
+    public static CompactDocument of(Document doc) {
+        return of(doc, false);
+    }
+
+    /**
+     Create a compact copy of a document.
+     @param doc the document to copy
+     @param direct {@code true} to hold the document's strings in a direct (off-heap) buffer
+     @return a compact copy
+     */
+    public static CompactDocument of(Document doc, boolean direct) {
+        Validate.notNull(doc);
+        Builder builder = new Builder();
+        doc.traverse(builder);
+        return new CompactDocument(builder, doc, direct);
+    }
+
+    /**
+     Get the number of nodes in this document, including the document itself.
+     @return the node count
+     */
+    public int nodeCount() {
+        return kinds.length;
+    }
+
+    /**
+     Get the URL this document was parsed from.
+     @return the location
+     @see Document#location()
+     */
+    public String location() {
+        return location;
+    }
+
+    /**
+     Get a view of the document's root (the document node).
+     @return the root view
+     */
+    public ElementView root() {
+        return new ElementView(this, 0);
+    }
+
+    /**
+     Find elements that match the CSS query.
+     @param cssQuery a CSS query
+     @return the matching elements, in document order
+     @see Element#select(String)
+     */
+    public List<ElementView> select(String cssQuery) {
+        return root().select(cssQuery);
+    }
+
+    /**
+     Find the first element that matches the CSS query.
+     @param cssQuery a CSS query
+     @return the first match, or {@code null} if none match
+     @see Element#selectFirst(String)
+     */
+    public @Nullable ElementView selectFirst(String cssQuery) {
+        return root().selectFirst(cssQuery);
+    }
+
+    /**
+     Get the combined, normalized text of the document.
+     @return the document's text
+     @see Element#text()
+     */
+    public String text() {
+        return root().text();
+    }
+
+    /**
+     Get the document's HTML.
+     @return the document's HTML
+     @see Document#outerHtml()
+     */
+    public String outerHtml() {
+        return root().outerHtml();
+    }
+
+    /**
+     Inflate a new, modifiable {@link Document} from this compact copy. The document has a new default HTML or XML
+     parser, but its elements have the same {@link Tag}s as the source document.
+     @return a new Document
+     */
+    public Document toDocument() {
+        return (Document) inflate(0, null);
+    }
+
+    @Override
+    public String toString() {
+        return outerHtml();
+    }
+
+    /**
+     Adds the UTF-8 length of the string to the running length, or returns -1 if the string has an unpaired surrogate,
+     which UTF-8 can't represent.
+     */
+    private static long utf8Length(String s, long len) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) len += 1;
+            else if (c < 0x800) len += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                len += 4;
+                i++;
+            }
+            else if (Character.isSurrogate(c)) return -1;
+            else len += 3;
+        }
+        return len;
+    }
+
+    String string(int id) {
+        int start = stringStarts[id];
+        int len = stringStarts[id + 1] - start;
+        if (!utf8) {
+            char[] chars = new char[len / 2];
+            for (int i = 0; i < chars.length; i++)
+                chars[i] = data.getChar(start + i * 2);
+            return new String(chars);
+        }
+        if (data.hasArray())
+            return new String(data.array(), data.arrayOffset() + start, len, UTF_8);
+        byte[] bytes = new byte[len];
+        for (int i = 0; i < len; i++)
+            bytes[i] = data.get(start + i);
+        return new String(bytes, UTF_8);
+    }
+
+    boolean stringEquals(int id, String s) {
+        int start = stringStarts[id];
+        int len = stringStarts[id + 1] - start;
+        if (!utf8) {
+            if (len != s.length() * 2) return false;
+            for (int i = 0; i < s.length(); i++) {
+                if (data.getChar(start + i * 2) != s.charAt(i)) return false;
+            }
+            return true;
+        }
+        if (len < s.length()) return false; // a UTF-8 string is never shorter in bytes than in chars
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) return string(id).equals(s); // not ASCII, so compare decoded
+            if (data.get(start + i) != c) return false;
+        }
+        return len == s.length();
+    }
+
+    boolean isElement(int index) {
+        byte kind = kinds[index];
+        return kind == KindElement || kind == KindForm || kind == KindDocument;
+    }
+
+    /**
+     Inflate the subtree at index, within shallow copies of its ancestors, so that methods that look up the tree (like
+     output settings and whitespace preservation) work as in the source.
+     @param inflated if not null, filled with each inflated element, at its index
+     */
+    Node inflate(int index, Element @Nullable [] inflated) {
+        Document doc = (Document) node(0);
+        doc.parser(xml ? Parser.xmlParser() : Parser.htmlParser());
+        doc.outputSettings(outputSettings.clone());
+        doc.quirksMode(quirksMode);
+        if (inflated != null) inflated[0] = doc;
+        if (index == 0) {
+            inflateChildren(doc, 0, inflated);
+            return doc;
+        }
+
+        List<Integer> ancestors = new ArrayList<>();
+        for (int i = parents[index]; i > 0; i = parents[i])
+            ancestors.add(i);
+        Collections.reverse(ancestors);
+        Element parent = doc;
+        for (int ancestor : ancestors) {
+            Element el = (Element) node(ancestor);
+            parent.appendChild(el);
+            parent = el;
+        }
+        Node node = node(index);
+        parent.appendChild(node);
+        if (node instanceof Element) {
+            if (inflated != null) inflated[index] = (Element) node;
+            inflateChildren((Element) node, index, inflated);
+        }
+        return node;
+    }
+
+    private void inflateChildren(Element root, int rootIndex, Element @Nullable [] inflated) {
+        ArrayList<Element> stack = new ArrayList<>();
+        ArrayList<Integer> stackIndexes = new ArrayList<>();
+        stack.add(root);
+        stackIndexes.add(rootIndex);
+        for (int i = rootIndex + 1; i < ends[rootIndex]; i++) {
+            while (stackIndexes.get(stackIndexes.size() - 1) != parents[i]) {
+                stack.remove(stack.size() - 1);
+                stackIndexes.remove(stackIndexes.size() - 1);
+            }
+            Node node = node(i);
+            stack.get(stack.size() - 1).appendChild(node);
+            if (node instanceof Element) {
+                if (inflated != null) inflated[i] = (Element) node;
+                stack.add((Element) node);
+                stackIndexes.add(i);
+            }
+        }
+    }
+
+    /** Create the node at index, without its children. */
+    private Node node(int index) {
+        byte kind = kinds[index];
+        switch (kind) {
+            case KindDocument:
+                Document created = new Document(tags[values[index]].namespace(), location);
+                putAttributes(index, created.attributes());
+                return created;
+            case KindElement:
+            case KindForm:
+                Tag tag = tags[values[index]];
+                Attributes attributes = attributes(index);
+                return kind == KindForm ? new FormElement(tag, null, attributes) : new Element(tag, null, attributes);
+        }
+
+        String value = string(values[index]);
+        LeafNode leaf;
+        switch (kind) {
+            case KindText: leaf = new TextNode(value); break;
+            case KindCData: leaf = new CDataNode(value); break;
+            case KindData: leaf = new DataNode(value); break;
+            case KindComment: leaf = new Comment(value); break;
+            case KindDoctype: leaf = new DocumentType("", "", ""); break;
+            case KindDeclaration: leaf = new XmlDeclaration(value, true); break;
+            case KindInstruction: leaf = new XmlDeclaration(value, false); break;
+            default: throw new IllegalStateException("Unexpected node kind " + kind);
+        }
+        if (attrStarts[index] != attrStarts[index + 1]) putAttributes(index, leaf.attributes());
+        leaf.coreValue(value);
+        return leaf;
+    }
+
+    private @Nullable Attributes attributes(int index) {
+        int start = attrStarts[index], end = attrStarts[index + 1];
+        if (start == end) return null;
+        Attributes attributes = new Attributes();
+        putAttributes(index, attributes);
+        return attributes;
+    }
+
+    private void putAttributes(int index, Attributes attributes) {
+        for (int i = attrStarts[index]; i < attrStarts[index + 1]; i++)
+            attributes.put(string(attrKeys[i]), attrVals[i] == -1 ? null : string(attrVals[i])); // includes internal keys, like the base URI
+    }
+
+    private static int[] copyOf(int[] array, int size) {
+        int[] copy = new int[size];
+        System.arraycopy(array, 0, copy, 0, size);
+        return copy;
+    }
+
+    /**
+     A lightweight, read-only view of an element (or the document) in a {@link CompactDocument}.
+     */
+    public static final class ElementView {
+        private final CompactDocument doc;
+        private final int index;
+
+        ElementView(CompactDocument doc, int index) {
+            this.doc = doc;
+            this.index = index;
+        }
+
+        /**
+         Get the compact document that this element is in.
+         @return the document
+         */
+        public CompactDocument document() {
+            return doc;
+        }
+
+        /**
+         Get the name of this element's tag, e.g. {@code div}. The document's tag name is {@code #root}.
+         @return the tag name
+         */
+        public String tagName() {
+            return doc.tags[doc.values[index]].getName();
+        }
+
+        /**
+         Get the namespace of this element's tag.
+         @return the namespace
+         */
+        public String namespace() {
+            return doc.tags[doc.values[index]].namespace();
+        }
+
+        /**
+         Get the value of an attribute.
+         @param key the attribute key, case-sensitive
+         @return the attribute value, or an empty string if it is not present
+         @see Element#attr(String)
+         */
+        public String attr(String key) {
+            int i = attrIndex(key);
+            return i == -1 || doc.attrVals[i] == -1 ? "" : doc.string(doc.attrVals[i]);
+        }
+
+        /**
+         Test if this element has an attribute.
+         @param key the attribute key, case-sensitive
+         @return {@code true} if the attribute is present
+         */
+        public boolean hasAttr(String key) {
+            return attrIndex(key) != -1;
+        }
+
+        private int attrIndex(String key) {
+            for (int i = doc.attrStarts[index]; i < doc.attrStarts[index + 1]; i++) {
+                if (doc.stringEquals(doc.attrKeys[i], key)) return i;
+            }
+            return -1;
+        }
+
+        /**
+         Get a copy of this element's attributes.
+         @return a new Attributes object
+         */
+        public Attributes attributes() {
+            Attributes attributes = doc.attributes(index);
+            return attributes != null ? attributes : new Attributes();
+        }
+
+        /**
+         Get this element's id attribute.
+         @return the id, or an empty string if none
+         */
+        public String id() {
+            return attr("id");
+        }
+
+        /**
+         Get this element's parent element.
+         @return the parent, or {@code null} if this is the document
+         */
+        public @Nullable ElementView parent() {
+            int parent = doc.parents[index];
+            return parent == -1 ? null : new ElementView(doc, parent);
+        }
+
+        /**
+         Get this element's child elements.
+         @return the child elements, in document order
+         */
+        public List<ElementView> children() {
+            List<ElementView> children = new ArrayList<>();
+            for (int i = index + 1; i < doc.ends[index]; i = doc.ends[i]) {
+                if (doc.isElement(i)) children.add(new ElementView(doc, i));
+            }
+            return children;
+        }
+
+        /**
+         Find elements within this element that match the CSS query.
+         @param cssQuery a CSS query
+         @return the matching elements, in document order
+         @see Element#select(String)
+         */
+        public List<ElementView> select(String cssQuery) {
+            Element[] inflated = new Element[doc.kinds.length];
+            doc.inflate(0, inflated); // the whole document, so that combinators match as in the source
+            Elements found = inflated[index].select(cssQuery);
+            List<ElementView> views = new ArrayList<>(found.size());
+            int i = index;
+            for (Element match : found) { // in document order, so the indexes are found in one pass
+                while (inflated[i] != match) i++;
+                views.add(new ElementView(doc, i));
+            }
+            return views;
+        }
+
+        /**
+         Find the first element within this element that matches the CSS query.
+         @param cssQuery a CSS query
+         @return the first match, or {@code null} if none match
+         */
+        public @Nullable ElementView selectFirst(String cssQuery) {
+            Element[] inflated = new Element[doc.kinds.length];
+            doc.inflate(0, inflated);
+            Element match = inflated[index].selectFirst(cssQuery);
+            if (match == null) return null;
+            int i = index;
+            while (inflated[i] != match) i++;
+            return new ElementView(doc, i);
+        }
+
+        /**
+         Get the combined, normalized text of this element and its descendants.
+         @return the text
+         @see Element#text()
+         */
+        public String text() {
+            return toElement().text();
+        }
+
+        /**
+         Get this element's inner HTML.
+         @return the HTML
+         @see Element#html()
+         */
+        public String html() {
+            return toElement().html();
+        }
+
+        /**
+         Get this element's outer HTML.
+         @return the HTML
+         @see Element#outerHtml()
+         */
+        public String outerHtml() {
+            return toElement().outerHtml();
+        }
+
+        /**
+         Inflate a new copy of this element and its descendants. It is held within shallow copies of its ancestors, so
+         that it has an owner document with the source's output settings.
+         @return the inflated element
+         */
+        public Element toElement() {
+            return (Element) doc.inflate(index, null);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ElementView)) return false;
+            ElementView other = (ElementView) o;
+            return doc == other.doc && index == other.index;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(doc) + index;
+        }
+
+        @Override
+        public String toString() {
+            return outerHtml();
+        }
+    }
+
+    /** Walks a document, building up the arrays and string table. */
+    private static final class Builder implements NodeVisitor {
+        int size;
+        byte[] kinds = new byte[64];
+        int[] parents = new int[64];
+        int[] ends = new int[64];
+        int[] values = new int[64];
+        int[] attrStarts = new int[65];
+
+        int attrSize;
+        int[] attrKeys = new int[64];
+        int[] attrVals = new int[64];
+
+        final HashMap<String, Integer> stringIds = new HashMap<>();
+        final ArrayList<String> strings = new ArrayList<>(); // by id
+        final LinkedHashMap<Tag, Integer> tags = new LinkedHashMap<>(); // equal tags are interchangeable
+
+        private final ArrayList<Integer> open = new ArrayList<>(); // indexes of the open elements
+
+        @Override
+        public void head(Node node, int depth) {
+            if (size == kinds.length) grow();
+            int index = size++;
+            byte kind = kind(node);
+            kinds[index] = kind;
+            parents[index] = open.isEmpty() ? -1 : open.get(open.size() - 1);
+            values[index] = -1;
+            attrStarts[index] = attrSize;
+
+            if (node instanceof Element) {
+                Element el = (Element) node;
+                values[index] = tag(el.tag());
+                if (el.attributes != null) addAttributes(el.attributes, null);
+                open.add(index);
+            } else {
+                LeafNode leaf = (LeafNode) node;
+                values[index] = string(leaf.coreValue());
+                if (leaf.hasAttributes()) addAttributes(leaf.attributes(), leaf.nodeName()); // the value is held above
+                ends[index] = index + 1;
+            }
+            attrStarts[index + 1] = attrSize;
+        }
+
+        @Override
+        public void tail(Node node, int depth) {
+            if (node instanceof Element) {
+                int index = open.remove(open.size() - 1);
+                ends[index] = size;
+            }
+        }
+
+        private static byte kind(Node node) {
+            if (node instanceof Document) return KindDocument;
+            if (node instanceof FormElement) return KindForm;
+            if (node instanceof Element) return KindElement;
+            if (node instanceof CDataNode) return KindCData;
+            if (node instanceof TextNode) return KindText;
+            if (node instanceof DataNode) return KindData;
+            if (node instanceof Comment) return KindComment;
+            if (node instanceof DocumentType) return KindDoctype;
+            if (node instanceof XmlDeclaration)
+                return ((XmlDeclaration) node).isDeclaration() ? KindDeclaration : KindInstruction;
+            throw new IllegalArgumentException("Unsupported node type " + node.getClass().getName());
+        }
+
+        private void addAttributes(Attributes attributes, @Nullable String skipKey) {
+            attributes.ensureParsed();
+            for (int i = 0; i < attributes.size; i++) {
+                String key = attributes.key(i);
+                Object value = attributes.val(i);
+                if (key.equals(skipKey) || (value != null && !(value instanceof String)))
+                    continue; // internal objects like user data and source ranges aren't retained; internal strings are
+                if (attrSize == attrKeys.length) {
+                    attrKeys = grow(attrKeys, attrSize * 2);
+                    attrVals = grow(attrVals, attrSize * 2);
+                }
+                attrKeys[attrSize] = string(key);
+                attrVals[attrSize] = value == null ? -1 : string((String) value);
+                attrSize++;
+            }
+        }
+
+        private int string(String s) {
+            Integer id = stringIds.get(s);
+            if (id != null) return id;
+            id = strings.size();
+            stringIds.put(s, id);
+            strings.add(s);
+            return id;
+        }
+
+        private int tag(Tag tag) {
+            Integer id = tags.get(tag);
+            if (id != null) return id;
+            id = tags.size();
+            tags.put(tag, id);
+            return id;
+        }
+
+        private void grow() {
+            int capacity = kinds.length * 2;
+            byte[] newKinds = new byte[capacity];
+            System.arraycopy(kinds, 0, newKinds, 0, size);
+            kinds = newKinds;
+            parents = grow(parents, capacity);
+            ends = grow(ends, capacity);
+            values = grow(values, capacity);
+            attrStarts = grow(attrStarts, capacity + 1);
+        }
+
+        private static int[] grow(int[] array, int capacity) {
+            int[] grown = new int[capacity];
+            System.arraycopy(array, 0, grown, 0, array.length);
+            return grown;
+        }
+    }
+}
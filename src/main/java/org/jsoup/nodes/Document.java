@@ -4,6 +4,7 @@ import org.jsoup.Connection;
 import org.jsoup.Jsoup;
 import org.jsoup.helper.DataUtil;
 import org.jsoup.helper.Validate;
+import org.jsoup.internal.QuietAppendable;
 import org.jsoup.internal.StringUtil;
 import org.jsoup.parser.ParseSettings;
 import org.jsoup.parser.Parser;
@@ -28,6 +29,12 @@ public class Document extends Element {
     private Parser parser; // the parser used to parse this document
     private QuirksMode quirksMode = QuirksMode.noQuirks;
     private final String location;
+    int modCount = 0; // incremented on changes to elements or their tag, id, or class; invalidates the index
+    private boolean useIndex = false;
+    // set once any document enables its selector index. Until then, there are no indexes to invalidate, so DOM edits
+    // skip the walk to their owner document
+    static volatile boolean anyIndexEnabled = false;
+    private volatile @Nullable ElementIndex index; // lazily built, when useIndex is set
 
     /**
      Create a new, empty Document, in the specified namespace.
@@ -231,6 +238,11 @@ public class Document extends Element {
         return super.html(); // no outer wrapper tag
     }
 
+    @Override
+    void printHtml(QuietAppendable accum) {
+        printChildren(accum); // no outer wrapper tag
+    }
+
     /**
      Set the text of the {@code body} of this document. Any existing nodes within the body will be cleared.
      @param text un-encoded text
@@ -280,20 +292,80 @@ public class Document extends Element {
         return outputSettings.charset();
     }
 
+    /**
+     Enable or disable the selector index for this document. When enabled, an index of the document's elements by id,
+     class name, and tag name is built on the first query that can use it, and is used to find the candidate elements
+     for queries run on the document, rather than testing every element. For example, the query {@code #main a.title}
+     will only test the elements with the {@code title} class (or the {@code a} elements, if there are fewer).
+     <p>The index is worthwhile when running several queries against a large document. It is invalidated when
+     elements are added or removed, or when an element's tag, {@code id}, or {@code class} is changed via the
+     Element methods, and is then rebuilt on the next query. Changes made directly to an element's {@link Attributes}
+     are not tracked; call this method again to rebuild the index after such changes.</p>
+     <p>The index is used for queries on the Document itself (e.g. {@code doc.select(query)}), not for queries rooted
+     at descendant elements. Disabled by default.</p>
+
+     @param enable true to enable the index
+     @return this document, for chaining
+     @since 1.23.1
+     */
+    public Document selectorIndex(boolean enable) {
+        useIndex = enable;
+        if (enable) anyIndexEnabled = true;
+        index = null;
+        return this;
+    }
+
+    /**
+     Check if the selector index is enabled for this document.
+     @return true if enabled
+     @see #selectorIndex(boolean)
+     @since 1.23.1
+     */
+    public boolean selectorIndex() {
+        return useIndex;
+    }
+
+    /**
+     Get the current selector index, building it if required. Returns null if the index is not enabled.
+     */
+    @Nullable ElementIndex index() {
+        if (!useIndex) return null;
+        ElementIndex current = index;
+        if (current == null || current.modCount != modCount) {
+            current = new ElementIndex(this);
+            index = current;
+        }
+        return current;
+    }
+
     @Override
     public Document clone() {
         Document clone = (Document) super.clone();
         if (attributes != null) clone.attributes = attributes.clone();
         clone.outputSettings = this.outputSettings.clone();
+        clone.index = null;
         // parser is pointer copy
         return clone;
     }
 
+    /**
+     Create a compact, read-only copy of this document, which uses much less memory, for retaining many parsed documents
+     (e.g. in a cache). Elements in the copy can still be selected, and their text and HTML read. This document is not
+     modified.
+     @return a compact copy of this document
+     @see CompactDocument#of(Document, boolean)
+     @since 1.23.1
+     */
+    public CompactDocument freeze() {
+        return CompactDocument.of(this);
+    }
+
     @Override
     public Document shallowClone() {
         Document clone = new Document(this.tag().namespace(), baseUri(), parser); // preserves parser pointer
         if (attributes != null) clone.attributes = attributes.clone();
         clone.outputSettings = this.outputSettings.clone();
+        clone.useIndex = useIndex;
         return clone;
     }
     
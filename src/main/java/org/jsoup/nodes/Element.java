@@ -216,6 +216,7 @@ public class Element extends Node implements Iterable<Element> {
         Validate.notEmptyParam(namespace, "namespace");
         Parser parser = NodeUtils.parser(this);
         tag = parser.tagSet().valueOf(tagName, namespace, parser.settings()); // maintains the case option of the original parse
+        treeChanged();
         return this;
     }
 
@@ -237,6 +238,7 @@ public class Element extends Node implements Iterable<Element> {
     public Element tag(Tag tag) {
         Validate.notNull(tag);
         this.tag = tag;
+        treeChanged();
         return this;
     }
 
@@ -811,6 +813,13 @@ public class Element extends Node implements Iterable<Element> {
      * @see #insertChildren(int, Collection)
      */
     public Element appendChild(Node child) {
+        appendChildNode(child);
+        if (child instanceof Element) treeChanged();
+        return this;
+    }
+
+    /** Appends the child without walking to the document to record the change; see NodeInternals#appendChild. */
+    void appendChildNode(Node child) {
         Validate.notNull(child);
 
         // was - Node#addChildren(child). short-circuits an array create and a loop.
@@ -818,7 +827,6 @@ public class Element extends Node implements Iterable<Element> {
         ensureChildNodes();
         childNodes.add(child);
         child.setSiblingIndex(childNodes.size() - 1);
-        return this;
     }
 
     /**
@@ -1068,6 +1076,7 @@ public class Element extends Node implements Iterable<Element> {
         for (int i = 0; i < size; i++)
             childNodes.get(i).parentNode = null;
         childNodes.clear();
+        if (size > 0) treeChanged();
         return this;
     }
 
@@ -1877,6 +1886,7 @@ public class Element extends Node implements Iterable<Element> {
         } else {
             attributes().put("class", StringUtil.join(classNames, " "));
         }
+        treeChanged();
         return this;
     }
 
@@ -2044,15 +2054,19 @@ public class Element extends Node implements Iterable<Element> {
 
     @Override
     public <T extends Appendable> T html(T accum) {
+        printChildren(QuietAppendable.wrap(accum));
+        return accum;
+    }
+
+    void printChildren(QuietAppendable accum) {
         Node child = firstChild();
         if (child != null) {
-            Printer printer = Printer.printerFor(child, QuietAppendable.wrap(accum));
+            Printer printer = Printer.printerFor(child, accum);
             while (child != null) {
                 printer.traverse(child);
                 child = child.nextSibling();
             }
         }
-        return accum;
     }
 
     /**
@@ -0,0 +1,78 @@
+package org.jsoup.nodes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ An index of a Document's elements by id, class name, and normal tag name, in document order. Built by
+ {@link Document#index()}, and valid while the document's mod count matches. Once built, it is not modified, so may be
+ read concurrently.
+ */
+final class ElementIndex {
+    final int modCount;
+    private final HashMap<String, List<Element>> ids = new HashMap<>();
+    private final HashMap<String, List<Element>> classes = new HashMap<>(); // keys are case folded
+    private final HashMap<String, List<Element>> tags = new HashMap<>();
+
+    ElementIndex(Document doc) {
+        modCount = doc.modCount;
+        for (Element el : doc) {
+            add(tags, el.normalName(), el);
+            if (el.attributes == null) continue;
+
+            String id = el.id();
+            if (!id.isEmpty()) add(ids, id, el);
+            for (String className : el.classList()) {
+                add(classes, foldCase(className), el);
+            }
+        }
+    }
+
+    private static void add(HashMap<String, List<Element>> map, String key, Element el) {
+        List<Element> els = map.get(key);
+        if (els == null) {
+            els = new ArrayList<>(4);
+            map.put(key, els);
+        } else if (els.get(els.size() - 1) == el) {
+            return; // a duplicate class name
+        }
+        els.add(el);
+    }
+
+    List<Element> byId(String id) {
+        return get(ids, id);
+    }
+
+    List<Element> byClass(String className) {
+        return get(classes, foldCase(className));
+    }
+
+    List<Element> byTag(String normalName) {
+        return get(tags, normalName);
+    }
+
+    private static List<Element> get(HashMap<String, List<Element>> map, String key) {
+        List<Element> els = map.get(key);
+        return els != null ? Collections.unmodifiableList(els) : Collections.emptyList();
+    }
+
+    /**
+     Folds the case of the string so that two strings are equal after folding if they are {@code equalsIgnoreCase}, as
+     {@link Element#hasClass(String)} tests.
+     */
+    static String foldCase(String in) {
+        int len = in.length();
+        for (int i = 0; i < len; i++) {
+            char c = in.charAt(i);
+            if (c >= 'A' && c <= 'Z' || c > 127) {
+                char[] chars = in.toCharArray();
+                for (int j = i; j < len; j++)
+                    chars[j] = Character.toLowerCase(Character.toUpperCase(chars[j]));
+                return new String(chars);
+            }
+        }
+        return in;
+    }
+}
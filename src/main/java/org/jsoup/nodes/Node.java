@@ -1,6 +1,8 @@
 package org.jsoup.nodes;
 
+import org.jsoup.SerializationException;
 import org.jsoup.helper.Validate;
+import org.jsoup.internal.ByteAppendable;
 import org.jsoup.internal.QuietAppendable;
 import org.jsoup.internal.StringUtil;
 import org.jsoup.parser.ParseSettings;
@@ -9,6 +11,8 @@ import org.jsoup.select.NodeVisitor;
 import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -162,6 +166,7 @@ public abstract class Node implements Cloneable {
         ParseSettings settings = doc != null ? doc.parser().settings() : ParseSettings.htmlDefault;
         attributeKey = settings.normalizeAttribute(attributeKey);
         attributes().putIgnoreCase(attributeKey, attributeValue);
+        if (doc != null && isIndexedAttribute(attributeKey)) doc.modCount++;
         return this;
     }
 
@@ -190,8 +195,10 @@ public abstract class Node implements Cloneable {
      */
     public Node removeAttr(String attributeKey) {
         Validate.notNull(attributeKey);
-        if (hasAttributes())
+        if (hasAttributes()) {
             attributes().removeIgnoreCase(attributeKey);
+            if (isIndexedAttribute(attributeKey)) treeChanged();
+        }
         return this;
     }
 
@@ -206,6 +213,7 @@ public abstract class Node implements Cloneable {
                 it.next();
                 it.remove();
             }
+            treeChanged();
         }
         return this;
     }
@@ -558,6 +566,7 @@ public abstract class Node implements Cloneable {
         out.parentNode = null;
 
         ((Element) this).childNodes.incrementMod(); // as mod count not changed in set(), requires explicit update, to invalidate the child element cache
+        if (out instanceof Element || in instanceof Element) treeChanged();
     }
 
     protected void removeChild(Node out) {
@@ -569,6 +578,7 @@ public abstract class Node implements Cloneable {
             ensureChildNodes().remove(out); // iterates, but potentially not every one
 
         el.invalidateChildren();
+        if (out instanceof Element) treeChanged();
         out.parentNode = null;
     }
 
@@ -581,6 +591,7 @@ public abstract class Node implements Cloneable {
             nodes.add(child);
             child.setSiblingIndex(nodes.size()-1);
         }
+        treeChanged();
     }
 
     protected void addChildren(int index, Node... children) {
@@ -611,6 +622,7 @@ public abstract class Node implements Cloneable {
                     children[i].parentNode = (Element) this;
                 }
                 ((Element) this).invalidateChildren();
+                treeChanged();
                 return;
             }
         }
@@ -621,12 +633,31 @@ public abstract class Node implements Cloneable {
         }
         nodes.addAll(index, Arrays.asList(children));
         ((Element) this).invalidateChildren();
+        treeChanged();
     }
     
     protected void reparentChild(Node child) {
         child.setParentNode(this);
     }
 
+    /**
+     Records that the elements, or the tag, id, or class of an element, in this node's tree have changed. Increments the
+     owning Document's mod count, which invalidates its selector index (if any). Walks to the root, so only call on
+     changes that can affect the index; the walk is skipped unless a document has enabled its index.
+     */
+    void treeChanged() {
+        if (!Document.anyIndexEnabled) return;
+        Node node = this;
+        while (node.parentNode != null)
+            node = node.parentNode;
+        if (node instanceof Document)
+            ((Document) node).modCount++;
+    }
+
+    static boolean isIndexedAttribute(String key) {
+        return key.equalsIgnoreCase("id") || key.equalsIgnoreCase("class");
+    }
+
     /**
      Retrieves this node's sibling nodes. Similar to {@link #childNodes() node.parent.childNodes()}, but does not
      include this node (a node is not a sibling of itself).
@@ -877,6 +908,47 @@ public abstract class Node implements Cloneable {
         return appendable;
     }
 
+    /**
+     Write the outer HTML of this node to the given output stream, encoded in the document's output
+     {@link Document.OutputSettings#charset() charset}. The HTML is escaped and encoded in one pass into a byte buffer,
+     without building an intermediate String, so this is suitable for writing large documents to a file or socket.
+     <p>For a Document, writes its content (as {@link Document#outerHtml()}, but without trimming surrounding
+     whitespace).</p>
+     @param out the stream to write to. It will be flushed, but not closed.
+     @throws IOException if the stream throws an exception during the write
+     @since 1.23.1
+     */
+    public void writeHtml(OutputStream out) throws IOException {
+        writeHtml(new ByteAppendable(out, NodeUtils.outputSettings(this).charset()));
+    }
+
+    /**
+     Write the outer HTML of this node to the given channel, encoded in the document's output
+     {@link Document.OutputSettings#charset() charset}.
+     @param out the channel to write to. It will not be closed.
+     @throws IOException if the channel throws an exception during the write
+     @see #writeHtml(OutputStream)
+     @since 1.23.1
+     */
+    public void writeHtml(WritableByteChannel out) throws IOException {
+        writeHtml(new ByteAppendable(out, NodeUtils.outputSettings(this).charset()));
+    }
+
+    private void writeHtml(ByteAppendable accum) throws IOException {
+        try (ByteAppendable bytes = accum) {
+            printHtml(bytes);
+            bytes.finish();
+        } catch (SerializationException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw e;
+        }
+    }
+
+    /** Prints the HTML that {@link #outerHtml()} returns; overridden by Document, which has no outer tag. */
+    void printHtml(QuietAppendable accum) {
+        outerHtml(accum);
+    }
+
     /**
      Get the source range (start and end positions) in the original input source from which this node was parsed.
      Position tracking must be enabled prior to parsing the content. For an Element, this will be the positions of the
@@ -2,9 +2,14 @@ package org.jsoup.nodes;
 
 import org.jsoup.helper.Validate;
 import org.jsoup.internal.LineMap;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+import java.util.function.Supplier;
 
 /**
- Internal hooks used by the parser and cleaner to attach source ranges to nodes and attributes.
+ Internal hooks used by the parser and cleaner to attach source ranges to nodes and attributes, and by the selector to
+ read a Document's selector index.
  <p>This class is public only because jsoup's internal packages need to cross package boundaries; it is not a supported
  user API.</p>
  */
@@ -57,4 +62,53 @@ public final class NodeInternals {
         if (index != Attributes.NotFound && range.isTracked())
             attributes.ensureSpans().attributeRange(index, range);
     }
+
+    /**
+     Creates a lazily parsed set of attributes, which are parsed by the supplier when first used.
+     */
+    public static Attributes lazyAttributes(Supplier<Attributes> parser) {
+        Validate.notNull(parser);
+        return Attributes.pending(parser);
+    }
+
+    /**
+     Appends a child node, without walking to its owner Document to invalidate the selector index. Used by the tree
+     builders, which instead call {@link #treeChanged(Document)} on each insert.
+     */
+    public static void appendChild(Element parent, Node child) {
+        parent.appendChildNode(child);
+    }
+
+    /**
+     Records a change to the document's elements, which invalidates its selector index.
+     */
+    public static void treeChanged(Document doc) {
+        doc.modCount++;
+    }
+
+    /**
+     Gets the elements with the id from the document's selector index, or null if the index is not enabled.
+     */
+    public static @Nullable List<Element> indexedById(Document doc, String id) {
+        ElementIndex index = doc.index();
+        return index != null ? index.byId(id) : null;
+    }
+
+    /**
+     Gets the elements with the class name (case-insensitive) from the document's selector index, or null if the index
+     is not enabled.
+     */
+    public static @Nullable List<Element> indexedByClass(Document doc, String className) {
+        ElementIndex index = doc.index();
+        return index != null ? index.byClass(className) : null;
+    }
+
+    /**
+     Gets the elements with the normal tag name from the document's selector index, or null if the index is not
+     enabled.
+     */
+    public static @Nullable List<Element> indexedByTag(Document doc, String normalName) {
+        ElementIndex index = doc.index();
+        return index != null ? index.byTag(normalName) : null;
+    }
 }
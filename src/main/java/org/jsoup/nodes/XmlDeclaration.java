@@ -37,6 +37,10 @@ public class XmlDeclaration extends LeafNode {
         return coreValue();
     }
 
+    boolean isDeclaration() {
+        return isDeclaration;
+    }
+
     /**
      * Get the unencoded XML declaration.
      * @return XML declaration
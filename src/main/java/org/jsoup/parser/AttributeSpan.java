@@ -0,0 +1,70 @@
+package org.jsoup.parser;
+
+import org.jsoup.nodes.Attributes;
+import org.jspecify.annotations.Nullable;
+
+import java.util.function.Supplier;
+
+/**
+ The retained source of a start tag's attributes, in lazy attribute mode. Held by the element's pending Attributes, and
+ parsed when they are first used.
+ @see Parser#setLazyAttributes(boolean)
+ */
+final class AttributeSpan implements Supplier<Attributes> {
+    private final Source source;
+    private final int start;
+    private final int end;
+
+    AttributeSpan(Source source, int start, int end) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     The input and settings shared by the spans of a parse. The attributes of foreign (SVG and MathML) elements preserve
+     case, so have their own source. Doesn't hold the parser, which would keep its tree builder, and so the last
+     document it built, reachable from every lazily parsed document.
+     */
+    static final class Source {
+        final String input;
+        final @Nullable InternPool internPool;
+        final ParseSettings settings;
+        final boolean normalize;
+
+        Source(String input, @Nullable InternPool internPool, ParseSettings settings, boolean normalize) {
+            this.input = input;
+            this.internPool = internPool;
+            this.settings = settings;
+            this.normalize = normalize;
+        }
+    }
+
+    /**
+     Parses the attributes, by running the tokeniser's attribute states over the span, then normalizing and
+     deduplicating them as the tree builder would have when creating the element.
+     */
+    @Override public Attributes get() {
+        HtmlTreeBuilder tb = new HtmlTreeBuilder(); // not initialised for a parse; just carries what the tokeniser uses
+        tb.settings = source.settings;
+        tb.tagSet = TagSet.Html(); // not the parser's, which pools keys in a HashMap under its lock while parsing
+        tb.internPool = source.internPool;
+        CharacterReader reader = new CharacterReader(source.input.substring(start, end));
+        tb.reader = reader;
+        Tokeniser tokeniser = Tokeniser.borrow(tb, ParseErrorList.noTracking()); // errors aren't tracked in lazy mode
+        try {
+            tokeniser.createTagPending(true).appendTagName("span"); // a placeholder; only the attributes are used
+            tokeniser.transition(TokeniserState.BeforeAttributeName);
+            Token.Tag tag = (Token.Tag) tokeniser.read();
+            Attributes attributes = tag.attributes;
+            assert attributes != null; // spans are only retained for tags with attributes
+            if (source.normalize)
+                tb.settings.normalizeAttributes(attributes);
+            attributes.deduplicate(tb.settings);
+            return attributes;
+        } finally {
+            tokeniser.release();
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,535 @@
+package org.jsoup.parser;
+
+import org.jsoup.helper.DataUtil;
+import org.jsoup.helper.Validate;
+import org.jsoup.nodes.Document;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ Parses a batch of documents in parallel. Inputs are read lazily from an Iterator or Stream and submitted to an
+ executor, with at most {@link #maxInFlight(int)} parses pending at once, so a very large (or unbounded) batch can be
+ processed in bounded memory: a new input is only taken once the caller has consumed an earlier result.
+ <p>Results are returned either in input order (the default), or as each parse completes. A failure to read or parse
+ one input is reported in its {@link Result}, and does not stop the rest of the batch.</p>
+ <pre>{@code
+ BatchParser batch = new BatchParser(Parser.htmlParser()).threads(8);
+ try (BatchParser.Results results = batch.parse(paths.stream().map(BatchParser.Input::of))) {
+     while (results.hasNext()) {
+         BatchParser.Result result = results.next();
+         if (result.isSuccess()) index(result.document());
+         else log(result.input(), result.error());
+     }
+ }
+ }</pre>
+ <p>By default, the batch runs on its own pool of {@link #threads(int)} platform threads, which is shut down when the
+ batch completes. Each thread reuses its parse buffers between documents. Alternatively, run on {@link
+ #virtualThreads(boolean) virtual threads} (Java 21+), or supply your own {@link #executor(ExecutorService)}.</p>
+ <p>The supplied Parser is used as a template; each concurrent parse uses its own {@link Parser#newInstance()} copy.
+ A BatchParser may be reused for multiple batches, but its configuration should not be changed while a batch is
+ running.</p>
+
+ @since 1.23.1
+ */
+public final class BatchParser {
+    private static final int DefaultThreads = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final @Nullable Method VirtualExecutor = findVirtualExecutor();
+
+    private final Parser parser;
+    private @Nullable ExecutorService executor;
+    private int threads = DefaultThreads;
+    private int maxInFlight = -1; // -1: derived from the thread count
+    private boolean ordered = true;
+    private boolean virtualThreads = false;
+
+    /**
+     Create a new BatchParser.
+     @param parser the template parser (e.g. {@link Parser#htmlParser()} or {@link Parser#xmlParser()}), including its
+     settings.
+     */
+    public BatchParser(Parser parser) {
+        Validate.notNull(parser);
+        this.parser = parser;
+    }
+
+    /**
+     Set the number of threads in the default pool. Ignored if an {@link #executor(ExecutorService)} is set, or when
+     using virtual threads. Defaults to the number of available processors.
+     @param threads the number of parse threads
+     @return this, for chaining
+     */
+    public BatchParser threads(int threads) {
+        Validate.isTrue(threads > 0, "threads must be > 0");
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     Run each parse on a new virtual thread, if supported by this JVM (Java 21+). If virtual threads are not
+     available, the default pool of platform threads is used. Virtual threads do not pool parse buffers between
+     documents, so are most useful when inputs are slow to read (e.g. from a network file system); for CPU bound
+     parsing of local inputs, the default pool is typically faster.
+     @param virtualThreads true to use virtual threads
+     @return this, for chaining
+     @see #maxInFlight(int)
+     */
+    public BatchParser virtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        return this;
+    }
+
+    /**
+     Test if virtual threads are supported by this JVM.
+     @return true if {@link #virtualThreads(boolean)} can be used
+     */
+    public static boolean virtualThreadsSupported() {
+        return VirtualExecutor != null;
+    }
+
+    /**
+     Run the parses on the supplied executor, instead of a pool owned by this batch. The executor is not shut down
+     when the batch completes.
+     @param executor the executor to run each parse on, or {@code null} to revert to the default pool
+     @return this, for chaining
+     */
+    public BatchParser executor(@Nullable ExecutorService executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     Set the maximum number of inputs that may be submitted for parsing but not yet consumed by the caller. This bounds
+     the memory held by pending inputs and parsed documents, and the number of concurrent parses. Defaults to twice the
+     thread count.
+     @param maxInFlight the maximum number of pending parses
+     @return this, for chaining
+     */
+    public BatchParser maxInFlight(int maxInFlight) {
+        Validate.isTrue(maxInFlight > 0, "maxInFlight must be > 0");
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     Set whether results are returned in input order (the default), or in the order that each parse completes. When
+     ordered, a slow input holds back the results after it (though up to {@link #maxInFlight(int)} inputs continue to
+     be parsed in the meantime).
+     @param ordered true to return results in input order; false to return them as they complete
+     @return this, for chaining
+     */
+    public BatchParser ordered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    /**
+     Start parsing a batch of inputs. Inputs are taken from the iterator as capacity allows, and the returned
+     Results must be consumed (or closed) to progress the batch.
+     @param inputs the inputs to parse
+     @return the Results iterator
+     */
+    public Results parse(Iterator<? extends Input> inputs) {
+        Validate.notNull(inputs);
+        return new Results(inputs);
+    }
+
+    /**
+     Start parsing a batch of inputs.
+     @param inputs the inputs to parse
+     @return the Results iterator
+     @see #parse(Iterator)
+     */
+    public Results parse(Iterable<? extends Input> inputs) {
+        Validate.notNull(inputs);
+        return parse(inputs.iterator());
+    }
+
+    /**
+     Start parsing a batch of inputs. The input stream is closed when the Results are closed.
+     @param inputs the inputs to parse
+     @return the Results iterator
+     @see #parse(Iterator)
+     */
+    public Results parse(Stream<? extends Input> inputs) {
+        Validate.notNull(inputs);
+        Results results = parse(inputs.iterator());
+        results.onClose = inputs;
+        return results;
+    }
+
+    /**
+     Parse all the inputs, and wait for the batch to complete.
+     @param inputs the inputs to parse
+     @return the results, in input order (regardless of the {@link #ordered(boolean)} setting)
+     */
+    public List<Result> parseAll(Collection<? extends Input> inputs) {
+        Validate.notNull(inputs);
+        Result[] results = new Result[inputs.size()];
+        try (Results it = parse(inputs.iterator())) {
+            while (it.hasNext()) {
+                Result result = it.next();
+                results[result.index()] = result;
+            }
+        }
+        List<Result> list = new ArrayList<>(results.length);
+        for (Result result : results) list.add(result);
+        return list;
+    }
+
+    private int window() {
+        return maxInFlight > 0 ? maxInFlight : threads * 2;
+    }
+
+    private ExecutorService newExecutor() {
+        if (virtualThreads && VirtualExecutor != null) {
+            try {
+                return (ExecutorService) VirtualExecutor.invoke(null);
+            } catch (Exception ignored) {
+                // fall through to a platform pool
+            }
+        }
+        return Executors.newFixedThreadPool(threads, new DaemonFactory());
+    }
+
+    private static @Nullable Method findVirtualExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (Exception ignored) {
+            return null; // not Java 21+
+        }
+    }
+
+    /**
+     An iterator over the results of a batch parse. Results are not thread-safe, and should be consumed by a single
+     thread. Closing the Results (or exhausting the iterator) cancels any pending parses and shuts down the default
+     executor.
+     <p>If the consuming thread is interrupted while waiting for a result, the batch is closed, and an
+     {@link UncheckedIOException} (wrapping an {@link InterruptedIOException}) is thrown.</p>
+     */
+    public final class Results implements Iterator<Result>, Closeable {
+        private final Iterator<? extends Input> inputs;
+        private final ExecutorService exec;
+        private final boolean ownsExecutor;
+        private final int window;
+        private final ArrayDeque<Future<Result>> pending = new ArrayDeque<>(); // in submission order
+        private final @Nullable ExecutorCompletionService<Result> completions; // when unordered
+        private final ConcurrentLinkedQueue<Parser> idleParsers = new ConcurrentLinkedQueue<>();
+        @Nullable AutoCloseable onClose;
+        private int submitted = 0;
+        private int inFlight = 0;
+        private boolean closed = false;
+
+        Results(Iterator<? extends Input> inputs) {
+            this.inputs = inputs;
+            ExecutorService supplied = executor;
+            ownsExecutor = supplied == null;
+            exec = supplied != null ? supplied : newExecutor();
+            window = window();
+            completions = ordered ? null : new ExecutorCompletionService<>(exec);
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+            if (inFlight > 0) return true;
+            close();
+            return false;
+        }
+
+        @Override
+        public Result next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Result result;
+            try {
+                Future<Result> future = completions != null ? completions.take() : pending.removeFirst();
+                if (completions != null) pending.remove(future);
+                inFlight--;
+                result = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new UncheckedIOException(new InterruptedIOException("Interrupted while waiting for a parse result"));
+            } catch (ExecutionException e) {
+                // parse failures are captured in the Result, so this is an Error; propagate it
+                close();
+                Throwable cause = e.getCause();
+                if (cause instanceof Error) throw (Error) cause;
+                throw new IllegalStateException(cause);
+            }
+            fill(); // keep the executor busy while the caller processes this result
+            return result;
+        }
+
+        /** Submits inputs until the in-flight window is full, or the inputs are exhausted. */
+        private void fill() {
+            while (!closed && inFlight < window && inputs.hasNext()) {
+                Input input = inputs.next();
+                Validate.notNull(input, "Batch inputs must not be null");
+                Task task = new Task(input, submitted++, this);
+                Future<Result> future = completions != null ? completions.submit(task) : exec.submit(task);
+                pending.addLast(future);
+                inFlight++;
+            }
+        }
+
+        Parser borrowParser() {
+            Parser p = idleParsers.poll();
+            return p != null ? p : parser.newInstance();
+        }
+
+        void releaseParser(Parser p) {
+            idleParsers.offer(p);
+        }
+
+        /**
+         Get a Stream over the results. Closing the stream closes these Results.
+         @return a Stream of Results
+         */
+        public Stream<Result> stream() {
+            return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(this, Spliterator.NONNULL | (ordered ? Spliterator.ORDERED : 0)),
+                false).onClose(this::close);
+        }
+
+        /**
+         Cancels any pending parses, and shuts down the default executor. Inputs not yet submitted are not read. Safe to
+         call more than once.
+         */
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            for (Future<Result> future : pending)
+                future.cancel(true);
+            pending.clear();
+            inFlight = 0;
+            idleParsers.clear();
+            if (ownsExecutor) exec.shutdownNow();
+            if (onClose != null) {
+                try {
+                    onClose.close();
+                } catch (Exception ignored) {
+                    // nothing to report; the inputs are no longer needed
+                }
+            }
+        }
+    }
+
+    private static final class Task implements Callable<Result> {
+        private final Input input;
+        private final int index;
+        private final Results results;
+
+        Task(Input input, int index, Results results) {
+            this.input = input;
+            this.index = index;
+            this.results = results;
+        }
+
+        @Override
+        public Result call() {
+            Parser parser = results.borrowParser();
+            try {
+                return new Result(input, index, input.parse(parser), null);
+            } catch (IOException | RuntimeException e) {
+                return new Result(input, index, null, e);
+            } finally {
+                results.releaseParser(parser);
+            }
+        }
+    }
+
+    /**
+     An input to a batch parse: a file, an input stream, or a string.
+     */
+    public static abstract class Input {
+        final String baseUri;
+
+        private Input(String baseUri) {
+            Validate.notNull(baseUri);
+            this.baseUri = baseUri;
+        }
+
+        abstract Document parse(Parser parser) throws IOException;
+
+        /**
+         Get the base URI that the document will be parsed with.
+         @return the base URI
+         */
+        public String baseUri() {
+            return baseUri;
+        }
+
+        /**
+         Create an input from a file. The charset is detected from the content, and the base URI is the file's
+         absolute path. Gzipped files are supported, as in {@link DataUtil#load(Path, String, String, Parser)}.
+         @param path the file to parse
+         @return a new Input
+         */
+        public static Input of(Path path) {
+            Validate.notNull(path);
+            return of(path, null, path.toAbsolutePath().toString());
+        }
+
+        /**
+         Create an input from a file.
+         @param path the file to parse
+         @param charsetName (optional) character set of the file; {@code null} to detect it
+         @param baseUri base URI of the document, to resolve relative links against
+         @return a new Input
+         */
+        public static Input of(Path path, @Nullable String charsetName, String baseUri) {
+            Validate.notNull(path);
+            return new Input(baseUri) {
+                @Override Document parse(Parser parser) throws IOException {
+                    return DataUtil.load(path, charsetName, baseUri, parser);
+                }
+
+                @Override public String toString() {
+                    return path.toString();
+                }
+            };
+        }
+
+        /**
+         Create an input from an InputStream. The stream will be read and closed on a parse thread.
+         @param in the input stream to parse
+         @param charsetName (optional) character set of the stream; {@code null} to detect it
+         @param baseUri base URI of the document, to resolve relative links against
+         @return a new Input
+         */
+        public static Input of(InputStream in, @Nullable String charsetName, String baseUri) {
+            Validate.notNull(in);
+            return new Input(baseUri) {
+                @Override Document parse(Parser parser) throws IOException {
+                    return DataUtil.load(in, charsetName, baseUri, parser);
+                }
+
+                @Override public String toString() {
+                    return baseUri;
+                }
+            };
+        }
+
+        /**
+         Create an input from a String.
+         @param html the HTML (or XML) to parse
+         @param baseUri base URI of the document, to resolve relative links against
+         @return a new Input
+         */
+        public static Input of(String html, String baseUri) {
+            Validate.notNull(html);
+            return new Input(baseUri) {
+                @Override Document parse(Parser parser) {
+                    return parser.parseInput(html, baseUri);
+                }
+
+                @Override public String toString() {
+                    return baseUri;
+                }
+            };
+        }
+    }
+
+    /**
+     The result of parsing one input of a batch: either the parsed Document, or the error that prevented it from being
+     read or parsed.
+     */
+    public static final class Result {
+        private final Input input;
+        private final int index;
+        private final @Nullable Document document;
+        private final @Nullable Exception error;
+
+        Result(Input input, int index, @Nullable Document document, @Nullable Exception error) {
+            this.input = input;
+            this.index = index;
+            this.document = document;
+            this.error = error;
+        }
+
+        /**
+         Get the input that this is the result of.
+         @return the input
+         */
+        public Input input() {
+            return input;
+        }
+
+        /**
+         Get the position of the input in the batch, starting at 0.
+         @return the input index
+         */
+        public int index() {
+            return index;
+        }
+
+        /**
+         Test if the input was successfully parsed.
+         @return true if there is a document; false if there is an error
+         */
+        public boolean isSuccess() {
+            return document != null;
+        }
+
+        /**
+         Get the parsed document.
+         @return the document, or {@code null} if the parse failed
+         */
+        public @Nullable Document document() {
+            return document;
+        }
+
+        /**
+         Get the error that caused the parse to fail; typically an {@link IOException} when reading the input.
+         @return the error, or {@code null} if the parse succeeded
+         */
+        public @Nullable Exception error() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return "Result[" + index + ", " + input + (error != null ? ", " + error : "") + "]";
+        }
+    }
+
+    private static final class DaemonFactory implements ThreadFactory {
+        private static final AtomicInteger PoolNum = new AtomicInteger();
+        private final int pool = PoolNum.incrementAndGet();
+        private final AtomicInteger threadNum = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "jsoup-batch-" + pool + "-" + threadNum.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -28,8 +28,10 @@ public final class CharacterReader implements AutoCloseable {
     static final int RefillPoint = BufferSize / 2;  // when bufPos characters read, refill; visible for testing
     private static final int RewindLimit = 1024;    // the maximum we can rewind. No HTML entities can be larger than this.
 
-    private Reader reader;      // underlying Reader, will be backed by a buffered+controlled input stream, or StringReader
-    private char[] charBuf;     // character buffer we consume from; filled from Reader
+    @Nullable private Reader reader; // underlying Reader, will be backed by a buffered+controlled input stream. Null if reading a String
+    @Nullable private String input;  // if reading a String, the input, copied directly into charBuf on buffer up
+    private int inputPos;       // if reading a String, the next position in the input to copy from
+    private char[] charBuf;     // character buffer we consume from; filled from Reader or String
     private int bufPos;         // position in charBuf that's been consumed to
     private int bufLength;      // the num of characters actually buffered in charBuf, <= charBuf.length
     private int fillPoint = 0;  // how far into the charBuf we read before re-filling. 0.5 of charBuf.length after bufferUp
@@ -47,27 +49,52 @@ public final class CharacterReader implements AutoCloseable {
 
     public CharacterReader(Reader input) {
         Validate.notNull(input);
-        reader = input;
+        if (input instanceof StringInput)
+            this.input = ((StringInput) input).string;
+        else
+            reader = input;
         charBuf = BufferPool.borrow();
         stringCache = StringPool.borrow();
         bufferUp();
     }
 
+    /**
+     Create a CharacterReader over a String. The buffer is filled directly from the String, without an intermediate
+     Reader.
+     */
     public CharacterReader(String input) {
-        this(new StringReader(input));
+        Validate.notNull(input);
+        this.input = input;
+        charBuf = BufferPool.borrow();
+        stringCache = StringPool.borrow();
+        bufferUp();
+    }
+
+    /**
+     A StringReader that carries its String, so that a CharacterReader can copy directly from the String. Used by the
+     parse(String) methods, which otherwise pass their input through Reader signatures.
+     */
+    static final class StringInput extends StringReader {
+        final String string;
+
+        StringInput(String string) {
+            super(string);
+            this.string = string;
+        }
     }
 
     @Override
     public void close() {
-        if (reader == null)
+        if (charBuf == null)
             return;
         try {
-            reader.close();
+            if (reader != null) reader.close();
         } catch (IOException ignored) {
         } finally {
-            reader = null;
             Arrays.fill(charBuf, (char) 0); // before release, clear the buffer. Not required, but acts as a safety net, and makes debug view clearer
             BufferPool.release(charBuf);
+            reader = null;
+            input = null;
             charBuf = null;
             StringPool.release(stringCache); // conversely, we don't clear the string cache, so we can reuse the contents
             stringCache = null;
@@ -99,6 +126,29 @@ public final class CharacterReader implements AutoCloseable {
         if (bufLength > 0)
             System.arraycopy(charBuf, bufPos, charBuf, 0, bufLength);
         bufPos = 0;
+        if (input != null) {
+            fillFromString(input);
+        } else {
+            fillFromReader();
+        }
+        fillPoint = Math.min(bufLength, RefillPoint);
+
+        scanBufferForNewlines(); // if enabled, we index newline positions for line number tracking
+        lastIcSeq = null; // cache for last containsIgnoreCase(seq)
+    }
+
+    private void fillFromString(String input) {
+        int count = Math.min(input.length() - inputPos, BufferSize - bufLength);
+        input.getChars(inputPos, inputPos + count, charBuf, bufLength);
+        inputPos += count;
+        bufLength += count;
+        if (inputPos == input.length())
+            readFully = true;
+    }
+
+    private void fillFromReader() {
+        Reader reader = this.reader;
+        assert reader != null; // only null when reading a String
         while (bufLength < BufferSize) {
             try {
                 int read = reader.read(charBuf, bufLength, charBuf.length - bufLength);
@@ -114,10 +164,6 @@ public final class CharacterReader implements AutoCloseable {
                 throw new UncheckedIOException(e);
             }
         }
-        fillPoint = Math.min(bufLength, RefillPoint);
-
-        scanBufferForNewlines(); // if enabled, we index newline positions for line number tracking
-        lastIcSeq = null; // cache for last containsIgnoreCase(seq)
     }
 
     void mark() {
@@ -154,6 +200,33 @@ public final class CharacterReader implements AutoCloseable {
         return readFully;
     }
 
+    /**
+     Get the String this reader is reading, if it was created over a String (and not a Reader). Offsets into it match
+     {@link #pos()}.
+     */
+    @Nullable String inputString() {
+        return input;
+    }
+
+    /**
+     Skips ahead to a position in the input String, without reading the skipped characters. Only for String-backed
+     readers, and not while marked.
+     @param pos the position to skip to; must not be before the current position, or beyond the input's length
+     */
+    void skipTo(int pos) {
+        assert input != null && bufMark == -1;
+        Validate.isTrue(pos >= pos() && pos <= input.length());
+        int skip = pos - pos();
+        if (bufPos + skip <= bufLength) {
+            bufPos += skip;
+        } else { // beyond the buffer, so refill from the position; the input wasn't read fully, else it would be buffered
+            consumed = pos;
+            bufPos = bufLength = 0;
+            inputPos = pos;
+            doBufferUp();
+        }
+    }
+
     /**
      Enables or disables line number tracking. By default, will be <b>off</b>.Tracking line numbers improves the
      legibility of parser error messages, for example. Tracking should be enabled before any content is read to be of
@@ -420,12 +493,15 @@ public final class CharacterReader implements AutoCloseable {
         final int start = pos;
         final int remaining = bufLength;
         final char[] val = charBuf;
+        final char max = maxOf(chars);
 
         scan:
         while (pos < remaining) {
             char c = val[pos];
-            for (char seek : chars)
-                if (c == seek) break scan;
+            if (c <= max) {
+                for (char seek : chars)
+                    if (c == seek) break scan;
+            }
             pos++;
         }
 
@@ -442,10 +518,11 @@ public final class CharacterReader implements AutoCloseable {
         final int start = pos;
         final int remaining = bufLength;
         final char[] val = charBuf;
+        final char max = (char) Math.max(c1, c2);
 
         while (pos < remaining) {
             char c = val[pos];
-            if (c == c1 || c == c2) break;
+            if (c <= max && (c == c1 || c == c2)) break;
             pos++;
         }
 
@@ -461,10 +538,11 @@ public final class CharacterReader implements AutoCloseable {
         final int start = pos;
         final int remaining = bufLength;
         final char[] val = charBuf;
+        final char max = (char) Math.max(c1, Math.max(c2, c3));
 
         while (pos < remaining) {
             char c = val[pos];
-            if (c == c1 || c == c2 || c == c3) break;
+            if (c <= max && (c == c1 || c == c2 || c == c3)) break;
             pos++;
         }
 
@@ -478,7 +556,11 @@ public final class CharacterReader implements AutoCloseable {
         final int remaining = bufLength;
         final char[] val = charBuf;
 
-        while (pos < remaining && Arrays.binarySearch(chars, val[pos]) < 0) {
+        final char max = chars[chars.length - 1];
+
+        while (pos < remaining) {
+            char c = val[pos];
+            if (c <= max && Arrays.binarySearch(chars, c) >= 0) break;
             pos++;
         }
 
@@ -512,6 +594,10 @@ public final class CharacterReader implements AutoCloseable {
 
         while (pos < remaining) {
             char c = val[pos];
+            if (c > '>') { // above all the delimiters, so skip the switch; the common case for tag names
+                pos++;
+                continue;
+            }
             switch (c) {
                 case '\t':
                 case '\n':
@@ -562,6 +648,13 @@ public final class CharacterReader implements AutoCloseable {
         return consumeMatching(c -> c >= '0' && c <= '9');
     }
 
+    private static char maxOf(char[] chars) {
+        char max = 0;
+        for (char c : chars)
+            if (c > max) max = c;
+        return max;
+    }
+
     /**
      Complete a scan by moving the reader and returning the matched range.
      */
@@ -0,0 +1,223 @@
+package org.jsoup.parser;
+
+import org.jsoup.helper.Validate;
+import org.jsoup.nodes.Attributes;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.DocumentType;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.parser.CharacterReader.StringInput;
+import org.jsoup.select.NodeVisitor;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.jsoup.parser.Parser.NamespaceHtml;
+
+/**
+ An EventParser provides a SAX-style, event driven parse of its input. As the input is read, the {@link Handler} is
+ called for each start tag, end tag, text run, comment, and doctype, in document order. No Document tree is retained:
+ each node is released as soon as it is closed, so memory use is bounded by the depth of the open elements rather than
+ the size of the input.
+ <p>Events are produced by the regular tree builder, so the same HTML5 error recovery applies as when parsing to a DOM.
+ Elements that the tree builder implies, or that were not placed where they appear in the input, are reported with
+ {@code synthetic} set. That includes implied start and end tags (e.g. {@code <tbody>}, or an unclosed {@code <p>}),
+ reconstructed formatting elements, content that is foster parented out of a table, and elements that are still open
+ at the end of the input (including {@code <body>} and {@code <html>}, which are held open until then). Restructuring
+ by the adoption agency algorithm after a node has been reported is not reported again.</p>
+ <p>Call {@link #stop()} from within a handler to end the parse early, e.g. once the {@code <head>} has been read.</p>
+ <p>An EventParser can be reused for subsequent inputs, but is not thread-safe. As with {@link StreamParser}, it
+ takes over the supplied Parser's tree builder, so use a dedicated Parser (or {@link Parser#newInstance()}) for each.</p>
+ <p>If the input Reader throws an I/O exception during the parse, it will be rethrown as an
+ {@link UncheckedIOException}.</p>
+ @since 1.23.1
+ */
+public class EventParser {
+    /**
+     Receives parse events. All methods have empty defaults, so implement just the ones of interest.
+     */
+    public interface Handler {
+        /**
+         Called when an element is opened.
+         @param name the element's tag name (normalized per the parser's settings)
+         @param attributes the element's attributes. Only valid for the duration of the call; copy what you need.
+         @param synthetic true if the element was implied, reconstructed, or foster parented by the tree builder,
+         rather than appearing at this position in the input
+         */
+        default void startElement(String name, Attributes attributes, boolean synthetic) {}
+
+        /**
+         Called when an element is closed.
+         @param name the element's tag name
+         @param synthetic true if there was no matching end tag in the input (the element was closed implicitly, or at
+         the end of the input)
+         */
+        default void endElement(String name, boolean synthetic) {}
+
+        /**
+         Called for a run of text, including data in script and style elements, and CDATA sections.
+         @param text the unescaped text
+         */
+        default void text(String text) {}
+
+        /**
+         Called for a comment.
+         @param data the comment content
+         */
+        default void comment(String data) {}
+
+        /**
+         Called for a doctype declaration.
+         @param name the doctype name (e.g. {@code html})
+         @param publicId the public identifier, or an empty string
+         @param systemId the system identifier, or an empty string
+         */
+        default void doctype(String name, String publicId, String systemId) {}
+    }
+
+    private final Parser parser;
+    private final TreeBuilder treeBuilder;
+    private final Listener listener = new Listener();
+    private @Nullable Handler handler;
+    private boolean stopped = false;
+
+    /**
+     Construct a new EventParser, using the supplied base Parser.
+     @param parser the configured base parser
+     */
+    public EventParser(Parser parser) {
+        this.parser = parser;
+        treeBuilder = parser.getTreeBuilder();
+        treeBuilder.nodeListener(listener);
+    }
+
+    /**
+     Parse the input, calling the handler for each event until the input is fully read or {@link #stop()} is called.
+     The input Reader is closed when the parse completes.
+     @param input the input to be read
+     @param baseUri the URL of this input, for absolute link resolution
+     @param handler the event handler
+     @throws UncheckedIOException if the Reader errors during a read
+     */
+    public void parse(Reader input, String baseUri, Handler handler) {
+        Validate.notNullParam(handler, "handler");
+        this.handler = handler;
+        stopped = false;
+        listener.reset();
+        treeBuilder.initialiseParse(input, baseUri, parser);
+        try {
+            while (!stopped && treeBuilder.stepParser())
+                listener.release();
+        } finally {
+            treeBuilder.completeParse(); // closes the reader
+            listener.reset();
+            this.handler = null;
+        }
+    }
+
+    /**
+     Parse the input, calling the handler for each event until the input is fully read or {@link #stop()} is called.
+     @param input the input to be read
+     @param baseUri the URL of this input, for absolute link resolution
+     @param handler the event handler
+     */
+    public void parse(String input, String baseUri, Handler handler) {
+        parse(new StringInput(input), baseUri, handler);
+    }
+
+    /**
+     Flags that the parse should be stopped. Called from within a {@link Handler}, no further events will be emitted
+     after the current one.
+     @return this parser
+     */
+    public EventParser stop() {
+        stopped = true;
+        return this;
+    }
+
+    /**
+     Translates the tree builder's node inserts and closes into handler events, and releases the nodes once they are
+     closed.
+     */
+    private final class Listener implements NodeVisitor {
+        // nodes that have been closed during the current step. Released after the step, as the tree builder may still
+        // refer to them (e.g. in the adoption agency) during it
+        private final List<Node> closed = new ArrayList<>();
+        private @Nullable Element lastStarted; // the element created from a start tag in the input, in the current step
+
+        void reset() {
+            closed.clear();
+            lastStarted = null;
+        }
+
+        @Override public void head(Node node, int depth) {
+            Handler handler = EventParser.this.handler;
+            if (stopped || handler == null) return;
+
+            if (node instanceof Element) {
+                if (node == treeBuilder.doc) return;
+                Element el = (Element) node;
+                Token token = treeBuilder.currentToken;
+                boolean fromToken = token.isStartTag() && token.asStartTag().normalName.equals(el.normalName());
+                if (fromToken) lastStarted = el;
+                handler.startElement(el.tagName(), el.attributes(), !fromToken || isFostered(el));
+                return;
+            }
+
+            if (node instanceof TextNode) // includes CDataNode
+                handler.text(((TextNode) node).getWholeText());
+            else if (node instanceof DataNode)
+                handler.text(((DataNode) node).getWholeData());
+            else if (node instanceof Comment)
+                handler.comment(((Comment) node).getData());
+            else if (node instanceof DocumentType) {
+                DocumentType doctype = (DocumentType) node;
+                handler.doctype(doctype.name(), doctype.publicId(), doctype.systemId());
+            }
+            closed.add(node); // leaf nodes are complete as soon as they are inserted
+        }
+
+        @Override public void tail(Node node, int depth) {
+            Handler handler = EventParser.this.handler;
+            if (stopped || handler == null || node == treeBuilder.doc || !(node instanceof Element)) return;
+
+            Element el = (Element) node;
+            Token token = treeBuilder.currentToken;
+            boolean fromToken = token.isEndTag() && token.asEndTag().normalName.equals(el.normalName())
+                || token.isStartTag() && el == lastStarted; // a void or self-closing element, closed by its own start tag
+            handler.endElement(el.tagName(), !fromToken);
+            closed.add(el);
+        }
+
+        /** An element is foster parented if it was not inserted into the element below it on the stack. */
+        private boolean isFostered(Element el) {
+            ArrayList<Element> stack = treeBuilder.stack;
+            int size = stack.size();
+            if (size == 0 || stack.get(size - 1) != el) return false;
+            Element expected = size > 1 ? stack.get(size - 2) : treeBuilder.doc;
+            return el.parent() != expected;
+        }
+
+        /** Detaches the nodes closed in the last step, so that no tree is retained. */
+        void release() {
+            ArrayList<Element> stack = treeBuilder.stack;
+            for (Node node : closed) {
+                if (node instanceof Element) {
+                    Element el = (Element) node;
+                    // the tree builder may return to these (e.g. after content following </body>), so keep their shells
+                    if (el.elementIs("html", NamespaceHtml) || el.elementIs("head", NamespaceHtml) || el.elementIs("body", NamespaceHtml))
+                        continue;
+                    if (stack != null && stack.contains(el)) continue;
+                }
+                if (node.parentNode() != null) node.remove();
+            }
+            closed.clear();
+            lastStarted = null;
+        }
+    }
+}
@@ -1,13 +1,15 @@
 package org.jsoup.parser;
 
 import org.jsoup.internal.StringUtil;
+import org.jsoup.parser.HtmlTreeBuilderState.Constants;
 
 import static org.jsoup.parser.Parser.*;
 
 /**
  Parser-only tag options used by the HTML tree builder.
  <p>These are cached on {@link Tag} so hot stack walks can check an option instead of searching
- the same sorted arrays repeatedly.</p>
+ the same sorted arrays repeatedly. The insertion mode categories (from {@link Constants}) are also resolved once per
+ token, via {@link Token.Tag#hasParserOption(int)}, so that dispatch tests bits rather than searching names.</p>
  */
 final class HtmlTagOptions {
     static final int Scope              = 1;
@@ -18,6 +20,25 @@ final class HtmlTagOptions {
     static final int ImpliedEnd         = 1 << 5;
     static final int ThoroughImpliedEnd = 1 << 6;
     static final int Special            = 1 << 7;
+    // insertion mode categories, for HTML elements and tokens:
+    static final int Formatter          = 1 << 8;  // InBodyEndAdoptionFormatters
+    static final int PCloser            = 1 << 9;  // InBodyStartPClosers
+    static final int HeadContent        = 1 << 10; // InBodyStartToHead
+    static final int Applet             = 1 << 11; // InBodyStartApplets
+    static final int Media              = 1 << 12; // InBodyStartMedia
+    static final int BodyDrop           = 1 << 13; // InBodyStartDrop
+    static final int BodyCloser         = 1 << 14; // InBodyEndClosers
+    static final int LiBreaker          = 1 << 15; // InBodyStartLiBreakers
+    static final int Heading            = 1 << 16; // Headings
+    static final int DdDt               = 1 << 17; // DdDt
+    static final int TableFoster        = 1 << 18; // InTableFoster
+    static final int Cell               = 1 << 19; // InCellNames
+    static final int TableSection       = 1 << 20; // InTableToBody
+    static final int TableAddBody       = 1 << 21; // InTableAddBody
+    static final int TableBodyExit      = 1 << 22; // InTableBodyExit
+    static final int RowExit            = 1 << 23; // InRowMissing
+    static final int CellExit           = 1 << 24; // InCellCol
+    static final int CellTableClose     = 1 << 25; // InCellTable
 
     static final String[] ScopeTags = new String[]{ // a particular element in scope
             "applet", "caption", "html", "marquee", "object", "select", "table", "td", "template", "th"};
@@ -59,6 +80,7 @@ final class HtmlTagOptions {
                 if (StringUtil.inSorted(normalName, ButtonScopeTags))        options |= ButtonScope;
                 if (StringUtil.inSorted(normalName, TableScopeTags))         options |= TableScope;
                 if (StringUtil.inSorted(normalName, SpecialTags))            options |= Special;
+                options |= categoriesFor(normalName);
                 break;
             case NamespaceMathml:
                 if (StringUtil.inSorted(normalName, MathScopeTags))          options |= Scope | Special;
@@ -70,4 +92,27 @@ final class HtmlTagOptions {
 
         return options;
     }
+
+    private static int categoriesFor(String normalName) {
+        int options = 0;
+        if (StringUtil.inSorted(normalName, Constants.InBodyEndAdoptionFormatters)) options |= Formatter;
+        if (StringUtil.inSorted(normalName, Constants.InBodyStartPClosers))         options |= PCloser;
+        if (StringUtil.inSorted(normalName, Constants.InBodyStartToHead))           options |= HeadContent;
+        if (StringUtil.inSorted(normalName, Constants.InBodyStartApplets))          options |= Applet;
+        if (StringUtil.inSorted(normalName, Constants.InBodyStartMedia))            options |= Media;
+        if (StringUtil.inSorted(normalName, Constants.InBodyStartDrop))             options |= BodyDrop;
+        if (StringUtil.inSorted(normalName, Constants.InBodyEndClosers))            options |= BodyCloser;
+        if (StringUtil.inSorted(normalName, Constants.InBodyStartLiBreakers))       options |= LiBreaker;
+        if (StringUtil.inSorted(normalName, Constants.Headings))                    options |= Heading;
+        if (StringUtil.inSorted(normalName, Constants.DdDt))                        options |= DdDt;
+        if (StringUtil.inSorted(normalName, Constants.InTableFoster))               options |= TableFoster;
+        if (StringUtil.inSorted(normalName, Constants.InCellNames))                 options |= Cell;
+        if (StringUtil.inSorted(normalName, Constants.InTableToBody))               options |= TableSection;
+        if (StringUtil.inSorted(normalName, Constants.InTableAddBody))              options |= TableAddBody;
+        if (StringUtil.inSorted(normalName, Constants.InTableBodyExit))             options |= TableBodyExit;
+        if (StringUtil.inSorted(normalName, Constants.InRowMissing))                options |= RowExit;
+        if (StringUtil.inSorted(normalName, Constants.InCellCol))                   options |= CellExit;
+        if (StringUtil.inSorted(normalName, Constants.InCellTable))                 options |= CellTableClose;
+        return options;
+    }
 }
@@ -11,6 +11,7 @@ import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.nodes.FormElement;
 import org.jsoup.nodes.Node;
+import org.jsoup.nodes.NodeInternals;
 import org.jsoup.nodes.TextNode;
 import org.jspecify.annotations.Nullable;
 
@@ -19,8 +20,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.jsoup.internal.StringUtil.inSorted;
-import static org.jsoup.parser.HtmlTreeBuilderState.Constants.Headings;
-import static org.jsoup.parser.HtmlTreeBuilderState.Constants.InTableFoster;
 import static org.jsoup.parser.HtmlTreeBuilderState.ForeignContent;
 import static org.jsoup.parser.Parser.*;
 
@@ -48,7 +47,8 @@ public class HtmlTreeBuilder extends TreeBuilder {
     ArrayList<Element> formattingElements; // active (open) formatting elements
     private ArrayList<HtmlTreeBuilderState> tmplInsertMode; // stack of Template Insertion modes
     private List<Token.Character> pendingTableCharacters; // chars in table to be shifted out
-    private Token.EndTag emptyEnd; // reused empty end tag
+    private final Token.EndTag emptyEnd = new Token.EndTag(); // reused empty end tag
+    private AttributeSpan.@Nullable Source htmlSpans, foreignSpans; // in lazy attribute mode, shared by the parse's spans
 
     private boolean framesetOk; // if ok to go into frameset
     private boolean fosterInserts; // if next inserts should be fostered
@@ -77,7 +77,8 @@ public class HtmlTreeBuilder extends TreeBuilder {
         formattingElements = new ArrayList<>();
         tmplInsertMode = new ArrayList<>();
         pendingTableCharacters = new ArrayList<>();
-        emptyEnd = new Token.EndTag(this);
+        emptyEnd.bind(this);
+        htmlSpans = foreignSpans = null;
         framesetOk = true;
         fosterInserts = false;
         fragmentParsing = false;
@@ -290,6 +291,9 @@ public class HtmlTreeBuilder extends TreeBuilder {
                 error("Dropped duplicate attribute(s) in tag [%s]", startTag.normalName);
             }
             startTag.finaliseAttributeRanges(forcePreserveCase ? ParseSettings.preserveCase : settings);
+        } else if (startTag.hasAttributeSpan()) {
+            attributes = NodeInternals.lazyAttributes(
+                new AttributeSpan(spanSource(forcePreserveCase), startTag.attrSpanStart, startTag.attrSpanEnd));
         }
 
         Tag tag = tagFor(startTag.name(), startTag.normalName, namespace,
@@ -300,6 +304,33 @@ public class HtmlTreeBuilder extends TreeBuilder {
             new Element(tag, null, attributes);
     }
 
+    private AttributeSpan.Source spanSource(boolean foreign) {
+        if (foreign) {
+            if (foreignSpans == null)
+                foreignSpans = new AttributeSpan.Source(reader.inputString(), parser.internPool(), settings, false);
+            return foreignSpans;
+        }
+        if (htmlSpans == null)
+            htmlSpans = new AttributeSpan.Source(reader.inputString(), parser.internPool(), settings, true);
+        return htmlSpans;
+    }
+
+    /**
+     Tests if the tree builder reads the attributes of a start tag with this name as it processes the token (not just
+     from the created element), so they must be parsed eagerly in lazy attribute mode.
+     */
+    static boolean readsTagAttributes(String normalName) {
+        switch (normalName) {
+            case "html": // merged onto the existing element
+            case "body":
+            case "input": // type=hidden in tables
+            case "font": // breaks out of foreign content with color, face, or size
+                return true;
+            default:
+                return false;
+        }
+    }
+
     /** Inserts an HTML element for the given tag */
     Element insertElementFor(final Token.StartTag startTag) {
         Element el = createElementFor(startTag, NamespaceHtml, false);
@@ -371,6 +402,13 @@ public class HtmlTreeBuilder extends TreeBuilder {
     private void doInsertElement(Element el) {
         enforceStackDepthLimit();
 
+        boolean foster = isFosterInserts() && currentElement().tag().hasParserOption(HtmlTagOptions.TableFoster);
+        if (isSkipped(foster ? fosterTarget() : currentElement())) {
+            skip(el);
+            push(el); // kept on the stack for tree construction, but not added to the document
+            return;
+        }
+
         if (formElement != null && el.tag().namespace.equals(NamespaceHtml) && StringUtil.inSorted(el.normalName(), TagFormListed))
             formElement.addElement(el); // connect form controls to their form element
 
@@ -378,17 +416,19 @@ public class HtmlTreeBuilder extends TreeBuilder {
         if (parser.getErrors().canAddError() && el.hasAttr("xmlns") && !el.attr("xmlns").equals(el.tag().namespace()))
             error("Invalid xmlns attribute [%s] on tag [%s]", el.attr("xmlns"), el.tagName());
 
-        if (isFosterInserts() && StringUtil.inSorted(currentElement().normalName(), InTableFoster))
+        if (foster)
             insertInFosterParent(el);
         else
-            currentElement().appendChild(el);
+            NodeInternals.appendChild(currentElement(), el);
 
+        filterInserted(el);
         push(el);
     }
 
     void insertCommentNode(Token.Comment token) {
+        if (isSkipped(currentElement())) return;
         Comment node = new Comment(token.getData());
-        currentElement().appendChild(node);
+        NodeInternals.appendChild(currentElement(), node);
         onNodeInserted(node);
     }
 
@@ -412,6 +452,7 @@ public class HtmlTreeBuilder extends TreeBuilder {
 
     /** Inserts the provided character token into the provided element. */
     void insertCharacterToElement(Token.Character characterToken, Element el) {
+        if (isSkipped(el)) return;
         final Node node;
         final String data = characterToken.getData();
 
@@ -421,7 +462,7 @@ public class HtmlTreeBuilder extends TreeBuilder {
             node = new DataNode(data);
         else
             node = new TextNode(data);
-        el.appendChild(node); // doesn't use insertNode, because we don't foster these; and will always have a stack.
+        NodeInternals.appendChild(el, node); // doesn't use insertNode, because we don't foster these; and will always have a stack.
         onNodeInserted(node);
     }
 
@@ -470,7 +511,7 @@ public class HtmlTreeBuilder extends TreeBuilder {
             Element next = stack.get(pos);
             if (next == el) {
                 stack.remove(pos);
-                onNodeClosed(el);
+                closed(el);
                 return true;
             }
         }
@@ -704,7 +745,7 @@ public class HtmlTreeBuilder extends TreeBuilder {
         for (int pos = stack.size() - 1; pos >= 0; pos--) {
             Element el = stack.get(pos);
             Tag tag = el.tag();
-            if (NamespaceHtml.equals(tag.namespace()) && inSorted(el.normalName(), Headings))
+            if (tag.hasParserOption(HtmlTagOptions.Heading))
                 return true;
             if (tag.hasParserOption(HtmlTagOptions.Scope))
                 return false;
@@ -983,6 +1024,13 @@ public class HtmlTreeBuilder extends TreeBuilder {
         formattingElements.add(null);
     }
 
+    /** The element on the stack that foster parented content is inserted into (or before the table of). */
+    private Element fosterTarget() {
+        Element lastTable = getFromStack("table");
+        Element above = lastTable != null ? aboveOnStack(lastTable) : null;
+        return above != null ? above : stack.get(0);
+    }
+
     void insertInFosterParent(Node in) {
         Element fosterParent;
         Element lastTable = getFromStack("table");
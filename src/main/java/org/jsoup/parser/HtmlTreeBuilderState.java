@@ -247,7 +247,7 @@ enum HtmlTreeBuilderState {
                 } else if (name.equals("frameset")) {
                     tb.insertElementFor(startTag);
                     tb.transition(InFrameset);
-                } else if (inSorted(name, InBodyStartToHead)) {
+                } else if (startTag.hasParserOption(HtmlTagOptions.HeadContent)) {
                     tb.error(this);
                     Element head = tb.getHeadElement();
                     tb.push(head);
@@ -359,7 +359,7 @@ enum HtmlTreeBuilderState {
                             tb.processEndTag("li");
                             break;
                         }
-                        if (isSpecial(el) && !inSorted(el.normalName(), Constants.InBodyStartLiBreakers))
+                        if (isSpecial(el) && !el.tag().hasParserOption(HtmlTagOptions.LiBreaker))
                             break;
                     }
                     if (tb.inButtonScope("p")) {
@@ -525,7 +525,7 @@ enum HtmlTreeBuilderState {
                     if (tb.inButtonScope("p")) {
                         tb.processEndTag("p");
                     }
-                    if (inSorted(tb.currentElement().normalName(), Constants.Headings)) {
+                    if (tb.currentElement().tag().hasParserOption(HtmlTagOptions.Heading)) {
                         tb.error(this);
                         tb.pop();
                     }
@@ -550,11 +550,11 @@ enum HtmlTreeBuilderState {
                     final int upper = bottom >= MaxStackScan ? bottom - MaxStackScan : 0;
                     for (int i = bottom; i >= upper; i--) {
                         el = stack.get(i);
-                        if (inSorted(el.normalName(), Constants.DdDt)) {
+                        if (el.tag().hasParserOption(HtmlTagOptions.DdDt)) {
                             tb.processEndTag(el.normalName());
                             break;
                         }
-                        if (isSpecial(el) && !inSorted(el.normalName(), Constants.InBodyStartLiBreakers))
+                        if (isSpecial(el) && !el.tag().hasParserOption(HtmlTagOptions.LiBreaker))
                             break;
                     }
                     if (tb.inButtonScope("p")) {
@@ -626,19 +626,19 @@ enum HtmlTreeBuilderState {
                         HandleTextState(startTag, tb, textState);
                     } else if (!tag.isKnownTag()) { // no other special rules for custom tags
                         tb.insertElementFor(startTag);
-                    } else if (inSorted(name, Constants.InBodyStartPClosers)) {
+                    } else if (tag.hasParserOption(HtmlTagOptions.PCloser)) {
                         if (tb.inButtonScope("p")) tb.processEndTag("p");
                         tb.insertElementFor(startTag);
-                    } else if (inSorted(name, Constants.InBodyStartToHead)) {
+                    } else if (tag.hasParserOption(HtmlTagOptions.HeadContent)) {
                         return tb.process(t, InHead);
-                    } else if (inSorted(name, Constants.InBodyStartApplets)) {
+                    } else if (tag.hasParserOption(HtmlTagOptions.Applet)) {
                         tb.reconstructFormattingElements();
                         tb.insertElementFor(startTag);
                         tb.insertMarkerToFormattingElements();
                         tb.framesetOk(false);
-                    } else if (inSorted(name, Constants.InBodyStartMedia)) {
+                    } else if (tag.hasParserOption(HtmlTagOptions.Media)) {
                         tb.insertEmptyElementFor(startTag);
-                    } else if (inSorted(name, Constants.InBodyStartDrop)) {
+                    } else if (tag.hasParserOption(HtmlTagOptions.BodyDrop)) {
                         tb.error(this);
                         return false;
                     } else {
@@ -764,9 +764,9 @@ enum HtmlTreeBuilderState {
                     return false;
                 default:
                     // todo - move rest to switch if desired
-                    if (inSorted(name, Constants.InBodyEndAdoptionFormatters)) {
+                    if (endTag.hasParserOption(HtmlTagOptions.Formatter)) {
                         return inBodyEndTagAdoption(t, tb);
-                    } else if (inSorted(name, Constants.InBodyEndClosers)) {
+                    } else if (endTag.hasParserOption(HtmlTagOptions.BodyCloser)) {
                         if (!tb.inScope(name)) {
                             // nothing to close
                             tb.error(this);
@@ -777,7 +777,7 @@ enum HtmlTreeBuilderState {
                                 tb.error(this);
                             tb.popStackToClose(name);
                         }
-                    } else if (inSorted(name, Constants.InBodyStartApplets)) {
+                    } else if (endTag.hasParserOption(HtmlTagOptions.Applet)) {
                         if (!tb.inScope("name")) {
                             if (!tb.inScope(name)) {
                                 tb.error(this);
@@ -949,6 +949,7 @@ enum HtmlTreeBuilderState {
                         break; // exit inner loop; proceed with step 14 using current lastEl
                     }
                     Element replacement = new Element(tb.tagFor(el.nodeName(), el.normalName(), tb.defaultNamespace(), ParseSettings.preserveCase), tb.getBaseUri());
+                    tb.cloned(el, replacement);
                     tb.replaceActiveFormattingElement(el, replacement);
                     tb.replaceOnStack(el, replacement);
                     el = replacement;
@@ -957,23 +958,24 @@ enum HtmlTreeBuilderState {
                     if (lastEl == furthestBlock) {
                         bookmark = tb.positionOfElement(el) + 1;
                     }
-                    el.appendChild(lastEl); // 8. [Append] lastNode to node.
+                    tb.adopt(el, lastEl); // 8. [Append] lastNode to node.
                     lastEl = el; // 9. Set lastNode to node.
                 } // end inner loop # 13
 
                 // 14. Insert whatever lastNode ended up being in the previous step at the [appropriate place for inserting a node], but using commonAncestor as the _override target_.
                 // todo - impl https://html.spec.whatwg.org/multipage/parsing.html#appropriate-place-for-inserting-a-node fostering
                 // just use commonAncestor as target:
-                commonAncestor.appendChild(lastEl);
+                tb.adopt(commonAncestor, lastEl);
                 // 15. [Create an element for the token] for which formattingElement was created, in the [HTML namespace], with furthestBlock as the intended parent.
                 Element adoptor = new Element(formatEl.tag(), tb.getBaseUri());
                 adoptor.attributes().addAll(formatEl.attributes()); // also attributes
+                tb.cloned(formatEl, adoptor);
                 // 16. Take all of the child nodes of furthestBlock and append them to the element created in the last step.
                 for (Node child : furthestBlock.childNodes()) {
-                    adoptor.appendChild(child);
+                    tb.adopt(adoptor, child);
                 }
 
-                furthestBlock.appendChild(adoptor); // 17. Append that new element to furthestBlock.
+                tb.adopt(furthestBlock, adoptor); // 17. Append that new element to furthestBlock.
                 // 18. Remove formattingElement from the [list of active formatting elements], and insert the new element into the [list of active formatting elements] at the position of the aforementioned bookmark.
                 tb.removeFromActiveFormattingElements(formatEl);
                 tb.pushWithBookmark(adoptor, bookmark);
@@ -1006,7 +1008,7 @@ enum HtmlTreeBuilderState {
     },
     InTable {
         @Override boolean process(Token t, HtmlTreeBuilder tb) {
-            if (t.isCharacter() && inSorted(tb.currentElement().normalName(), InTableFoster)) {
+            if (t.isCharacter() && tb.currentElement().tag().hasParserOption(HtmlTagOptions.TableFoster)) {
                 tb.resetPendingTableCharacters();
                 tb.markInsertionMode();
                 tb.transition(InTableText);
@@ -1033,11 +1035,11 @@ enum HtmlTreeBuilderState {
                     tb.clearStackToTableContext();
                     tb.processStartTag("colgroup");
                     return tb.process(t);
-                } else if (inSorted(name, InTableToBody)) {
+                } else if (startTag.hasParserOption(HtmlTagOptions.TableSection)) {
                     tb.clearStackToTableContext();
                     tb.insertElementFor(startTag);
                     tb.transition(InTableBody);
-                } else if (inSorted(name, InTableAddBody)) {
+                } else if (startTag.hasParserOption(HtmlTagOptions.TableAddBody)) {
                     tb.clearStackToTableContext();
                     tb.processStartTag("tbody");
                     return tb.process(t);
@@ -1123,7 +1125,7 @@ enum HtmlTreeBuilderState {
                         if (!isWhitespace(c)) {
                             // InTable anything else section:
                             tb.error(this);
-                            if (inSorted(tb.currentElement().normalName(), InTableFoster)) {
+                            if (tb.currentElement().tag().hasParserOption(HtmlTagOptions.TableFoster)) {
                                 tb.setFosterInserts(true);
                                 tb.process(c, InBody);
                                 tb.setFosterInserts(false);
@@ -1156,7 +1158,7 @@ enum HtmlTreeBuilderState {
                     tb.transition(InTable);
                 }
             } else if ((
-                    t.isStartTag() && inSorted(t.asStartTag().normalName(), InCellCol) ||
+                    t.isStartTag() && t.asStartTag().hasParserOption(HtmlTagOptions.CellExit) ||
                             t.isEndTag() && t.asEndTag().normalName().equals("table"))
                     ) {
                 // same as above but processes after transition
@@ -1261,11 +1263,11 @@ enum HtmlTreeBuilderState {
                         tb.clearStackToTableBodyContext();
                         tb.insertElementFor(startTag);
                         tb.transition(InRow);
-                    } else if (inSorted(name, InCellNames)) {
+                    } else if (startTag.hasParserOption(HtmlTagOptions.Cell)) {
                         tb.error(this);
                         tb.processStartTag("tr");
                         return tb.process(startTag);
-                    } else if (inSorted(name, InTableBodyExit)) {
+                    } else if (startTag.hasParserOption(HtmlTagOptions.TableBodyExit)) {
                         return exitTableBody(t, tb);
                     } else
                         return anythingElse(t, tb);
@@ -1273,7 +1275,7 @@ enum HtmlTreeBuilderState {
                 case EndTag:
                     Token.EndTag endTag = t.asEndTag();
                     name = endTag.normalName();
-                    if (inSorted(name, InTableEndIgnore)) {
+                    if (endTag.hasParserOption(HtmlTagOptions.TableSection)) { // tbody, tfoot, thead
                         if (!tb.inTableScope(name)) {
                             tb.error(this);
                             return false;
@@ -1317,12 +1319,12 @@ enum HtmlTreeBuilderState {
                 Token.StartTag startTag = t.asStartTag();
                 String name = startTag.normalName();
 
-                if (inSorted(name, InCellNames)) { // td, th
+                if (startTag.hasParserOption(HtmlTagOptions.Cell)) { // td, th
                     tb.clearStackToTableRowContext();
                     tb.insertElementFor(startTag);
                     tb.transition(InCell);
                     tb.insertMarkerToFormattingElements();
-                } else if (inSorted(name, InRowMissing)) { // "caption", "col", "colgroup", "tbody", "tfoot", "thead", "tr"
+                } else if (startTag.hasParserOption(HtmlTagOptions.RowExit)) { // "caption", "col", "colgroup", "tbody", "tfoot", "thead", "tr"
                     if (!tb.inTableScope("tr")) {
                         tb.error(this);
                         return false;
@@ -1355,7 +1357,7 @@ enum HtmlTreeBuilderState {
                     tb.pop(); // tr
                     tb.transition(InTableBody);
                     return tb.process(t);
-                } else if (inSorted(name, InTableToBody)) { // "tbody", "tfoot", "thead"
+                } else if (endTag.hasParserOption(HtmlTagOptions.TableSection)) { // "tbody", "tfoot", "thead"
                     if (!tb.inTableScope(name)) {
                         tb.error(this);
                         return false;
@@ -1390,7 +1392,7 @@ enum HtmlTreeBuilderState {
                 Token.EndTag endTag = t.asEndTag();
                 String name = endTag.normalName();
 
-                if (inSorted(name, Constants.InCellNames)) { // td, th
+                if (endTag.hasParserOption(HtmlTagOptions.Cell)) { // td, th
                     if (!tb.inTableScope(name)) {
                         tb.error(this);
                         tb.transition(InRow); // might not be in scope if empty: <td /> and processing fake end tag
@@ -1405,7 +1407,7 @@ enum HtmlTreeBuilderState {
                 } else if (inSorted(name, Constants.InCellBody)) {
                     tb.error(this);
                     return false;
-                } else if (inSorted(name, Constants.InCellTable)) {
+                } else if (endTag.hasParserOption(HtmlTagOptions.CellTableClose)) {
                     if (!tb.inTableScope(name)) {
                         tb.error(this);
                         return false;
@@ -1416,7 +1418,7 @@ enum HtmlTreeBuilderState {
                     return anythingElse(t, tb);
                 }
             } else if (t.isStartTag() &&
-                    inSorted(t.asStartTag().normalName(), Constants.InCellCol)) {
+                    t.asStartTag().hasParserOption(HtmlTagOptions.CellExit)) {
                 if (!(tb.inTableScope("td") || tb.inTableScope("th"))) {
                     tb.error(this);
                     return false;
@@ -1934,7 +1936,6 @@ enum HtmlTreeBuilderState {
         static final String[] InRowIgnore = new String[]{"body", "caption", "col", "colgroup", "html", "td", "th"};
         static final String[] InSelectEnd = new String[]{"input", "keygen", "textarea"};
         static final String[] InSelectTableEnd = new String[]{"caption", "table", "tbody", "td", "tfoot", "th", "thead", "tr"};
-        static final String[] InTableEndIgnore = new String[]{"tbody", "tfoot", "thead"};
         static final String[] InHeadNoscriptIgnore = new String[]{"head", "noscript"};
         static final String[] InCaptionIgnore = new String[]{"body", "col", "colgroup", "html", "tbody", "td", "tfoot", "th", "thead", "tr"};
         static final String[] InTemplateToHead = new String[] {"base", "basefont", "bgsound", "link", "meta", "noframes", "script", "style", "template", "title"};
@@ -0,0 +1,162 @@
+package org.jsoup.parser;
+
+import org.jsoup.helper.Validate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ A bounded, thread-safe pool of Strings, that can be shared by parsers so that the tag names, attribute names, and
+ short attribute values of parsed documents share String instances, rather than each document holding its own copies.
+ That can substantially reduce the memory used by applications that retain many parsed documents.
+ <p>Attach a pool to a parser with {@link Parser#internPool(InternPool)}. The same pool may be used by many parsers,
+ concurrently.</p>
+ <p>The pool is a fixed size cache and not a canonical map: when two Strings contend for the same slot, the earlier is
+ evicted, so an interned String is equal to, but not necessarily the same instance as, one interned earlier. Strings
+ longer than the pool's max length are not pooled.</p>
+ @since 1.23.1
+ */
+public final class InternPool {
+    /** The default capacity, in Strings. */
+    public static final int DefaultCapacity = 4096;
+    /** The default max length of a pooled String. */
+    public static final int DefaultMaxLength = 32;
+
+    private final AtomicReferenceArray<String> table;
+    private final int mask;
+    private final int maxLength;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     Create a new pool, with the default capacity and max length.
+     */
+    public InternPool() {
+        this(DefaultCapacity, DefaultMaxLength);
+    }
+
+    /**
+     Create a new pool.
+     @param capacity the maximum number of Strings to hold; rounded up to a power of two
+     @param maxLength the maximum length of a String to pool; longer Strings are returned as-is
+     */
+    public InternPool(int capacity, int maxLength) {
+        Validate.isTrue(capacity >= 2 && capacity <= 1 << 24, "capacity must be between 2 and 16777216");
+        Validate.isTrue(maxLength >= 1, "maxLength must be >= 1");
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        table = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     Get the pooled instance of a String, adding it to the pool if it is not present.
+     @param s the String to intern
+     @return an equal String; the pooled instance if there is one, or {@code s}
+     */
+    public String intern(String s) {
+        if (s.length() > maxLength) return s;
+        int hash = s.hashCode();
+        int i = (hash ^ (hash >>> 16)) & mask;
+        int j = i ^ 1; // each String may sit in either slot of a pair, so that two popular Strings can share a bucket
+
+        String pooled = table.get(i);
+        if (pooled != null && pooled.equals(s)) {
+            hits.incrementAndGet();
+            return pooled;
+        }
+        String other = table.get(j);
+        if (other != null && other.equals(s)) {
+            hits.incrementAndGet();
+            return other;
+        }
+
+        // miss: put into the empty slot, or displace the older String in j. Racing writers may lose an entry, but never
+        // return an unequal String, so no locking is needed
+        misses.incrementAndGet();
+        if (pooled == null) {
+            table.set(i, s);
+        } else {
+            table.set(j, pooled);
+            table.set(i, s);
+        }
+        return s;
+    }
+
+    /**
+     Get the max length of a String that this pool will hold.
+     @return the max length
+     */
+    public int maxLength() {
+        return maxLength;
+    }
+
+    /**
+     Get the capacity of this pool.
+     @return the maximum number of Strings held
+     */
+    public int capacity() {
+        return table.length();
+    }
+
+    /**
+     Get the number of Strings currently pooled. This counts the pool's slots, so is relatively slow.
+     @return the number of Strings in the pool
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < table.length(); i++) {
+            if (table.get(i) != null) size++;
+        }
+        return size;
+    }
+
+    /**
+     Get the number of interned Strings that were found in the pool.
+     @return the hit count
+     */
+    public long hitCount() {
+        return hits.get();
+    }
+
+    /**
+     Get the number of interned Strings that were not found in the pool, and so were added to it. Strings longer than
+     the max length are not counted.
+     @return the miss count
+     */
+    public long missCount() {
+        return misses.get();
+    }
+
+    /**
+     Get the ratio of hits to lookups.
+     @return the hit rate, between 0 and 1; or 0 if there have been no lookups
+     */
+    public double hitRate() {
+        long hits = hitCount();
+        long total = hits + missCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     Reset the hit and miss counts.
+     */
+    public void resetStats() {
+        hits.set(0);
+        misses.set(0);
+    }
+
+    /**
+     Remove all Strings from the pool. The stats are retained.
+     */
+    public void clear() {
+        for (int i = 0; i < table.length(); i++)
+            table.set(i, null);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InternPool[capacity=%d, maxLength=%d, hits=%d, misses=%d]",
+            capacity(), maxLength, hitCount(), missCount());
+    }
+}
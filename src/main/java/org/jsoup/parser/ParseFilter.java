@@ -0,0 +1,42 @@
+package org.jsoup.parser;
+
+import org.jsoup.nodes.Element;
+
+/**
+ A parse-time filter, set with {@link Parser#parseFilter(ParseFilter)}, which decides as each element is inserted
+ whether to keep it and its content, skip its content or the whole subtree, or stop the parse.
+ <p>A skipped subtree is still read by the tokeniser and run through the tree builder, so that the HTML5 tree
+ construction rules (implied end tags, scoping, table foster parenting) apply to the rest of the document as they
+ would without the filter; but its text and comment nodes are not created, and its elements are not added to the
+ Document. That makes it efficient for targeted extraction, e.g. of just the {@code <head>} and {@code <article>}, from
+ pages with large navigation, script, SVG, or footer sections.</p>
+ <p>Content that the tree builder places outside a skipped subtree is kept, e.g. content foster parented out of a
+ skipped {@code <table>}. Formatting elements that are reconstructed from a skipped element (e.g. a {@code <b>}
+ continued into a following paragraph) are passed to the filter again.</p>
+ <p>The filter is called only for elements outside any skipped subtree. It is shared by {@link Parser#newInstance()},
+ so must be thread-safe if that parser is used concurrently.</p>
+ @since 1.23.1
+ */
+@FunctionalInterface
+public interface ParseFilter {
+    /**
+     The action to take for an element.
+     */
+    enum Action {
+        /** Keep the element, and continue with its content. */
+        KEEP,
+        /** Keep the element, but skip its content. */
+        SKIP_CHILDREN,
+        /** Skip the element and its content. */
+        SKIP,
+        /** Keep the element, and stop the parse. No further input is read, and the open elements are closed. */
+        STOP
+    }
+
+    /**
+     Called as an element is inserted, after its start tag has been read but before any of its content.
+     @param element the element, with its attributes, as just inserted into its parent. Its children are not available.
+     @return the action to take
+     */
+    Action filter(Element element);
+}
@@ -4,10 +4,10 @@ import org.jsoup.helper.Validate;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.nodes.Node;
+import org.jsoup.parser.CharacterReader.StringInput;
 import org.jspecify.annotations.Nullable;
 
 import java.io.Reader;
-import java.io.StringReader;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -28,7 +28,10 @@ public class Parser implements Cloneable {
     private ParseErrorList errors;
     private ParseSettings settings;
     private boolean trackPosition = false;
+    private boolean lazyAttributes = false;
     private @Nullable TagSet tagSet;
+    private @Nullable InternPool internPool;
+    private @Nullable ParseFilter parseFilter;
     private final ReentrantLock lock = new ReentrantLock();
     private int maxDepth;
 
@@ -62,8 +65,11 @@ public class Parser implements Cloneable {
         errors = new ParseErrorList(copy.errors); // only copies size, not contents
         settings = new ParseSettings(copy.settings);
         trackPosition = copy.trackPosition;
+        lazyAttributes = copy.lazyAttributes;
         maxDepth = copy.maxDepth;
         tagSet = new TagSet(copy.tagSet());
+        internPool = copy.internPool; // shared, not copied
+        parseFilter = copy.parseFilter;
     }
 
     /**
@@ -74,7 +80,7 @@ public class Parser implements Cloneable {
      @return parsed Document
      */
     public Document parseInput(String html, String baseUri) {
-        return parseInput(new StringReader(html), baseUri);
+        return parseInput(new StringInput(html), baseUri);
     }
 
     /**
@@ -103,7 +109,7 @@ public class Parser implements Cloneable {
      @return list of nodes parsed from the input HTML.
      */
     public List<Node> parseFragmentInput(String fragment, @Nullable Element context, String baseUri) {
-        return parseFragmentInput(new StringReader(fragment), context, baseUri);
+        return parseFragmentInput(new StringInput(fragment), context, baseUri);
     }
 
     /**
@@ -180,6 +186,35 @@ public class Parser implements Cloneable {
         return this;
     }
 
+    /**
+     Test if lazy attribute parsing is enabled.
+     @return current lazy attributes setting
+     @see #setLazyAttributes(boolean)
+     @since 1.23.1
+     */
+    public boolean isLazyAttributes() {
+        return lazyAttributes;
+    }
+
+    /**
+     Enable or disable lazy attribute parsing. If enabled, the parser skips over the attributes of each start tag,
+     retaining only their span of the input, and parses them when the element's attributes are first used. That saves
+     the parse time and memory of attributes that are never read, e.g. when extracting text or following only some
+     links, at the cost of holding the input String until all the spans are parsed.
+     <p>Applies to HTML parses of String input, when neither position nor error tracking is enabled; otherwise
+     attributes are parsed as usual. Attributes that the tree builder itself reads (e.g. on {@code <input>}) are also
+     parsed as usual. The parsed attributes are the same either way, though parse errors in them are not reported.</p>
+     <p>As an element's attributes are updated when first used, a lazily parsed Document must not be read concurrently
+     from multiple threads.</p>
+     @param lazyAttributes lazy attribute setting; {@code true} to enable
+     @return this Parser, for chaining
+     @since 1.23.1
+     */
+    public Parser setLazyAttributes(boolean lazyAttributes) {
+        this.lazyAttributes = lazyAttributes;
+        return this;
+    }
+
     /**
      Update the ParseSettings of this Parser, to control the case sensitivity of tags and attributes.
      * @param settings the new settings
@@ -246,6 +281,52 @@ public class Parser implements Cloneable {
         return tagSet;
     }
 
+    /**
+     Set a pool to intern the tag names, attribute names, and short attribute values of parsed documents into, so that
+     documents parsed with this parser (and any others sharing the pool) share those Strings. The pool is shared, not
+     copied, by {@link #newInstance()}.
+
+     @param internPool the pool to use; or {@code null} to not use one (the default)
+     @return this Parser, for chaining
+     @since 1.23.1
+     */
+    public Parser internPool(@Nullable InternPool internPool) {
+        this.internPool = internPool;
+        return this;
+    }
+
+    /**
+     Get the intern pool used by this Parser, if one has been set.
+     @return the current pool, or {@code null}
+     @since 1.23.1
+     */
+    public @Nullable InternPool internPool() {
+        return internPool;
+    }
+
+    /**
+     Set a filter to decide, as each element is parsed, whether to keep or skip it (and its content), or to stop the
+     parse. Skipped content is read but not added to the Document.
+
+     @param parseFilter the filter to use; or {@code null} to keep all content (the default)
+     @return this Parser, for chaining
+     @see ParseFilter
+     @since 1.23.1
+     */
+    public Parser parseFilter(@Nullable ParseFilter parseFilter) {
+        this.parseFilter = parseFilter;
+        return this;
+    }
+
+    /**
+     Get the parse filter used by this Parser, if one has been set.
+     @return the current filter, or {@code null}
+     @since 1.23.1
+     */
+    public @Nullable ParseFilter parseFilter() {
+        return parseFilter;
+    }
+
     public String defaultNamespace() {
         return getTreeBuilder().defaultNamespace();
     }
@@ -261,7 +342,7 @@ public class Parser implements Cloneable {
      */
     public static Document parse(String html, String baseUri) {
         TreeBuilder treeBuilder = new HtmlTreeBuilder();
-        return treeBuilder.parse(new StringReader(html), baseUri, new Parser(treeBuilder));
+        return treeBuilder.parse(new StringInput(html), baseUri, new Parser(treeBuilder));
     }
 
     /**
@@ -276,7 +357,7 @@ public class Parser implements Cloneable {
      */
     public static List<Node> parseFragment(String fragmentHtml, Element context, String baseUri) {
         HtmlTreeBuilder treeBuilder = new HtmlTreeBuilder();
-        return treeBuilder.parseFragment(new StringReader(fragmentHtml), context, baseUri, new Parser(treeBuilder));
+        return treeBuilder.parseFragment(new StringInput(fragmentHtml), context, baseUri, new Parser(treeBuilder));
     }
 
     /**
@@ -294,7 +375,7 @@ public class Parser implements Cloneable {
         HtmlTreeBuilder treeBuilder = new HtmlTreeBuilder();
         Parser parser = new Parser(treeBuilder);
         parser.errors = errorList;
-        return treeBuilder.parseFragment(new StringReader(fragmentHtml), context, baseUri, parser);
+        return treeBuilder.parseFragment(new StringInput(fragmentHtml), context, baseUri, parser);
     }
 
     /**
@@ -306,7 +387,7 @@ public class Parser implements Cloneable {
      */
     public static List<Node> parseXmlFragment(String fragmentXml, String baseUri) {
         XmlTreeBuilder treeBuilder = new XmlTreeBuilder();
-        return treeBuilder.parseFragment(new StringReader(fragmentXml), null, baseUri, new Parser(treeBuilder));
+        return treeBuilder.parseFragment(new StringInput(fragmentXml), null, baseUri, new Parser(treeBuilder));
     }
 
     /**
@@ -354,9 +435,10 @@ public class Parser implements Cloneable {
     public String unescape(String string, boolean inAttribute) {
         Validate.notNull(string);
         if (string.indexOf('&') < 0) return string; // nothing to unescape
-        this.treeBuilder.initialiseParse(new StringReader(string), "", this);
-        Tokeniser tokeniser = new Tokeniser(this.treeBuilder);
-        return tokeniser.unescapeEntities(inAttribute);
+        this.treeBuilder.initialiseParse(new StringInput(string), "", this);
+        String unescaped = treeBuilder.tokeniser.unescapeEntities(inAttribute);
+        treeBuilder.completeParse();
+        return unescaped;
     }
 
     // builders
@@ -0,0 +1,185 @@
+package org.jsoup.parser;
+
+import org.jsoup.helper.Validate;
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.CharacterReader.StringInput;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ A ResumableParser parses its input in bounded slices. Each call to {@link #advance(int, long, TimeUnit) advance()}
+ runs the parser for up to a number of tokens or a length of time, whichever is reached first, and then returns
+ control to the caller. The parser itself is the continuation: call {@code advance()} again to resume where it left
+ off.
+ <p>This lets a large input be parsed on an event loop interleaved with other work, or cooperatively on a virtual
+ thread (e.g. with a {@link Thread#yield()} between slices), without a single parse holding the thread until it
+ completes. For example:</p>
+ <pre>{@code
+ ResumableParser parser = new ResumableParser(Parser.htmlParser()).parse(html, baseUri);
+ while (parser.advance(1000, 500, TimeUnit.MICROSECONDS)) {
+     // do other work, or reschedule, then resume
+ }
+ Document doc = parser.document();
+ }</pre>
+ <p>The {@link #document()} is available throughout, and is complete once {@code advance()} returns {@code false}.</p>
+ <p>A ResumableParser is not thread-safe, but a parse may be resumed on a different thread than the one it was
+ started on, provided the calls are ordered (e.g. by handing the parser between tasks on an executor). It takes over
+ the supplied Parser's tree builder, so use a dedicated Parser (or {@link Parser#newInstance()}) for each. It can be
+ reused via a new {@link #parse(Reader, String)}.</p>
+ @since 1.23.1
+ */
+public class ResumableParser implements Closeable {
+    private final Parser parser;
+    private final TreeBuilder treeBuilder;
+    private @Nullable Document document;
+    private boolean complete = false;
+    private long tokens = 0;
+
+    /**
+     Construct a new ResumableParser, using the supplied base Parser.
+     @param parser the configured base parser
+     */
+    public ResumableParser(Parser parser) {
+        this.parser = parser;
+        treeBuilder = parser.getTreeBuilder();
+    }
+
+    /**
+     Provide the input for a Document parse. The input is parsed as {@link #advance(int, long, TimeUnit)} is called.
+     @param input the input to be read
+     @param baseUri the URL of this input, for absolute link resolution
+     @return this parser, for chaining
+     */
+    public ResumableParser parse(Reader input, String baseUri) {
+        close(); // ensures any previous reader is closed
+        treeBuilder.initialiseParse(input, baseUri, parser);
+        document = treeBuilder.doc;
+        complete = false;
+        tokens = 0;
+        return this;
+    }
+
+    /**
+     Provide the input for a Document parse. The input is parsed as {@link #advance(int, long, TimeUnit)} is called.
+     @param input the input to be read
+     @param baseUri the URL of this input, for absolute link resolution
+     @return this parser, for chaining
+     */
+    public ResumableParser parse(String input, String baseUri) {
+        return parse(new StringInput(input), baseUri);
+    }
+
+    /**
+     Run the parser for up to {@code maxTokens} tokens, or until {@code maxTime} has elapsed, whichever comes first.
+     At least one token is processed per call, so the parse always makes progress. Closing the elements that remain open
+     at the end of the input also counts towards the tokens.
+     @param maxTokens the maximum number of tokens to process in this call; must be positive
+     @param maxTime the maximum time to run for in this call; a zero time processes a single token
+     @param unit the unit of {@code maxTime}
+     @return {@code true} if there is more to parse, and {@code advance()} should be called again; {@code false} once
+     the input has been fully parsed
+     @throws IOException if the input Reader errors during a read
+     */
+    public boolean advance(int maxTokens, long maxTime, TimeUnit unit) throws IOException {
+        Validate.isTrue(maxTime >= 0, "maxTime must not be negative");
+        return advance(maxTokens, unit.toNanos(maxTime), true);
+    }
+
+    /**
+     Run the parser for up to {@code maxTokens} tokens.
+     @param maxTokens the maximum number of tokens to process in this call; must be positive
+     @return {@code true} if there is more to parse; {@code false} once the input has been fully parsed
+     @throws IOException if the input Reader errors during a read
+     @see #advance(int, long, TimeUnit)
+     */
+    public boolean advance(int maxTokens) throws IOException {
+        return advance(maxTokens, 0, false);
+    }
+
+    /**
+     Run the parser until {@code maxTime} has elapsed.
+     @param maxTime the maximum time to run for in this call; a zero time processes a single token
+     @param unit the unit of {@code maxTime}
+     @return {@code true} if there is more to parse; {@code false} once the input has been fully parsed
+     @throws IOException if the input Reader errors during a read
+     @see #advance(int, long, TimeUnit)
+     */
+    public boolean advance(long maxTime, TimeUnit unit) throws IOException {
+        return advance(Integer.MAX_VALUE, maxTime, unit);
+    }
+
+    private boolean advance(int maxTokens, long maxNanos, boolean timed) throws IOException {
+        Validate.isTrue(maxTokens > 0, "maxTokens must be positive");
+        document(); // validates the parse was initialized
+        if (complete) return false;
+        Validate.isTrue(treeBuilder.reader != null, "The parser was closed before the parse was complete.");
+
+        final long start = timed ? System.nanoTime() : 0;
+        try {
+            for (int i = 0; i < maxTokens; i++) {
+                if (!treeBuilder.stepParser()) {
+                    complete = true;
+                    close();
+                    return false;
+                }
+                tokens++;
+                if (timed && System.nanoTime() - start >= maxNanos) break;
+            }
+        } catch (UncheckedIOException e) {
+            close();
+            throw e.getCause();
+        }
+        return true;
+    }
+
+    /**
+     Runs the parser until the input is fully read, and returns the completed Document.
+     @return the completed Document
+     @throws IOException if the input Reader errors during a read
+     */
+    public Document complete() throws IOException {
+        Document doc = document();
+        //noinspection StatementWithEmptyBody
+        while (advance(Integer.MAX_VALUE)) {}
+        return doc;
+    }
+
+    /**
+     Test if the input has been fully parsed.
+     @return true once the parse is complete
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     Get the number of tokens processed so far in this parse, across all calls to {@code advance()}.
+     @return the count of tokens processed
+     */
+    public long tokenCount() {
+        return tokens;
+    }
+
+    /**
+     Get the {@link Document} being parsed. It will be only partially complete until {@code advance()} returns
+     {@code false}.
+     @return the (partial) Document
+     */
+    public Document document() {
+        Validate.notNull(document, "Must run parse() before calling.");
+        return document;
+    }
+
+    /**
+     Closes the input and releases the parser's resources, without completing the parse. The parser can be reused with
+     another call to {@link #parse(Reader, String)}.
+     */
+    @Override public void close() {
+        treeBuilder.completeParse(); // closes the reader, frees resources
+    }
+}
@@ -5,6 +5,7 @@ import org.jsoup.helper.Validate;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.nodes.Node;
+import org.jsoup.parser.CharacterReader.StringInput;
 import org.jsoup.select.Evaluator;
 import org.jsoup.select.NodeVisitor;
 import org.jsoup.select.Selector;
@@ -13,7 +14,6 @@ import org.jspecify.annotations.Nullable;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.Reader;
-import java.io.StringReader;
 import java.io.UncheckedIOException;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -92,7 +92,7 @@ public class StreamParser implements Closeable {
      @return this parser
      */
     public StreamParser parse(String input, String baseUri) {
-        return parse(new StringReader(input), baseUri);
+        return parse(new StringInput(input), baseUri);
     }
 
     /**
@@ -118,7 +118,7 @@ public class StreamParser implements Closeable {
      @see #completeFragment()
      */
     public StreamParser parseFragment(String input, @Nullable Element context, String baseUri) {
-        return parseFragment(new StringReader(input), context, baseUri);
+        return parseFragment(new StringInput(input), context, baseUri);
     }
 
     /**
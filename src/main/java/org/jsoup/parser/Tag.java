@@ -200,6 +200,13 @@ public class Tag implements Cloneable {
         parserOptions = HtmlTagOptions.optionsFor(normalName, namespace);
     }
 
+    /**
+     Get the cached parser options; see {@link HtmlTagOptions}.
+     */
+    int parserOptions() {
+        return parserOptions;
+    }
+
     /**
      Test if this tag has the given parser option.
      */
@@ -27,6 +27,8 @@ public class TagSet {
     private final Map<String, Map<String, Tag>> tags = new HashMap<>(); // namespace -> tag name -> Tag
     private final @Nullable TagSet source; // internal fallback for lazy tag copies
     private @Nullable ArrayList<Consumer<Tag>> customizers; // optional onNewTag tag customizer
+    private @Nullable HashMap<String, String> attributeKeys; // pooled attribute keys; see attributeKey()
+    private static final int MaxAttributeKeys = 1024; // bounds the pool, e.g. against input with many distinct names
 
     /**
      Returns a mutable copy of the default HTML tag set.
@@ -96,6 +98,23 @@ public class TagSet {
             .put(tag.tagName, tag);
     }
 
+    /**
+     Get the pooled instance of an attribute key, so that the attributes of parsed elements share key Strings, rather
+     than each holding its own copy. Common HTML attribute names are pooled in the default HTML TagSet, and others in
+     this TagSet, up to a limit.
+     */
+    String attributeKey(String key) {
+        if (source != null && source.attributeKeys != null) {
+            String known = source.attributeKeys.get(key); // the source is not modified, so is safe to share
+            if (known != null) return known;
+        }
+        if (attributeKeys == null) attributeKeys = new HashMap<>();
+        String pooled = attributeKeys.get(key);
+        if (pooled != null) return pooled;
+        if (attributeKeys.size() < MaxAttributeKeys) attributeKeys.put(key, key);
+        return key;
+    }
+
     /**
      Get an existing Tag from this TagSet by tagName and namespace. The tag name is not normalized, to support mixed
      instances.
@@ -277,8 +296,22 @@ public class TagSet {
         String[] blockSvgTags = {"svg", "femerge", "femergenode"}; // note these are LC versions, but actually preserve case
         String[] inlineSvgTags = {"text"};
         String[] dataSvgTags = {"script"};
+        String[] attributeKeys = { // common attribute names, pooled in the parse of each document
+            "id", "class", "style", "title", "lang", "dir", "hidden", "tabindex", "role", "href", "src", "srcset",
+            "sizes", "alt", "width", "height", "rel", "type", "name", "value", "content", "property", "charset",
+            "http-equiv", "media", "target", "action", "method", "for", "placeholder", "checked", "selected",
+            "disabled", "readonly", "required", "maxlength", "colspan", "rowspan", "align", "valign", "border",
+            "cellpadding", "cellspacing", "bgcolor", "color", "face", "size", "async", "defer", "crossorigin",
+            "integrity", "loading", "decoding", "referrerpolicy", "itemprop", "itemscope", "itemtype", "onclick",
+            "onload", "aria-label", "aria-hidden", "aria-expanded", "aria-labelledby", "aria-describedby",
+            "aria-controls", "data-id", "xmlns", "viewbox", "d", "fill", "stroke", "x", "y"
+        };
 
-        return new TagSet()
+        TagSet html = new TagSet();
+        html.attributeKeys = new HashMap<>(attributeKeys.length * 2);
+        for (String key : attributeKeys)
+            html.attributeKeys.put(key, key);
+        return html
             .setupTags(NamespaceHtml, blockTags, tag -> tag.set(Tag.Block))
             .setupTags(NamespaceHtml, inlineTags, tag -> tag.set(0))
             .setupTags(NamespaceHtml, inlineContainers, tag -> tag.set(Tag.InlineContainer))
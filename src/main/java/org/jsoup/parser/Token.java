@@ -9,6 +9,8 @@ import org.jspecify.annotations.Nullable;
 import java.util.Arrays;
 import java.util.Objects;
 
+import static org.jsoup.parser.Parser.NamespaceHtml;
+
 /**
  * Parse tokens for the Tokeniser.
  */
@@ -114,6 +116,8 @@ abstract class Token {
     static abstract class Tag extends Token {
         protected TokenData tagName = new TokenData();
         @Nullable protected String normalName; // lc version of tag name, for case-insensitive tree build
+        int parserOptions = UnresolvedOptions; // HtmlTagOptions of the normal name, resolved on first use
+        static final int UnresolvedOptions = -1;
         boolean selfClosing = false;
         @Nullable Attributes attributes; // start tags get attributes on construction. End tags get attributes on first new attribute (but only for parser convenience, not used).
 
@@ -122,27 +126,50 @@ abstract class Token {
         private boolean hasEmptyAttrValue = false; // distinguish boolean attribute from empty string value
 
         // attribute source range tracking
-        final TreeBuilder treeBuilder;
-        final boolean trackSource;
+        TreeBuilder treeBuilder; // not final, as a pooled Tokeniser's tokens are re-bound for each parse; see bind()
+        boolean trackSource;
         private static final int AttrRangeWidth = 4;
         int attrNameStart, attrNameEnd, attrValStart, attrValEnd;
         private @Nullable String @Nullable [] attrRangeNames;
         private int @Nullable [] attrRangePositions;
         private int attrRangeCount;
 
+        // in lazy attribute mode, the source span of the start tag's attributes, which are parsed on first use
+        int attrSpanStart = UnsetPos, attrSpanEnd = UnsetPos;
+
         Tag(TokenType type, TreeBuilder treeBuilder) {
             super(type);
             this.treeBuilder = treeBuilder;
             this.trackSource = treeBuilder.trackSourceRange;
         }
 
+        /** Creates an unbound tag, for a pooled Tokeniser. Must be bound before use. */
+        Tag(TokenType type) {
+            super(type);
+        }
+
+        /** Bind (or re-bind) this tag to the tree builder of a new parse, and reset it. */
+        final void bind(TreeBuilder treeBuilder) {
+            reset();
+            this.treeBuilder = treeBuilder;
+            this.trackSource = treeBuilder.trackSourceRange;
+        }
+
+        /** Release the tree builder (and so its document), when a pooled Tokeniser is returned to the pool. */
+        final void unbind() {
+            reset();
+            treeBuilder = null;
+        }
+
         @Override
         Tag reset() {
             super.reset();
             tagName.reset();
             normalName = null;
+            parserOptions = UnresolvedOptions;
             selfClosing = false;
             attributes = null;
+            attrSpanStart = attrSpanEnd = UnsetPos;
             if (attrRangeNames != null)
                 Arrays.fill(attrRangeNames, 0, attrRangeCount, null);
             attrRangeCount = 0;
@@ -173,9 +200,13 @@ abstract class Token {
                 String name = attrName.value();
                 name = name.trim();
                 if (!name.isEmpty()) {
+                    InternPool pool = treeBuilder.internPool;
+                    name = pool != null ? pool.intern(name) : treeBuilder.tagSet.attributeKey(name); // share key instances across elements
                     String value;
-                    if (attrValue.hasData())
+                    if (attrValue.hasData()) {
                         value = attrValue.value();
+                        if (pool != null) value = pool.intern(value);
+                    }
                     else if (hasEmptyAttrValue)
                         value = "";
                     else
@@ -270,6 +301,11 @@ abstract class Token {
             return attributes != null;
         }
 
+        /** Tests if this tag's attributes were retained as a source span, to be parsed on first use. */
+        final boolean hasAttributeSpan() {
+            return attrSpanStart != UnsetPos;
+        }
+
         final boolean hasAttributeIgnoreCase(String key) {
             return attributes != null && attributes.hasKeyIgnoreCase(key);
         }
@@ -300,9 +336,26 @@ abstract class Token {
         final Tag name(String name) {
             tagName.set(name);
             normalName = ParseSettings.normalName(tagName.value());
+            parserOptions = UnresolvedOptions;
             return this;
         }
 
+        /**
+         Test if this tag's name has the given {@link HtmlTagOptions} option (e.g. is a formatting element). The name is
+         resolved to a Tag via the TagSet once per token, so that the insertion modes can test several categories
+         without searching names each time. Unknown names are not added to the TagSet.
+         */
+        final boolean hasParserOption(int option) {
+            int options = parserOptions;
+            if (options == UnresolvedOptions) {
+                String name = normalName();
+                org.jsoup.parser.Tag tag = treeBuilder.tagSet.get(name, NamespaceHtml);
+                options = tag != null ? tag.parserOptions() : HtmlTagOptions.optionsFor(name, NamespaceHtml);
+                parserOptions = options;
+            }
+            return (options & option) != 0;
+        }
+
         final boolean isSelfClosing() {
             return selfClosing;
         }
@@ -313,6 +366,7 @@ abstract class Token {
             append = append.replace(TokeniserState.nullChar, Tokeniser.replacementChar);
             tagName.append(append);
             normalName = ParseSettings.normalName(tagName.value());
+            parserOptions = UnresolvedOptions;
         }
 
         final void appendTagName(char append) {
@@ -377,6 +431,10 @@ abstract class Token {
             super(TokenType.StartTag, treeBuilder);
         }
 
+        StartTag() {
+            super(TokenType.StartTag);
+        }
+
         @Override
         Tag reset() {
             super.reset();
@@ -388,6 +446,7 @@ abstract class Token {
             this.tagName.set(name);
             this.attributes = attributes;
             normalName = ParseSettings.normalName(name);
+            parserOptions = UnresolvedOptions;
             return this;
         }
 
@@ -406,6 +465,10 @@ abstract class Token {
             super(TokenType.EndTag, treeBuilder);
         }
 
+        EndTag() {
+            super(TokenType.EndTag);
+        }
+
         @Override
         public String toString() {
             return "</" + toStringName() + ">";
@@ -528,6 +591,10 @@ abstract class Token {
             super(TokenType.XmlDecl, treeBuilder);
         }
 
+        XmlDecl() {
+            super(TokenType.XmlDecl);
+        }
+
         @Override
         XmlDecl reset() {
             super.reset();
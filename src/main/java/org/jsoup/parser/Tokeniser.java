@@ -1,6 +1,7 @@
 package org.jsoup.parser;
 
 import org.jsoup.helper.Validate;
+import org.jsoup.internal.SoftPool;
 import org.jsoup.internal.StringUtil;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Entities;
@@ -31,34 +32,82 @@ final class Tokeniser {
         Arrays.sort(notCharRefCharsSorted);
     }
 
-    private final CharacterReader reader; // html input
-    private final ParseErrorList errors; // errors found while tokenising
+    // Tokenisers (and their tokens and buffers) are pooled per thread, as setting one up is a significant share of the cost
+    // of parsing small inputs. Borrowed in TreeBuilder.initialiseParse, and released in completeParse.
+    private static final SoftPool<Tokeniser> Pool = new SoftPool<>(Tokeniser::new);
+
+    private CharacterReader reader; // html input
+    private ParseErrorList errors; // errors found while tokenising
 
     private TokeniserState state = TokeniserState.Data; // current tokenisation state
     @Nullable private Token emitPending = null; // the token we are about to emit on next read
     private boolean isEmitPending = false;
     final TokenData dataBuffer = new TokenData(); // buffers data looking for </script>
 
-    final Document.OutputSettings.Syntax syntax; // html or xml syntax; affects processing of xml declarations vs as bogus comments
-    final Token.StartTag startPending;
-    final Token.EndTag endPending;
-    Token.Tag tagPending; // tag we are building up: start or end pending
+    Document.OutputSettings.Syntax syntax = Document.OutputSettings.Syntax.html; // html or xml syntax; affects processing of xml declarations vs as bogus comments
+    final Token.StartTag startPending = new Token.StartTag();
+    final Token.EndTag endPending = new Token.EndTag();
+    Token.Tag tagPending = startPending; // tag we are building up: start or end pending
     final Token.Character charPending = new Token.Character();
     final Token.Doctype doctypePending = new Token.Doctype(); // doctype building up
     final Token.Comment commentPending = new Token.Comment(); // comment building up
-    final Token.XmlDecl xmlDeclPending; // xml decl building up
+    final Token.XmlDecl xmlDeclPending = new Token.XmlDecl(); // xml decl building up
     @Nullable private String lastStartTag; // the last start tag emitted, to test appropriate end tag
     @Nullable private String lastStartCloseSeq; // "</" + lastStartTag, so we can quickly check for that in RCData
 
+    boolean lazyAttributes; // if start tag attributes are skipped over, and their source span retained to parse on first use
     private int markupStartPos, charStartPos = 0; // reader pos at the start of markup / characters. markup updated on state transition, char on token emit.
 
-    Tokeniser(TreeBuilder treeBuilder) {
+    private Tokeniser() {}
+
+    /**
+     Get a Tokeniser for a new parse, reusing a pooled one if available. It reads from the tree builder's reader, so that
+     must be set first. {@link #release()} it when the parse is complete.
+     */
+    static Tokeniser borrow(TreeBuilder treeBuilder) {
+        return borrow(treeBuilder, treeBuilder.parser.getErrors());
+    }
+
+    /** Get a Tokeniser as above, that reports errors to the given list rather than the tree builder's parser's. */
+    static Tokeniser borrow(TreeBuilder treeBuilder, ParseErrorList errors) {
+        Tokeniser tokeniser = Pool.borrow();
+        tokeniser.bind(treeBuilder, errors);
+        return tokeniser;
+    }
+
+    private void bind(TreeBuilder treeBuilder, ParseErrorList errors) {
         syntax = treeBuilder instanceof XmlTreeBuilder ? Document.OutputSettings.Syntax.xml : Document.OutputSettings.Syntax.html;
-        tagPending = startPending  = new Token.StartTag(treeBuilder);
-        endPending = new Token.EndTag(treeBuilder);
-        xmlDeclPending = new Token.XmlDecl(treeBuilder);
+        startPending.bind(treeBuilder);
+        endPending.bind(treeBuilder);
+        xmlDeclPending.bind(treeBuilder);
+        tagPending = startPending;
         this.reader = treeBuilder.reader;
-        this.errors = treeBuilder.parser.getErrors();
+        this.errors = errors;
+        lazyAttributes = treeBuilder.lazyAttributes;
+    }
+
+    /**
+     Reset this Tokeniser, and return it to the pool. It must not be used after release.
+     */
+    void release() {
+        state = TokeniserState.Data;
+        emitPending = null;
+        isEmitPending = false;
+        dataBuffer.reset();
+        startPending.unbind();
+        endPending.unbind();
+        xmlDeclPending.unbind();
+        tagPending = startPending;
+        charPending.reset();
+        doctypePending.reset();
+        commentPending.reset();
+        lastStartTag = null;
+        lastStartCloseSeq = null;
+        markupStartPos = charStartPos = 0;
+        reader = null;
+        errors = null;
+        lazyAttributes = false;
+        Pool.release(this);
     }
 
     Token read() {
@@ -162,7 +162,10 @@ enum TokeniserState {
                 case '\r':
                 case '\f':
                 case ' ':
-                    t.transition(BeforeAttributeName);
+                    if (t.lazyAttributes && (!t.tagPending.isStartTag() || !HtmlTreeBuilder.readsTagAttributes(t.tagPending.normalName())))
+                        skipAttributes(t, r);
+                    else
+                        t.transition(BeforeAttributeName);
                     break;
                 case '/':
                     t.transition(SelfClosingStartTag);
@@ -1701,6 +1704,98 @@ enum TokeniserState {
      * Handles RawtextEndTagName, ScriptDataEndTagName, and ScriptDataEscapedEndTagName. Same body impl, just
      * different else exit transitions.
      */
+    // the attribute states, as tracked by skipAttributes
+    private static final int SkipBeforeName = 0, SkipName = 1, SkipAfterName = 2, SkipBeforeValue = 3,
+        SkipValueQuoted = 4, SkipValueUnquoted = 5, SkipAfterValueQuoted = 6, SkipSelfClosing = 7;
+
+    /**
+     In lazy attribute mode, skips over the pending tag's attributes without parsing them, and retains their source span
+     on a start tag, to be parsed when first used. Called from the tag name, after its trailing whitespace. Follows the
+     transitions of the attribute states from BeforeAttributeName to the tag's emit, but without building names or
+     values; the transitions fix where the tag ends (e.g. not at a {@code >} in a quoted value) and if it self-closes.
+     Character references are not read, as they can't consume a delimiter.
+     */
+    private static void skipAttributes(Tokeniser t, CharacterReader r) {
+        final String input = r.inputString();
+        assert input != null; // lazy attributes are only enabled for String input
+        final int start = r.pos();
+        final int len = input.length();
+        int pos = start;
+        int state = SkipBeforeName;
+        boolean hasAttribute = false;
+        boolean selfClosing = false;
+
+        scan:
+        while (true) {
+            if (pos >= len) { // eof: the tag is dropped, other than when awaiting an attribute value
+                if (state != SkipBeforeValue) {
+                    r.skipTo(len);
+                    t.transition(Data);
+                    return;
+                }
+                break;
+            }
+            char c = input.charAt(pos++);
+            switch (state) {
+                case SkipValueQuoted: // c is the open quote
+                    int close = input.indexOf(c, pos);
+                    pos = close == -1 ? len : close + 1;
+                    state = close == -1 ? SkipValueQuoted : SkipAfterValueQuoted;
+                    break;
+                case SkipValueUnquoted:
+                    if (c == '>') break scan;
+                    if (isAttrWhitespace(c)) state = SkipBeforeName;
+                    break;
+                case SkipBeforeValue:
+                    if (c == '>') break scan;
+                    if (c == '"' || c == '\'') {
+                        state = SkipValueQuoted;
+                        pos--; // read again as the quote to match
+                    } else if (!isAttrWhitespace(c))
+                        state = SkipValueUnquoted;
+                    break;
+                case SkipName:
+                case SkipAfterName:
+                    if (c == '>') break scan;
+                    if (c == '=') state = SkipBeforeValue;
+                    else if (c == '/') state = SkipSelfClosing;
+                    else if (isAttrWhitespace(c)) state = SkipAfterName;
+                    else state = SkipName;
+                    break;
+                case SkipSelfClosing:
+                    if (c == '>') {
+                        selfClosing = true;
+                        break scan;
+                    }
+                    // otherwise as before a name:
+                case SkipBeforeName:
+                case SkipAfterValueQuoted:
+                    if (c == '>') break scan;
+                    if (c == '/') state = SkipSelfClosing;
+                    else if (isAttrWhitespace(c)) state = SkipBeforeName;
+                    else {
+                        state = SkipName;
+                        hasAttribute = true;
+                    }
+                    break;
+            }
+        }
+
+        r.skipTo(pos);
+        Token.Tag tag = t.tagPending;
+        if (hasAttribute && tag.isStartTag()) {
+            tag.attrSpanStart = start;
+            tag.attrSpanEnd = pos;
+        }
+        tag.selfClosing = selfClosing;
+        t.emitTagPending();
+        t.transition(Data);
+    }
+
+    private static boolean isAttrWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+    }
+
     private static void handleDataEndTag(Tokeniser t, CharacterReader r, TokeniserState elseTransition) {
         if (r.matchesAsciiAlpha()) {
             String name = r.consumeTagName();
@@ -12,7 +12,9 @@ import org.jspecify.annotations.Nullable;
 
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.jsoup.parser.Parser.NamespaceHtml;
 
@@ -29,13 +31,20 @@ abstract class TreeBuilder {
     Token currentToken; // currentToken is used for error and source position tracking. Null at start of fragment parse
     ParseSettings settings;
     TagSet tagSet; // the tags we're using in this parse
+    @Nullable InternPool internPool; // optional pool shared across parses for names and short values
     @Nullable NodeVisitor nodeListener; // optional listener for node add / removes
+    @Nullable ParseFilter parseFilter; // optional filter to skip subtrees or stop the parse
+    // open elements whose content is skipped by the parse filter, with the filter's action on the element (SKIP or
+    // SKIP_CHILDREN), or KEEP if the element was kept by the filter but is dropped as it's within skipped content:
+    private @Nullable Map<Element, ParseFilter.Action> skipped;
+    private boolean filterStopped; // the parse filter stopped the parse; step as if at EOF
 
     private Token.StartTag start; // start tag to process
     private final Token.EndTag end  = new Token.EndTag(this);
     abstract ParseSettings defaultSettings();
 
     boolean trackSourceRange; // optionally tracks source ranges of nodes and attributes
+    boolean lazyAttributes; // if start tag attributes are retained as source spans, and parsed on first use
     @Nullable LineMap lineMap; // shared line map for retained source ranges
 
     void initialiseParse(Reader input, String baseUri, Parser parser) {
@@ -50,11 +59,19 @@ abstract class TreeBuilder {
         reader = new CharacterReader(input);
         trackSourceRange = parser.isTrackPosition();
         reader.trackNewlines(parser.isTrackErrors() || trackSourceRange);
+        String inputString = reader.inputString();
+        lazyAttributes = parser.isLazyAttributes() && this instanceof HtmlTreeBuilder && inputString != null
+            && !trackSourceRange && !parser.isTrackErrors() // spans are parsed later, so can't track positions or errors
+            && inputString.indexOf(CharacterReader.EOF) == -1; // which the tokeniser would read as the end of input
         lineMap = trackSourceRange ? reader.lineMap() : null;
         if (parser.isTrackErrors()) parser.getErrors().clear();
-        tokeniser = new Tokeniser(this);
+        tokeniser = Tokeniser.borrow(this); // per-thread pooled, returned in completeParse
         stack = new ArrayList<>(32);
         tagSet = parser.tagSet();
+        internPool = parser.internPool();
+        parseFilter = parser.parseFilter();
+        skipped = null;
+        filterStopped = false;
         start = new Token.StartTag(this);
         currentToken = start; // init current token to the virtual start token.
         this.baseUri = baseUri;
@@ -68,6 +85,7 @@ abstract class TreeBuilder {
         reader.close();
         reader = null;
         lineMap = null;
+        tokeniser.release();
         tokeniser = null;
         stack = null;
     }
@@ -109,7 +127,7 @@ abstract class TreeBuilder {
 
     boolean stepParser() {
         // if we have reached the end already, step by popping off the stack, to hit nodeRemoved callbacks:
-        if (currentToken.type == Token.TokenType.EOF) {
+        if (currentToken.type == Token.TokenType.EOF || filterStopped) {
             if (stack == null) {
                 return false;
             } if (stack.isEmpty()) {
@@ -162,7 +180,7 @@ abstract class TreeBuilder {
     Element pop() {
         int size = stack.size();
         Element removed = stack.remove(size - 1);
-        onNodeClosed(removed);
+        closed(removed);
         return removed;
     }
 
@@ -172,7 +190,95 @@ abstract class TreeBuilder {
      */
     final void push(Element element) {
         stack.add(element);
-        onNodeInserted(element);
+        if (!isDropped(element)) onNodeInserted(element);
+    }
+
+    /** Hits onNodeClosed for an element just removed from the stack, unless it was dropped by the parse filter. */
+    final void closed(Element element) {
+        boolean dropped = isDropped(element);
+        if (skipped != null) skipped.remove(element);
+        if (!dropped) onNodeClosed(element);
+    }
+
+    /**
+     Runs the parse filter, if set, on a newly inserted element before it is pushed. If the filter skips the element, it
+     is removed from its parent; either way, its content will be skipped.
+     */
+    final void filterInserted(Element el) {
+        if (parseFilter == null) return;
+        ParseFilter.Action action = parseFilter.filter(el);
+        switch (action) {
+            case SKIP:
+                el.remove();
+                // fallthrough
+            case SKIP_CHILDREN:
+                skipped().put(el, action);
+                break;
+            case STOP:
+                filterStopped = true;
+                break;
+            default:
+        }
+    }
+
+    /**
+     Marks an element's content as skipped by the parse filter. Skipped elements are still pushed onto the stack, so that
+     tree construction proceeds as without the filter, but nodes inserted into them are dropped.
+     */
+    final void skip(Element el) {
+        skipped().put(el, ParseFilter.Action.KEEP);
+    }
+
+    private Map<Element, ParseFilter.Action> skipped() {
+        if (skipped == null) skipped = new IdentityHashMap<>();
+        return skipped;
+    }
+
+    /** Tests if a node inserted into the target element should be dropped, as the target's content is skipped. */
+    final boolean isSkipped(Element target) {
+        return skipped != null && !skipped.isEmpty() && skipped.containsKey(target);
+    }
+
+    /**
+     Carries the parse filter's action on an element over to a clone of it made by the adoption agency, so that the
+     clone of a skipped element is skipped too.
+     */
+    final void cloned(Element original, Element clone) {
+        if (skipped == null) return;
+        ParseFilter.Action action = skipped.get(original);
+        if (action == ParseFilter.Action.SKIP || action == ParseFilter.Action.SKIP_CHILDREN)
+            skipped.put(clone, action);
+    }
+
+    /**
+     Moves a node to a new parent, for the adoption agency, following the parse filter. A node moved into skipped content
+     is dropped; an element that the filter skipped stays out of the document; and an element that was dropped only as
+     it was within skipped content is restored, as it has been moved out of it.
+     */
+    final void adopt(Element parent, Node child) {
+        if (skipped == null || skipped.isEmpty()) {
+            parent.appendChild(child);
+        } else if (skipped.containsKey(parent)) {
+            child.remove();
+            if (child instanceof Element && !skipped.containsKey(child))
+                skip((Element) child);
+        } else {
+            ParseFilter.Action action = child instanceof Element ? skipped.get(child) : null;
+            if (action == ParseFilter.Action.SKIP) {
+                child.remove();
+            } else {
+                parent.appendChild(child);
+                if (action == ParseFilter.Action.KEEP) {
+                    skipped.remove(child);
+                    onNodeInserted(child);
+                }
+            }
+        }
+    }
+
+    /** Tests if an element is not in the document, because it is in (or is the root of) a skipped subtree. */
+    private boolean isDropped(Element el) {
+        return isSkipped(el) && el.parentNode() == null;
     }
 
     /**
@@ -259,11 +365,15 @@ abstract class TreeBuilder {
     }
 
     Tag tagFor(String tagName, String normalName, String namespace, ParseSettings settings) {
+        if (internPool != null) { // so that new tags, e.g. custom elements, share names across parses
+            tagName = internPool.intern(tagName);
+            normalName = internPool.intern(normalName);
+        }
         return tagSet.valueOf(tagName, normalName, namespace, settings.preserveTagCase());
     }
 
     Tag tagFor(Token.Tag token) {
-        return tagSet.valueOf(token.name(), token.normalName, defaultNamespace(), settings.preserveTagCase());
+        return tagFor(token.name(), token.normalName, defaultNamespace(), settings);
     }
 
     /**
@@ -283,6 +393,7 @@ abstract class TreeBuilder {
      the source range of the node.  @param node the node that was just inserted
      */
     void onNodeInserted(Node node) {
+        NodeInternals.treeChanged(doc); // nodes are appended without notifying the doc, so invalidate any index here
         trackNodePosition(node, true);
 
         if (nodeListener != null)
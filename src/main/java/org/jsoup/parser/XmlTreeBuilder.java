@@ -13,13 +13,14 @@ import org.jsoup.nodes.Element;
 import org.jsoup.nodes.Entities;
 import org.jsoup.nodes.LeafNode;
 import org.jsoup.nodes.Node;
+import org.jsoup.nodes.NodeInternals;
 import org.jsoup.nodes.TextNode;
 import org.jsoup.nodes.XmlDeclaration;
+import org.jsoup.parser.CharacterReader.StringInput;
 import org.jsoup.select.Elements;
 import org.jspecify.annotations.Nullable;
 
 import java.io.Reader;
-import java.io.StringReader;
 import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.List;
@@ -85,7 +86,7 @@ public class XmlTreeBuilder extends TreeBuilder {
     }
 
     Document parse(String input, String baseUri) {
-        return parse(new StringReader(input), baseUri, new Parser(this));
+        return parse(new StringInput(input), baseUri, new Parser(this));
     }
 
     @Override List<Node> completeParseFragment() {
@@ -163,7 +164,12 @@ public class XmlTreeBuilder extends TreeBuilder {
         String ns = resolveNamespace(tagName, namespaces);
         Tag tag = tagFor(tagName, startTag.normalName, ns, settings);
         Element el = new Element(tag, null, attributes);
-        currentElement().appendChild(el);
+        if (isSkipped(currentElement())) {
+            skip(el);
+        } else {
+            NodeInternals.appendChild(currentElement(), el);
+            filterInserted(el);
+        }
         push(el);
 
         if (startTag.isSelfClosing()) {
@@ -218,16 +224,19 @@ public class XmlTreeBuilder extends TreeBuilder {
     }
 
     void insertLeafNode(LeafNode node) {
-        currentElement().appendChild(node);
+        if (isSkipped(currentElement())) return;
+        NodeInternals.appendChild(currentElement(), node);
         onNodeInserted(node);
     }
 
     void insertCommentFor(Token.Comment commentToken) {
+        if (isSkipped(currentElement())) return;
         Comment comment = new Comment(commentToken.getData());
         insertLeafNode(comment);
     }
 
     void insertCharacterFor(Token.Character token) {
+        if (isSkipped(currentElement())) return;
         final String data = token.getData();
         LeafNode node;
         if      (token.isCData())                       node = new CDataNode(data);
@@ -1,12 +1,15 @@
 package org.jsoup.select;
 
 import org.jsoup.helper.Validate;
+import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.nodes.LeafNode;
 import org.jsoup.nodes.Node;
+import org.jsoup.nodes.NodeInternals;
 import org.jsoup.nodes.TextNode;
 import org.jspecify.annotations.Nullable;
 
+import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -28,6 +31,17 @@ public class Collector {
      @return list of matches; empty if none
      */
     public static Elements collect(Evaluator eval, Element root) {
+        List<Element> candidates = indexedCandidates(eval, root);
+        if (candidates != null) {
+            Elements els = new Elements();
+            eval.reset();
+            for (Element el : candidates) {
+                if (eval.matches(root, el)) els.add(el);
+            }
+            eval.reset();
+            return els;
+        }
+
         Stream<Element> stream = eval.wantsNodes() ?
             streamNodes(eval, root, Element.class) :
             stream(eval, root);
@@ -73,11 +87,56 @@ public class Collector {
      @return the first match; {@code null} if none
      */
     public static @Nullable Element findFirst(Evaluator eval, Element root) {
+        List<Element> candidates = indexedCandidates(eval, root);
+        if (candidates != null) {
+            eval.reset();
+            Element found = null;
+            for (Element el : candidates) {
+                if (eval.matches(root, el)) {
+                    found = el;
+                    break;
+                }
+            }
+            eval.reset();
+            return found;
+        }
+
         Element el = stream(eval, root).findFirst().orElse(null);
         eval.reset();
         return el;
     }
 
+    /**
+     If the root is a Document with its selector index enabled, and the evaluator requires an id, class, or tag match,
+     gets the (document ordered) candidate elements for that match, from the index. If there are multiple such tests
+     in an And (including a nested And, such as the compound {@code a.title} in {@code #main a.title}), uses the one
+     with the fewest candidates. Otherwise, returns null, and the tree should be traversed. Candidates must still be
+     tested against the full evaluator.
+     */
+    static @Nullable List<Element> indexedCandidates(Evaluator eval, Element root) {
+        if (!(root instanceof Document) || !((Document) root).selectorIndex()) return null;
+        return indexedCandidatesFor(eval, (Document) root);
+    }
+
+    private static @Nullable List<Element> indexedCandidatesFor(Evaluator eval, Document doc) {
+        if (eval instanceof CombiningEvaluator.And) {
+            List<Element> best = null;
+            for (Evaluator part : ((CombiningEvaluator.And) eval).evaluators) {
+                List<Element> candidates = indexedCandidatesFor(part, doc);
+                if (candidates != null && (best == null || candidates.size() < best.size()))
+                    best = candidates;
+            }
+            return best;
+        }
+        else if (eval instanceof Evaluator.Id)
+            return NodeInternals.indexedById(doc, ((Evaluator.Id) eval).id);
+        else if (eval instanceof Evaluator.Class)
+            return NodeInternals.indexedByClass(doc, ((Evaluator.Class) eval).className);
+        else if (eval instanceof Evaluator.Tag)
+            return NodeInternals.indexedByTag(doc, ((Evaluator.Tag) eval).tagName);
+        return null;
+    }
+
     /**
      Finds the first Node that matches the Evaluator that descends from the root, and stops the query once that first
      match is found.
@@ -0,0 +1,219 @@
+package org.jsoup.select;
+
+import org.jsoup.helper.Validate;
+import org.jsoup.internal.StringUtil;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ A compiled set of CSS queries that are all run in a single pass over the DOM. Use when you need the results of several
+ queries on the same document (or many documents): rather than walking the tree once per query, the tree is walked
+ once, and each element is tested against every query.
+ <p>Simple tests that are common to multiple queries (such as tag, id, class, and attribute tests) are evaluated only
+ once per element. For example, with the queries {@code a[href]}, {@code a.title}, and {@code #main a[href]}, the
+ {@code a} and {@code [href]} tests of the selected elements are shared. Tests of other elements, such as the
+ ancestor {@code #main}, are not shared.</p>
+ <p>A QuerySet is immutable and thread-safe, so may be compiled once and reused.</p>
+ <pre>{@code
+ QuerySet queries = QuerySet.of("a[href]", "img[src]", "div.post h2");
+ Map<String, Elements> results = queries.select(doc);
+ Elements links = results.get("a[href]");
+ }</pre>
+
+ @see Selector
+ @since 1.23.1
+ */
+public final class QuerySet {
+    private final String[] queries;
+    private final Evaluator[] evaluators;   // the full evaluator per query, for reset
+    private final Evaluator[] components;   // the deduplicated simple tests, shared across queries
+    private final int[][] plans;            // per query, the component indexes that must all match, cost ascending
+    private final @Nullable Evaluator[] residuals; // per query, the remaining (non-shared) tests, if any
+
+    private QuerySet(Collection<String> queryList) {
+        LinkedHashSet<String> unique = new LinkedHashSet<>(queryList);
+        Validate.isFalse(unique.isEmpty(), "Must supply at least one query");
+        int num = unique.size();
+        queries = unique.toArray(new String[0]);
+        evaluators = new Evaluator[num];
+        plans = new int[num][];
+        residuals = new Evaluator[num];
+
+        List<Evaluator> componentList = new ArrayList<>();
+        Map<String, Integer> componentIndex = new HashMap<>();
+        for (int i = 0; i < num; i++) {
+            Validate.notEmpty(queries[i]);
+            Evaluator eval = Selector.evaluatorOf(queries[i]);
+            evaluators[i] = eval;
+
+            List<Evaluator> parts = new ArrayList<>();
+            addParts(eval, parts);
+            List<Integer> plan = new ArrayList<>();
+            List<Evaluator> rest = new ArrayList<>();
+            for (Evaluator part : parts) {
+                if (isShareable(part)) {
+                    String key = part.getClass().getName() + part;
+                    Integer index = componentIndex.get(key);
+                    if (index == null) {
+                        index = componentList.size();
+                        componentList.add(part);
+                        componentIndex.put(key, index);
+                    }
+                    if (!plan.contains(index)) plan.add(index);
+                } else {
+                    rest.add(part);
+                }
+            }
+            plan.sort(Comparator.comparingInt(index -> componentList.get(index).cost()));
+            plans[i] = plan.stream().mapToInt(Integer::intValue).toArray();
+            if (rest.size() == 1)
+                residuals[i] = rest.get(0);
+            else if (rest.size() > 1)
+                residuals[i] = new CombiningEvaluator.And(rest);
+        }
+        components = componentList.toArray(new Evaluator[0]);
+    }
+
+    /**
+     Compile a set of CSS queries.
+     @param queries the CSS queries. Duplicates are ignored.
+     @return a new QuerySet
+     @throws Selector.SelectorParseException (unchecked) on an invalid CSS query.
+     */
+    public static QuerySet of(String... queries) {
+        Validate.notNull(queries);
+        return new QuerySet(Arrays.asList(queries));
+    }
+
+    /**
+     Compile a set of CSS queries.
+     @param queries the CSS queries. Duplicates are ignored.
+     @return a new QuerySet
+     @throws Selector.SelectorParseException (unchecked) on an invalid CSS query.
+     */
+    public static QuerySet of(Collection<String> queries) {
+        Validate.notNull(queries);
+        return new QuerySet(queries);
+    }
+
+    /**
+     Get the queries in this set, in the order they were supplied (without duplicates).
+     @return the queries
+     */
+    public List<String> queries() {
+        return Collections.unmodifiableList(Arrays.asList(queries));
+    }
+
+    /**
+     Run each query against the root element and its descendants, in a single traversal.
+
+     @param root the root element to descend into
+     @return a map of each query to its matching elements (in document order; empty if none), in the query order
+     */
+    public Map<String, Elements> select(Element root) {
+        Validate.notNull(root);
+        Elements[] results = new Elements[queries.length];
+        for (int i = 0; i < queries.length; i++)
+            results[i] = new Elements();
+
+        reset();
+        try {
+            Matcher matcher = new Matcher(root, results);
+            NodeTraversor.traverse(matcher, root);
+        } finally {
+            reset(); // drops any held memos
+        }
+
+        LinkedHashMap<String, Elements> map = new LinkedHashMap<>(queries.length * 2);
+        for (int i = 0; i < queries.length; i++)
+            map.put(queries[i], results[i]);
+        return map;
+    }
+
+    private void reset() {
+        for (Evaluator eval : evaluators)
+            eval.reset();
+    }
+
+    /** Tests each element against every query, evaluating each shared component at most once per element. */
+    private final class Matcher implements NodeVisitor {
+        private final Element root;
+        private final Elements[] results;
+        private final byte[] state = new byte[components.length]; // 0: not yet tested; 1: match; 2: no match
+
+        Matcher(Element root, Elements[] results) {
+            this.root = root;
+            this.results = results;
+        }
+
+        @Override
+        public void head(Node node, int depth) {
+            if (!(node instanceof Element)) return;
+            Element el = (Element) node;
+            Arrays.fill(state, (byte) 0);
+
+            for (int q = 0; q < queries.length; q++) {
+                if (matchesPlan(plans[q], el)) {
+                    Evaluator residual = residuals[q];
+                    if (residual == null || residual.matches(root, el))
+                        results[q].add(el);
+                }
+            }
+        }
+
+        private boolean matchesPlan(int[] plan, Element el) {
+            for (int index : plan) {
+                byte s = state[index];
+                if (s == 0) {
+                    s = components[index].matches(root, el) ? (byte) 1 : (byte) 2;
+                    state[index] = s;
+                }
+                if (s == 2) return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     Collects the tests that must all match the element: the parts of an And, including the parts of a nested And, like
+     the compound {@code a.title} in {@code #main a.title}.
+     */
+    private static void addParts(Evaluator eval, List<Evaluator> parts) {
+        if (eval instanceof CombiningEvaluator.And) {
+            for (Evaluator part : ((CombiningEvaluator.And) eval).sortedEvaluators)
+                addParts(part, parts);
+        } else {
+            parts.add(eval);
+        }
+    }
+
+    /** Simple tests that depend only on the element itself, so are equal if they have the same type and text. */
+    private static boolean isShareable(Evaluator eval) {
+        return eval instanceof Evaluator.Tag
+            || eval instanceof Evaluator.TagStartsWith
+            || eval instanceof Evaluator.TagEndsWith
+            || eval instanceof Evaluator.Id
+            || eval instanceof Evaluator.Class
+            || eval instanceof Evaluator.Attribute
+            || eval instanceof Evaluator.AttributeStarting
+            || eval instanceof Evaluator.AttributeKeyPair
+            || eval instanceof Evaluator.AllElements;
+    }
+
+    @Override
+    public String toString() {
+        return StringUtil.join(queries, ", ");
+    }
+}
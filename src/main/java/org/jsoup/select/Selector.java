@@ -272,8 +272,8 @@ public class Selector {
     }
 
     /**
-     Parse a CSS query into an Evaluator. If you are evaluating the same query repeatedly, it may be more efficient to
-     parse it once and reuse the Evaluator.
+     Parse a CSS query into an Evaluator. Compiled Evaluators are held in the shared {@link #cache()}, so repeated
+     queries are only parsed once. The returned Evaluator may be shared with other callers, so must not be modified.
 
      @param css CSS query
      @return Evaluator
@@ -282,7 +282,20 @@ public class Selector {
      @since 1.21.1
      */
     public static Evaluator evaluatorOf(String css) {
-        return QueryParser.parse(css);
+        return Cache.get(css);
+    }
+
+    private static final SelectorCache Cache = new SelectorCache(SelectorCache.DefaultMaxSize);
+
+    /**
+     Get the shared cache of compiled Evaluators, used by {@link #evaluatorOf(String)} and the String query methods. Use
+     to inspect hit and miss counts, or to change its size.
+
+     @return the shared SelectorCache
+     @since 1.23.1
+     */
+    public static SelectorCache cache() {
+        return Cache;
     }
 
     public static class SelectorParseException extends IllegalStateException {
@@ -0,0 +1,169 @@
+package org.jsoup.select;
+
+import org.jsoup.helper.Validate;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ A thread-safe, bounded cache of compiled {@link Evaluator}s, keyed by their CSS query. Used by
+ {@link Selector#evaluatorOf(String)}, and so by all the String query methods such as {@code Element.select(query)},
+ {@code Element.selectFirst(query)}, and {@code Elements.select(query)}, so that repeated queries are parsed once.
+ <p>Obtain the shared cache with {@link Selector#cache()}. When the cache is full, the least recently used query is
+ evicted. The size may be changed with {@link #maxSize(int)}; a size of {@code 0} disables caching.</p>
+ <p>Cached Evaluators are shared across callers and threads. Evaluators are thread-safe, but must not be modified
+ (e.g. via {@link CombiningEvaluator#add(Evaluator)}) once they have been returned from the cache. Regular expressions
+ in queries are compiled with the engine selected at the time the query is first parsed; if you change the
+ {@code jsoup.useRe2j} setting at runtime, {@link #clear()} the cache.</p>
+
+ @since 1.23.1
+ */
+public final class SelectorCache {
+    /** The default maximum number of queries held in the shared cache. */
+    public static final int DefaultMaxSize = 256;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private volatile int maxSize;
+
+    /**
+     Create a new, empty cache.
+     @param maxSize the maximum number of queries to hold; {@code 0} disables caching
+     */
+    public SelectorCache(int maxSize) {
+        Validate.isTrue(maxSize >= 0, "maxSize must be >= 0");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     Get the compiled Evaluator for the query, parsing and caching it if it is not already held.
+     @param query the CSS query
+     @return the Evaluator
+     @throws Selector.SelectorParseException if the CSS query is invalid. Invalid queries are not cached.
+     */
+    public Evaluator get(String query) {
+        Validate.notNull(query);
+        Entry entry = entries.get(query);
+        if (entry != null) {
+            entry.lastUsed = clock.incrementAndGet();
+            hits.incrementAndGet();
+            return entry.eval;
+        }
+
+        misses.incrementAndGet();
+        Evaluator eval = QueryParser.parse(query);
+        if (maxSize == 0) return eval;
+
+        Entry existing = entries.putIfAbsent(query, new Entry(eval, clock.incrementAndGet()));
+        if (existing != null) return existing.eval; // raced with another thread; use the one that is held
+        while (entries.size() > maxSize) {
+            if (!evictOldest()) break;
+        }
+        return eval;
+    }
+
+    /** Removes the least recently used entry. Returns false if there was nothing to remove. */
+    private boolean evictOldest() {
+        Map.@Nullable Entry<String, Entry> oldest = null;
+        for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+            if (oldest == null || candidate.getValue().lastUsed < oldest.getValue().lastUsed)
+                oldest = candidate;
+        }
+        if (oldest == null) return false;
+        if (entries.remove(oldest.getKey(), oldest.getValue()))
+            evictions.incrementAndGet();
+        return true;
+    }
+
+    /**
+     Get the maximum number of queries this cache will hold.
+     @return the max size
+     */
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     Set the maximum number of queries this cache will hold. If the cache currently holds more than that, the least
+     recently used queries are evicted.
+     @param maxSize the maximum number of queries to hold; {@code 0} disables caching
+     @return this cache, for chaining
+     */
+    public SelectorCache maxSize(int maxSize) {
+        Validate.isTrue(maxSize >= 0, "maxSize must be >= 0");
+        this.maxSize = maxSize;
+        while (entries.size() > maxSize) {
+            if (!evictOldest()) break;
+        }
+        return this;
+    }
+
+    /**
+     Get the number of queries currently held.
+     @return the current size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     Remove all queries from the cache. The statistics counters are not reset.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     Get the number of lookups that found a cached Evaluator.
+     @return the hit count
+     */
+    public long hitCount() {
+        return hits.get();
+    }
+
+    /**
+     Get the number of lookups that had to parse the query.
+     @return the miss count
+     */
+    public long missCount() {
+        return misses.get();
+    }
+
+    /**
+     Get the number of queries that have been evicted to keep the cache within its max size.
+     @return the eviction count
+     */
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     Reset the hit, miss, and eviction counters to zero.
+     */
+    public void resetStats() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SelectorCache[size=%d, maxSize=%d, hits=%d, misses=%d, evictions=%d]",
+            size(), maxSize, hitCount(), missCount(), evictionCount());
+    }
+
+    private static final class Entry {
+        final Evaluator eval;
+        volatile long lastUsed;
+
+        Entry(Evaluator eval, long lastUsed) {
+            this.eval = eval;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
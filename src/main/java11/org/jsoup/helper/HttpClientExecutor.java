@@ -3,22 +3,33 @@ package org.jsoup.helper;
 import org.jsoup.Connection;
 import org.jspecify.annotations.Nullable;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.Proxy;
 import java.net.ProxySelector;
 import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static org.jsoup.helper.HttpConnection.Response;
 import static org.jsoup.helper.HttpConnection.Response.writePost;
@@ -29,8 +40,8 @@ import static org.jsoup.helper.HttpConnection.Response.writePost;
  */
 class HttpClientExecutor extends RequestExecutor {
     // HttpClient expects proxy settings per client; we do per request, so held as a thread local. Can't do same for
-    // auth because that callback is on a worker thread, so can only do auth per Connection. So we create a new client
-    // if the authenticator is different between requests
+    // auth because that callback is on a worker thread, so can only do auth per client. So the session pools a client
+    // for each authenticator (and ssl context) its requests use
     static ThreadLocal<@Nullable Proxy> perRequestProxy = new ThreadLocal<>();
 
     @Nullable
@@ -40,69 +51,34 @@ class HttpClientExecutor extends RequestExecutor {
         super(request, previousResponse);
     }
 
+    @Nullable
+    ClientPool.Entry pooled;
+
     /**
-     Retrieve the HttpClient from the Connection, or create a new one. Allows for connection pooling of requests in the
-     same Connection (session).
+     Retrieve the HttpClient for this request's auth and ssl context from the Connection's (session's) pool, or create a
+     new one. Allows for connection pooling of requests in the same session.
      */
     HttpClient client() {
-        // we try to reuse the same Client across requests in a given Connection; but if the request's auth or ssl context have changed, we need to create a new client
-        if (req.connection.client != null) {
-            HttpClient client = (HttpClient) req.connection.client;
-            boolean reuse = true;
-
-            RequestAuthenticator prevAuth = req.connection.lastAuth;
-            req.connection.lastAuth = req.authenticator;
-            if (prevAuth != req.authenticator) // might both be null
-                reuse = false;
-            if (req.sslContext != null && !(client.sslContext() == req.sslContext)) // client returns default context if not otherwise set
-                reuse = false;
-            if (reuse) return client;
-        }
-
-        HttpClient.Builder builder = HttpClient.newBuilder();
-        builder.followRedirects(HttpClient.Redirect.NEVER); // customized redirects
-        builder.proxy(new ProxyWrap()); // thread local impl for per request; called on executing thread
-        if (req.authenticator != null) builder.authenticator(new AuthenticationHandler(req.authenticator));
-        if (req.sslContext    != null) builder.sslContext(req.sslContext);
-
-        HttpClient client = builder.build();
-        req.connection.client = client;
-        return client;
+        ClientPool.Entry entry = req.connection.clientPool().client(req.authenticator, req.sslContext, () -> {
+            HttpClient.Builder builder = HttpClient.newBuilder();
+            builder.followRedirects(HttpClient.Redirect.NEVER); // customized redirects
+            builder.proxy(new ProxyWrap()); // thread local impl for per request; called on executing thread
+            if (req.authenticator != null) builder.authenticator(new AuthenticationHandler(req.authenticator));
+            if (req.sslContext    != null) builder.sslContext(req.sslContext);
+            return builder.build();
+        });
+        pooled = entry;
+        return (HttpClient) entry.client;
     }
 
     @Override
     HttpConnection.Response execute() throws IOException {
         try {
-            HttpRequest.Builder reqBuilder =
-                HttpRequest.newBuilder(req.url.toURI()).method(req.method.name(), requestBody(req));
-            if (req.timeout() > 0) reqBuilder.timeout(
-                Duration.ofMillis(req.timeout())); // infinite if unset (UrlConnection / jsoup uses 0 for same)
-            CookieUtil.applyCookiesToRequest(req, reqBuilder::header);
-
-            // headers:
-            req.multiHeaders().forEach((key, values) -> {
-                values.forEach(value -> reqBuilder.header(key, value));
-            });
-
+            HttpRequest hReq = buildRequest();
             if (req.proxy() != null) perRequestProxy.set(req.proxy()); // set up per request proxy
-            HttpRequest hReq = reqBuilder.build();
             HttpClient client = client();
             hRes = client.send(hReq, HttpResponse.BodyHandlers.ofInputStream());
-            HttpHeaders headers = hRes.headers();
-
-            // set up the response
-            Response res = new Response(req);
-            res.executor = this;
-            res.method = Connection.Method.valueOf(hRes.request().method());
-            res.url = hRes.uri().toURL();
-            res.statusCode = hRes.statusCode();
-            res.statusMessage = StatusMessage(res.statusCode);
-            res.contentType = headers.firstValue("content-type").orElse("");
-            long length = headers.firstValueAsLong("content-length").orElse(-1);
-            res.contentLength = length < Integer.MAX_VALUE ? (int) length : -1;
-            res.prepareResponse(headers.map(), prevRes);
-
-            return res;
+            return newResponse(hRes);
         } catch (IOException e) {
             safeClose();
             throw e;
@@ -110,14 +86,96 @@ class HttpClientExecutor extends RequestExecutor {
             safeClose();
             Thread.currentThread().interrupt();
             throw new IOException(e);
-        } catch (URISyntaxException e) {
-            throw new IllegalArgumentException("Malformed URL: " + req.url, e);
         } finally {
             // detach per request proxy
             perRequestProxy.remove();
         }
     }
 
+    @Override
+    boolean supportsAsync() {
+        return req.proxy() == null; // the per request proxy is a thread local, so can't follow an async send
+    }
+
+    @Override
+    CompletableFuture<HttpConnection.Response> executeAsync(boolean buffer, long startTime) {
+        HttpRequest hReq;
+        HttpClient client;
+        try {
+            hReq = buildRequest();
+            client = client();
+        } catch (IOException e) {
+            CompletableFuture<HttpConnection.Response> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        int max = req.maxBodySize();
+        HttpResponse.BodyHandler<InputStream> handler = buffer ?
+            info -> new BufferedBody(info.headers().firstValue(HttpConnection.CONTENT_ENCODING).isPresent() ? encodedMax(max) : max,
+                startTime, req.timeout()) : // the request timeout only bounds the wait for the headers
+            HttpResponse.BodyHandlers.ofInputStream(); // fed by the client as the body arrives; closing it cancels the download
+        return client.sendAsync(hReq, handler)
+            .thenApply(res -> {
+                hRes = res;
+                try {
+                    return newResponse(res);
+                } catch (IOException e) {
+                    safeClose();
+                    throw new CompletionException(e);
+                }
+            });
+    }
+
+    /**
+     The cap on the buffered size of an encoded (compressed) body. The max body size applies to the decoded body, which
+     is only decoded as it is read; so this allows twice the max, plus room for the encoding's headers. That is enough
+     for a capped body to still decode to the max size, as encodings barely expand incompressible content.
+     */
+    static int encodedMax(int max) {
+        return max == 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, 2L * max + 1024);
+    }
+
+    private HttpRequest buildRequest() throws IOException {
+        try {
+            HttpRequest.Builder reqBuilder =
+                HttpRequest.newBuilder(req.url.toURI()).method(req.method.name(), requestBody(req));
+            if (req.timeout() > 0) reqBuilder.timeout(
+                Duration.ofMillis(req.timeout())); // infinite if unset (UrlConnection / jsoup uses 0 for same)
+            CookieUtil.applyCookiesToRequest(req, reqBuilder::header);
+
+            // headers:
+            req.multiHeaders().forEach((key, values) -> {
+                values.forEach(value -> reqBuilder.header(key, value));
+            });
+            return reqBuilder.build();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Malformed URL: " + req.url, e);
+        }
+    }
+
+    private Response newResponse(HttpResponse<InputStream> hRes) throws IOException {
+        HttpHeaders headers = hRes.headers();
+        if (pooled != null) {
+            URI uri = hRes.uri();
+            pooled.exchanged(uri.getScheme() + "://" + uri.getRawAuthority(), hRes.version() == HttpClient.Version.HTTP_2);
+        }
+
+        // set up the response
+        Response res = new Response(req);
+        res.executor = this;
+        res.method = Connection.Method.valueOf(hRes.request().method());
+        res.url = hRes.uri().toURL();
+        res.statusCode = hRes.statusCode();
+        res.statusMessage = StatusMessage(res.statusCode);
+        res.contentType = headers.firstValue("content-type").orElse("");
+        long length = headers.firstValueAsLong("content-length").orElse(-1);
+        res.contentLength = length < Integer.MAX_VALUE ? (int) length : -1;
+        res.prepareResponse(headers.map(), prevRes);
+
+        return res;
+    }
+
     /**
      As HTTP/2 no longer provides a server-set status message, and HttpClient doesn't parse it for 1.1, just provide minimal stock ones, for loggers.
      */
@@ -156,6 +214,97 @@ class HttpClientExecutor extends RequestExecutor {
         }
     }
 
+    /**
+     Collects the response body into memory as it arrives, up to the max body size (if not zero), and then provides it
+     as an InputStream. If the body is not complete by the request's timeout, the download is cancelled, and the body
+     fails with a SocketTimeoutException, as the blocking read does.
+     */
+    static class BufferedBody implements HttpResponse.BodySubscriber<InputStream> {
+        private final int max;
+        private final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        private final CompletableFuture<InputStream> body = new CompletableFuture<>();
+        private volatile Flow.@Nullable Subscription subscription;
+
+        BufferedBody(int max, long startTime, int timeoutMillis) {
+            this.max = max;
+            if (timeoutMillis > 0) {
+                long remaining = startTime + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) - System.nanoTime();
+                ScheduledFuture<?> timeout = Timer.get().schedule(this::timedOut, Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+                body.whenComplete((done, error) -> timeout.cancel(false)); // releases this once the body is read
+            }
+        }
+
+        private void timedOut() {
+            if (body.completeExceptionally(new SocketTimeoutException("Read timeout"))) {
+                Flow.Subscription sub = subscription;
+                if (sub != null) sub.cancel();
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (body.isDone()) subscription.cancel(); // already timed out
+            else subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            for (ByteBuffer item : items) {
+                int len = item.remaining();
+                if (max > 0) len = Math.min(len, max - buf.size());
+                if (item.hasArray()) {
+                    buf.write(item.array(), item.arrayOffset() + item.position(), len);
+                } else {
+                    byte[] bytes = new byte[len];
+                    item.get(bytes);
+                    buf.write(bytes, 0, len);
+                }
+                if (max > 0 && buf.size() >= max) { // truncate, as the blocking read does
+                    Flow.Subscription sub = subscription;
+                    if (sub != null) sub.cancel();
+                    onComplete();
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            body.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            body.complete(new ByteArrayInputStream(buf.toByteArray()));
+        }
+
+        @Override
+        public CompletionStage<InputStream> getBody() {
+            return body;
+        }
+    }
+
+    /** Runs the timeouts for buffered bodies, on a daemon thread that is only held while bodies are being read. */
+    static final class Timer {
+        private static final ScheduledThreadPoolExecutor timer;
+
+        static {
+            timer = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "jsoup-body-timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+            timer.setRemoveOnCancelPolicy(true);
+            timer.setKeepAliveTime(1, TimeUnit.SECONDS);
+            timer.allowCoreThreadTimeOut(true);
+        }
+
+        static ScheduledExecutorService get() {
+            return timer;
+        }
+    }
+
     static class ProxyWrap extends ProxySelector {
         // empty list for no proxy:
         static final List<Proxy> NoProxy = new ArrayList<>(0);
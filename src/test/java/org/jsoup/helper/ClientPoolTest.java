@@ -0,0 +1,63 @@
+package org.jsoup.helper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClientPoolTest {
+    @Test void reusesClientForSameSettings() {
+        ClientPool pool = new ClientPool(4);
+        Object auth = new Object();
+        Object ssl = new Object();
+        ClientPool.Entry a = pool.client(auth, ssl, Object::new);
+        assertSame(a, pool.client(auth, ssl, Object::new));
+        assertNotSame(a, pool.client(auth, null, Object::new));
+        assertNotSame(a, pool.client(null, ssl, Object::new));
+        assertNotSame(a, pool.client(new Object(), ssl, Object::new)); // by identity
+        assertEquals(4, pool.size());
+        assertEquals(4, pool.clientCreatedCount());
+    }
+
+    @Test void evictsLeastRecentlyUsed() {
+        ClientPool pool = new ClientPool(2);
+        Object one = new Object(), two = new Object(), three = new Object();
+        ClientPool.Entry first = pool.client(one, null, Object::new);
+        pool.client(two, null, Object::new);
+        pool.client(one, null, Object::new); // touch one, so two is the eldest
+        pool.client(three, null, Object::new);
+
+        assertEquals(2, pool.size());
+        assertEquals(1, pool.evictionCount());
+        assertSame(first, pool.client(one, null, Object::new));
+        assertEquals(3, pool.clientCreatedCount());
+
+        pool.maxSize(1);
+        assertEquals(1, pool.size());
+        assertEquals(2, pool.evictionCount());
+        assertThrows(IllegalArgumentException.class, () -> pool.maxSize(0));
+    }
+
+    @Test void countsReusedConnectionsAndStreams() {
+        ClientPool pool = new ClientPool(2);
+        ClientPool.Entry entry = pool.client(null, null, Object::new);
+        entry.exchanged("https://example.com", true);
+        entry.exchanged("https://example.com", true);
+        entry.exchanged("https://example.com", true);
+        entry.exchanged("http://example.com", false);
+        entry.exchanged("http://example.com", false);
+
+        assertEquals(5, pool.requestCount());
+        assertEquals(3, pool.connectionReuseCount());
+        assertEquals(2, pool.multiplexedCount());
+
+        // a new client has its own connections
+        ClientPool.Entry other = pool.client(new Object(), null, Object::new);
+        other.exchanged("https://example.com", true);
+        assertEquals(3, pool.connectionReuseCount());
+
+        pool.resetStats();
+        assertEquals(0, pool.requestCount());
+        assertEquals(0, pool.clientCreatedCount());
+        assertEquals(2, pool.size());
+    }
+}
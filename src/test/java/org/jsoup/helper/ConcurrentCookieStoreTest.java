@@ -0,0 +1,145 @@
+package org.jsoup.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentCookieStoreTest {
+    private static void setCookie(CookieManager manager, String uri, String header) throws IOException {
+        manager.put(URI.create(uri), Collections.singletonMap("Set-Cookie", Collections.singletonList(header)));
+    }
+
+    private static String cookieHeader(CookieManager manager, String uri) throws IOException {
+        Map<String, List<String>> headers = manager.get(URI.create(uri), Collections.emptyMap());
+        List<String> cookies = headers.get("Cookie");
+        if (cookies == null) return "";
+        cookies = new ArrayList<>(cookies);
+        Collections.sort(cookies); // the manager orders by path then creation time, which may tie
+        return String.join("; ", cookies);
+    }
+
+    private static List<String> names(List<HttpCookie> cookies) {
+        List<String> names = new ArrayList<>();
+        for (HttpCookie cookie : cookies) names.add(cookie.getName());
+        Collections.sort(names);
+        return names;
+    }
+
+    @Test void matchesDomainsAndParentDomains() throws IOException {
+        ConcurrentCookieStore store = new ConcurrentCookieStore();
+        CookieManager manager = new CookieManager(store, null);
+        setCookie(manager, "https://www.example.com/", "Host=1");
+        setCookie(manager, "https://www.example.com/", "Parent=2; Domain=.example.com");
+        setCookie(manager, "https://www.example.com/", "Secure=3; Secure");
+        setCookie(manager, "http://localhost/", "Local=4");
+
+        assertEquals("Host=1; Parent=2; Secure=3", cookieHeader(manager, "https://www.example.com/"));
+        assertEquals("Host=1; Parent=2", cookieHeader(manager, "http://www.example.com/"));
+        assertEquals("Parent=2", cookieHeader(manager, "https://api.example.com/"));
+        assertEquals("", cookieHeader(manager, "https://badexample.com/"));
+        assertEquals("Local=4", cookieHeader(manager, "http://localhost:8080/"));
+        assertEquals(4, store.size());
+        assertEquals(4, store.getCookies().size());
+        assertEquals(2, store.getURIs().size()); // https://www.example.com, http://localhost
+    }
+
+    @Test void replacesAndDeletesCookies() throws IOException {
+        ConcurrentCookieStore store = new ConcurrentCookieStore();
+        CookieManager manager = new CookieManager(store, null);
+        setCookie(manager, "https://example.com/", "One=1");
+        setCookie(manager, "https://example.com/", "One=2");
+        setCookie(manager, "https://example.com/", "Two=2");
+        assertEquals("One=2; Two=2", cookieHeader(manager, "https://example.com/"));
+        assertEquals(2, store.size());
+
+        setCookie(manager, "https://example.com/", "One=; Max-Age=0");
+        assertEquals("Two=2", cookieHeader(manager, "https://example.com/"));
+
+        HttpCookie two = store.getCookies().get(0);
+        assertTrue(store.remove(null, two));
+        assertFalse(store.remove(null, two));
+        assertEquals(0, store.size());
+        assertFalse(store.removeAll());
+    }
+
+    @Test void sweepsExpiredCookies() {
+        ConcurrentCookieStore store = new ConcurrentCookieStore();
+        URI uri = URI.create("https://example.com/");
+        List<HttpCookie> cookies = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            HttpCookie cookie = new HttpCookie("c" + i, "v");
+            cookie.setDomain("example.com");
+            cookie.setPath("/");
+            store.add(uri, cookie);
+            cookies.add(cookie);
+        }
+        cookies.get(0).setMaxAge(0); // now expired
+        cookies.get(1).setMaxAge(0);
+        assertEquals(8, store.get(uri).size()); // expired cookies are removed when seen
+        assertEquals(8, store.size());
+
+        cookies.get(2).setMaxAge(0);
+        assertEquals(1, store.sweepExpired());
+        assertEquals(7, store.size());
+    }
+
+    @Test void capsCookiesPerDomainAndInTotal() {
+        ConcurrentCookieStore store = new ConcurrentCookieStore(4, 10, 3);
+        for (int i = 0; i < 5; i++) {
+            HttpCookie cookie = new HttpCookie("c" + i, "v");
+            cookie.setDomain("a.example");
+            store.add(null, cookie);
+        }
+        assertEquals("[c2, c3, c4]", names(store.get(URI.create("https://a.example/"))).toString()); // oldest evicted
+        assertEquals(2, store.evictionCount());
+
+        for (int i = 0; i < 20; i++) {
+            HttpCookie cookie = new HttpCookie("d" + i, "v");
+            cookie.setDomain("host" + i + ".example");
+            store.add(null, cookie);
+            assertEquals(1, store.get(URI.create("https://host" + i + ".example/")).size()); // the new cookie is kept
+        }
+        assertEquals(10, store.size());
+        assertEquals(10, store.getCookies().size());
+        assertEquals(15, store.evictionCount());
+        assertEquals(1, store.get(URI.create("https://host19.example/")).size());
+    }
+
+    @Test void concurrentUse() throws Exception {
+        ConcurrentCookieStore store = new ConcurrentCookieStore();
+        CookieManager manager = new CookieManager(store, null);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        String uri = "https://host" + (i % 50) + ".example/";
+                        setCookie(manager, uri, "t" + thread + "=" + i);
+                        assertTrue(cookieHeader(manager, uri).contains("t" + thread + "="));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) future.get(20, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(8 * 50, store.size()); // each thread's cookie per host, replaced on each set
+        assertEquals(store.size(), store.getCookies().size());
+    }
+}
@@ -7,6 +7,7 @@ import org.jsoup.nodes.Document;
 import org.jsoup.parser.Parser;
 import org.jsoup.parser.StreamParser;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.*;
 import java.nio.ByteBuffer;
@@ -447,4 +448,49 @@ public class DataUtilTest {
         assertEquals("Two", doc.body().text());
     }
 
+    @Test void loadMappedMatchesLoad() throws IOException {
+        String[] files = {"/htmltests/large.html", "/htmltests/meta-charset-1.html", "/htmltests/lowercase-charset-test.html",
+            "/htmltests/charset-base.html", "/bomtests/bom_utf8.html", "/bomtests/bom_utf16be.html", "/bomtests/bom_utf16le.html",
+            "/bomtests/bom_utf32be.html", "/bomtests/bom_utf32le.html", "/htmltests/gzip.html.gz", "/bomtests/bom_utf8.html.gz"};
+        for (String file : files) {
+            Path in = getPath(file);
+            Document expected = DataUtil.load(in, null, "http://example.com/", Parser.htmlParser());
+            Document mapped = DataUtil.loadMapped(in, null, "http://example.com/", Parser.htmlParser());
+            assertTrue(expected.hasSameValue(mapped), file);
+            assertEquals(expected.charset(), mapped.charset(), file);
+
+            Document streamed = DataUtil.streamParserMapped(in, null, "http://example.com/", Parser.htmlParser()).complete();
+            assertTrue(expected.hasSameValue(streamed), file);
+        }
+    }
+
+    @Test void loadMappedRedecodesLargeFileWithMetaCharset(@TempDir Path dir) throws IOException {
+        // larger than the sniff buffer, so the mapped reader decodes the full file with the detected charset
+        StringBuilder sb = new StringBuilder("<html><head><meta charset=\"ISO-8859-1\"><title>Hellö</title></head><body>");
+        while (sb.length() < 20000)
+            sb.append("<p>Wörld ünd Ärger</p>\n");
+        sb.append("<p id=last>Ende ß</p></body></html>");
+        Path in = dir.resolve("latin1.html");
+        Files.write(in, sb.toString().getBytes(StandardCharsets.ISO_8859_1));
+
+        Document doc = DataUtil.loadMapped(in, null, "", Parser.htmlParser());
+        assertEquals("ISO-8859-1", doc.charset().name());
+        assertEquals("Hellö", doc.title());
+        assertEquals("Ende ß", doc.expectFirst("#last").text());
+        assertTrue(doc.hasSameValue(DataUtil.load(in, null, "", Parser.htmlParser())));
+
+        try (StreamParser parser = DataUtil.streamParserMapped(in, null, "", Parser.htmlParser())) {
+            assertEquals("Ende ß", parser.selectFirst("#last").text());
+        }
+
+        // a supplied charset is used (no BOM to override it)
+        Document asUtf8 = DataUtil.loadMapped(in, "UTF-8", "", Parser.htmlParser());
+        assertEquals("Hell\uFFFD", asUtf8.title());
+    }
+
+    @Test void loadMappedEmptyFile(@TempDir Path dir) throws IOException {
+        Path in = Files.createFile(dir.resolve("empty.html"));
+        Document doc = DataUtil.loadMapped(in, null, "", Parser.htmlParser());
+        assertEquals("", doc.body().html());
+    }
 }
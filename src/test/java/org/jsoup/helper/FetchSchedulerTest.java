@@ -0,0 +1,188 @@
+package org.jsoup.helper;
+
+import org.jsoup.Connection;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+import static org.jsoup.integration.TestServer.origin;
+import static org.jsoup.integration.TestServer.start;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FetchSchedulerTest {
+    /** A fetch that records which requests were started, and is completed by the test. */
+    static class Fetches implements Function<Connection, CompletableFuture<String>> {
+        final List<String> started = new ArrayList<>();
+        final List<CompletableFuture<String>> futures = new ArrayList<>();
+
+        @Override public synchronized CompletableFuture<String> apply(Connection con) {
+            String url = con.request().url().toExternalForm();
+            started.add(url.substring(url.indexOf("//") + 2));
+            CompletableFuture<String> future = new CompletableFuture<>();
+            futures.add(future);
+            return future;
+        }
+
+        synchronized String started() {
+            return String.join(",", started);
+        }
+
+        synchronized void complete(int i) {
+            futures.get(i).complete(started.get(i));
+        }
+    }
+
+    @Test void limitsConcurrencyPerHost() throws Exception {
+        FetchScheduler scheduler = new FetchScheduler().maxPerHost(2);
+        Fetches fetches = new Fetches();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            results.add(scheduler.submit(Jsoup.connect("http://a.example/" + i), fetches));
+        results.add(scheduler.submit(Jsoup.connect("http://b.example/0"), fetches));
+
+        assertEquals("a.example/0,a.example/1,b.example/0", fetches.started());
+        FetchScheduler.HostStats a = scheduler.stats().get("a.example");
+        assertEquals(2, a.inFlight());
+        assertEquals(2, a.queued());
+        assertEquals(2, a.peakQueued());
+
+        fetches.complete(0);
+        assertEquals("a.example/0", results.get(0).get());
+        assertEquals("a.example/0,a.example/1,b.example/0,a.example/2", fetches.started());
+        assertEquals(1, scheduler.stats().get("a.example").completed());
+    }
+
+    @Test void servesHostsRoundRobin() {
+        FetchScheduler scheduler = new FetchScheduler().maxConcurrent(1);
+        Fetches fetches = new Fetches();
+        for (int i = 0; i < 3; i++)
+            scheduler.submit(Jsoup.connect("http://a.example/" + i), fetches);
+        scheduler.submit(Jsoup.connect("http://b.example/0"), fetches);
+        scheduler.submit(Jsoup.connect("http://c.example/0"), fetches);
+
+        for (int i = 0; i < 4; i++)
+            fetches.complete(i);
+        // a deep queue on one host doesn't hold back the others
+        assertEquals("a.example/0,a.example/1,b.example/0,c.example/0,a.example/2", fetches.started());
+    }
+
+    @Test void limitsRatePerHost() throws Exception {
+        FetchScheduler scheduler = new FetchScheduler().maxPerHost(10).ratePerHost(20); // one per 50ms
+        long start = System.nanoTime();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            results.add(scheduler.submit(Jsoup.connect("http://a.example/" + i), con -> CompletableFuture.completedFuture("ok")));
+        results.add(scheduler.submit(Jsoup.connect("http://b.example/"), con -> CompletableFuture.completedFuture("ok")));
+        assertTrue(results.get(4).isDone()); // other hosts aren't limited by a
+        for (CompletableFuture<String> result : results)
+            assertEquals("ok", result.get());
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(millis >= 140, "took " + millis); // three waits of 50ms after the first
+        FetchScheduler.HostStats a = scheduler.stats().get("a.example");
+        assertEquals(4, a.completed());
+        long waited = 0;
+        for (long count : a.queueWaitHistogram()) waited += count;
+        assertEquals(4, waited);
+        assertEquals(FetchScheduler.histogramBoundsMillis().length + 1, a.latencyHistogram().length);
+        scheduler.close();
+    }
+
+    @Test void recordsFailuresAndCancels() {
+        FetchScheduler scheduler = new FetchScheduler().maxPerHost(1);
+        CompletableFuture<String> failed = scheduler.submit(Jsoup.connect("http://a.example/"), con -> {
+            throw new IllegalStateException("Boom");
+        });
+        assertTrue(failed.isCompletedExceptionally());
+
+        Fetches fetches = new Fetches();
+        CompletableFuture<String> first = scheduler.submit(Jsoup.connect("http://a.example/1"), fetches);
+        CompletableFuture<String> cancelled = scheduler.submit(Jsoup.connect("http://a.example/2"), fetches);
+        CompletableFuture<String> queued = scheduler.submit(Jsoup.connect("http://a.example/3"), fetches);
+        cancelled.cancel(false);
+        fetches.complete(0);
+        assertEquals("a.example/1,a.example/3", fetches.started()); // the cancelled request isn't run
+
+        CompletableFuture<String> pending = scheduler.submit(Jsoup.connect("http://a.example/4"), fetches);
+        scheduler.close();
+        assertThrows(CancellationException.class, pending::join);
+        assertFalse(queued.isDone()); // in flight requests continue
+        assertThrows(IllegalStateException.class, () -> scheduler.submit(Jsoup.connect("http://a.example/"), fetches));
+
+        Map<String, FetchScheduler.HostStats> stats = scheduler.stats();
+        assertEquals(1, stats.get("a.example").failed());
+        assertTrue(first.isDone());
+    }
+
+    @Test void dropsIdleHosts() {
+        FetchScheduler scheduler = new FetchScheduler().maxIdleHosts(1);
+        Fetches fetches = new Fetches();
+        scheduler.submit(Jsoup.connect("http://a.example/"), fetches);
+        scheduler.submit(Jsoup.connect("http://b.example/"), fetches);
+        fetches.complete(0);
+        fetches.complete(1);
+        assertEquals("[a.example, b.example]", scheduler.stats().keySet().toString());
+
+        scheduler.submit(Jsoup.connect("http://c.example/"), fetches); // drops the least recently idle
+        assertEquals("[b.example, c.example]", scheduler.stats().keySet().toString());
+        scheduler.submit(Jsoup.connect("http://b.example/1"), fetches); // b is no longer idle, so is retained
+        scheduler.submit(Jsoup.connect("http://d.example/"), fetches);
+        assertEquals("[b.example, c.example, d.example]", scheduler.stats().keySet().toString());
+        assertEquals(1, scheduler.stats().get("b.example").completed());
+
+        // a host whose rate limit has not recovered is retained, so a new submission can't exceed the rate
+        FetchScheduler limited = new FetchScheduler().maxIdleHosts(0).ratePerHost(0.1);
+        Fetches limitedFetches = new Fetches();
+        limited.submit(Jsoup.connect("http://a.example/"), limitedFetches);
+        limitedFetches.complete(0);
+        limited.submit(Jsoup.connect("http://b.example/"), limitedFetches);
+        assertEquals("[a.example, b.example]", limited.stats().keySet().toString());
+    }
+
+    @Test void drainsCompletedFetchesWithoutRecursing() throws Exception {
+        // fetches that are already complete (e.g. cache hits) start the next from within the dispatch; a deep queue
+        // must be drained in a loop and not a recursion, which would overflow the stack
+        FetchScheduler scheduler = new FetchScheduler().maxPerHost(1);
+        Fetches fetches = new Fetches();
+        scheduler.submit(Jsoup.connect("http://a.example/"), fetches); // holds the host until completed
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        int count = 5000;
+        for (int i = 0; i < count; i++)
+            results.add(scheduler.submit(Jsoup.connect("http://a.example/" + i), con -> CompletableFuture.completedFuture("ok")));
+        assertEquals(count, scheduler.stats().get("a.example").queued());
+
+        Thread thread = new Thread(null, () -> fetches.complete(0), "small-stack", 256 * 1024);
+        thread.start();
+        thread.join();
+        for (CompletableFuture<String> result : results)
+            assertEquals("ok", result.getNow("not done"));
+        FetchScheduler.HostStats a = scheduler.stats().get("a.example");
+        assertEquals(count + 1, a.completed());
+        assertEquals(0, a.inFlight());
+        assertEquals(0, a.queued());
+    }
+
+    @Test void fetchesFromServer() throws ExecutionException, InterruptedException {
+        start();
+        Connection session = Jsoup.newSession();
+        try (FetchScheduler scheduler = new FetchScheduler().maxPerHost(2)) {
+            List<CompletableFuture<Document>> docs = new ArrayList<>();
+            for (int i = 0; i < 6; i++)
+                docs.add(scheduler.get(session.newRequest(origin().hello.url())));
+            for (CompletableFuture<Document> doc : docs)
+                assertEquals("Hello, World!", doc.get().selectFirst("p").text());
+
+            FetchScheduler.HostStats stats = scheduler.stats().values().iterator().next();
+            assertEquals(6, stats.completed());
+            assertEquals(0, stats.inFlight());
+        }
+    }
+}
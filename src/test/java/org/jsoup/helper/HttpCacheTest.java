@@ -0,0 +1,77 @@
+package org.jsoup.helper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpCacheTest {
+    private static HttpCache.Entry entry(String url, String body, String... headers) {
+        Map<String, List<String>> map = new LinkedHashMap<>();
+        for (int i = 0; i < headers.length; i += 2)
+            map.put(headers[i], Collections.singletonList(headers[i + 1]));
+        return new HttpCache.Entry(url, map, body.getBytes(StandardCharsets.UTF_8), 1000);
+    }
+
+    @Test void memoryStorageEvictsLeastRecentlyUsed() throws IOException {
+        HttpCache.Storage storage = HttpCache.memory(2).storage();
+        storage.store("a", entry("a", "A"));
+        storage.store("b", entry("b", "B"));
+        assertNotNull(storage.load("a")); // b is now least recently used
+        storage.store("c", entry("c", "C"));
+
+        assertNull(storage.load("b"));
+        assertNotNull(storage.load("a"));
+        assertNotNull(storage.load("c"));
+        storage.remove("a");
+        assertNull(storage.load("a"));
+    }
+
+    @Test void directoryStorageRoundTrips(@TempDir Path dir) throws IOException {
+        HttpCache.Storage storage = HttpCache.directory(dir.resolve("cache")).storage();
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put("ETag", Collections.singletonList("\"x\""));
+        headers.put("Vary", Arrays.asList("Accept", "Cookie"));
+        storage.store("https://example.com/ü", new HttpCache.Entry("https://example.com/ü", headers, "Hello ü".getBytes(StandardCharsets.UTF_8), 1234));
+        assertNull(storage.load("https://example.com/other"));
+
+        HttpCache.Entry loaded = HttpCache.directory(dir.resolve("cache")).storage().load("https://example.com/ü");
+        assertNotNull(loaded);
+        assertEquals("https://example.com/ü", loaded.url());
+        assertEquals(headers, loaded.headers());
+        assertEquals("Hello ü", new String(loaded.body(), StandardCharsets.UTF_8));
+        assertEquals(1234, loaded.storedAt());
+
+        storage.store("https://example.com/ü", entry("https://example.com/ü", "Updated"));
+        assertEquals("Updated", new String(storage.load("https://example.com/ü").body(), StandardCharsets.UTF_8));
+        try (Stream<Path> files = Files.list(dir.resolve("cache"))) {
+            assertEquals(1, files.count()); // replaced in place, with no temp files left
+        }
+        storage.remove("https://example.com/ü");
+        assertNull(storage.load("https://example.com/ü"));
+    }
+
+    @Test void freshnessLifetime() {
+        assertEquals(60_000, entry("u", "", "Cache-Control", "public, max-age=60").freshnessLifetime());
+        assertEquals(0, entry("u", "", "Cache-Control", "max-age=junk").freshnessLifetime());
+        assertEquals(3_600_000, entry("u", "",
+            "Date", "Thu, 01 Jan 2026 00:00:00 GMT",
+            "Expires", "Thu, 01 Jan 2026 01:00:00 GMT").freshnessLifetime());
+        assertEquals(60_000, entry("u", "", // max-age takes precedence
+            "Cache-Control", "max-age=60",
+            "Expires", "Thu, 01 Jan 2026 01:00:00 GMT").freshnessLifetime());
+        assertEquals(0, entry("u", "", "Expires", "0").freshnessLifetime());
+        assertEquals(0, entry("u", "", "ETag", "\"x\"").freshnessLifetime()); // no heuristic freshness
+    }
+}
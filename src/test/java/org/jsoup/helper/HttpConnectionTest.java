@@ -95,6 +95,19 @@ public class HttpConnectionTest {
         assertEquals("deflate", res.header("accept-Encoding"));
     }
 
+    @Test public void decodersUpdateAcceptEncoding() {
+        Connection con = HttpConnection.connect("http://example.com");
+        assertEquals("gzip", con.request().header("Accept-Encoding"));
+
+        con.decoder("BR", encoded -> encoded).decoder("zstd", encoded -> encoded);
+        assertEquals("gzip, br, zstd", con.request().header("Accept-Encoding"));
+        assertEquals("gzip, br, zstd", con.newRequest().request().header("Accept-Encoding"));
+
+        // an explicitly set header is kept
+        con.header("Accept-Encoding", "identity").decoder("deflate", ContentDecoder.Deflate);
+        assertEquals("identity", con.request().header("Accept-Encoding"));
+    }
+
     @Test public void headers() {
         Connection con = HttpConnection.connect("http://example.com");
         Map<String, String> headers = new HashMap<>();
@@ -18,6 +18,8 @@ import java.io.UncheckedIOException;
 import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.jsoup.integration.TestServer.origin;
@@ -133,6 +135,19 @@ public class ConnectIT {
         assertTrue(took >= TimeoutMillis - 100, ("Time taken was " + took));
     }
 
+    @Test
+    @Execution(CONCURRENT)
+    public void asyncTotalTimeout() {
+        // the buffered async request reads the body before completing, so the timeout must cover that read
+        long start = System.currentTimeMillis();
+        ExecutionException e = assertThrows(ExecutionException.class,
+            () -> slowRiderTimeout().timeout(TimeoutMillis).getAsync().get(TimeoutMillis * 4, TimeUnit.MILLISECONDS));
+        assertInstanceOf(SocketTimeoutException.class, e.getCause());
+
+        long took = System.currentTimeMillis() - start;
+        assertTrue(took >= TimeoutMillis - 100, ("Time taken was " + took));
+    }
+
     @Test
     @Execution(CONCURRENT)
     public void slowReadOk() throws IOException {
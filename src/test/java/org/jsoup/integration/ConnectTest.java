@@ -7,11 +7,15 @@ import org.jsoup.Connection.Method;
 import org.jsoup.TextUtil;
 import org.jsoup.UnsupportedMimeTypeException;
 import org.jsoup.helper.DataUtil;
+import org.jsoup.helper.HttpCache;
 import org.jsoup.helper.W3CDom;
+import org.jsoup.integration.routes.CacheRoute;
+import org.jsoup.integration.routes.DeflateRoute;
 import org.jsoup.integration.routes.EchoRoute;
 import org.jsoup.integration.routes.FileRoute;
 import org.jsoup.integration.routes.InterruptedRoute;
 import org.jsoup.integration.routes.RedirectRoute;
+import org.jsoup.integration.routes.SlowRider;
 import org.jsoup.internal.SharedConstants;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -25,6 +29,7 @@ import org.jsoup.parser.XmlTreeBuilder;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -41,11 +46,18 @@ import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static org.jsoup.helper.AuthenticationHandlerTest.MaxAttempts;
 import static org.jsoup.helper.HttpConnection.CONTENT_TYPE;
@@ -600,6 +612,237 @@ public class ConnectTest {
         assertEquals("there", ihVal("Hello", doc));
     }
 
+    @Test public void getAsync() throws Exception {
+        Connection con = Jsoup.connect(origin().hello.url());
+        Document doc = con.getAsync().get();
+        assertEquals("Hello, World!", doc.selectFirst("p").text());
+        assertEquals(200, con.response().statusCode());
+    }
+
+    @Test public void postAsyncFollowsRedirect() throws Exception {
+        Document doc = Jsoup.connect(origin().redirect.url())
+            .data("Hello", "there")
+            .data(RedirectRoute.LocationParam, origin().echo.url())
+            .data(RedirectRoute.CodeParam, "307")
+            .postAsync()
+            .get();
+
+        assertEquals(origin().echo.url(), doc.location());
+        assertEquals("POST", ihVal("Method", doc));
+        assertEquals("there", ihVal("Hello", doc));
+    }
+
+    @Test public void asyncHttpErrorCompletesExceptionally() {
+        Connection con = Jsoup.connect(origin().echo.url()).header(EchoRoute.CodeParam, "404");
+        ExecutionException e = assertThrows(ExecutionException.class, () -> con.getAsync().get());
+        HttpStatusException cause = (HttpStatusException) e.getCause();
+        assertEquals(404, cause.getStatusCode());
+    }
+
+    @Test public void asyncUsesExecutor() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        AtomicInteger tasks = new AtomicInteger();
+        try {
+            Connection.Response res = Jsoup.connect(origin().hello.url())
+                .executor(task -> {
+                    tasks.incrementAndGet();
+                    pool.execute(task);
+                })
+                .executeAsync()
+                .thenApplyAsync(r -> r, pool) // body is buffered, so can be read on any thread
+                .get();
+            assertTrue(res.body().contains("Hello, World!"));
+            assertTrue(tasks.get() <= 1); // only used if the request blocks
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test public void asyncCapsEncodedBody() throws Exception {
+        // the deflated stream doesn't end (until the server's max time), so can only complete if the buffer is capped
+        long start = System.currentTimeMillis();
+        Connection.Response res = Jsoup.connect(origin().deflate.url())
+            .data(DeflateRoute.StreamParam, "true")
+            .maxBodySize(10_000)
+            .timeout(5_000)
+            .executeAsync()
+            .get();
+        assertEquals("deflate", res.header("Content-Encoding"));
+        byte[] body = res.bodyAsBytes();
+        assertEquals(10_000, body.length);
+        assertTrue(new String(body, StandardCharsets.UTF_8).startsWith("<p>"));
+        assertTrue(System.currentTimeMillis() - start < 5_000);
+    }
+
+    @Test public void concurrentAsyncRequests() throws Exception {
+        Connection session = Jsoup.newSession();
+        List<CompletableFuture<Document>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+            futures.add(session.newRequest(origin().hello.url()).getAsync());
+        for (CompletableFuture<Document> future : futures)
+            assertEquals("Hello, World!", future.get().selectFirst("p").text());
+    }
+
+    @Test public void streamParserAsync() throws Exception {
+        Connection con = Jsoup.connect(origin().redirect.url())
+            .data(RedirectRoute.LocationParam, origin().hello.url());
+        try (StreamParser streamer = con.streamParserAsync().get()) {
+            assertEquals("Hello, World!", streamer.selectFirst("p").text());
+            assertEquals(origin().hello.url(), streamer.document().location());
+        }
+        assertEquals(200, con.response().statusCode());
+    }
+
+    @Test public void streamParserAsyncReturnsBeforeBodyCompletes() throws Exception {
+        // the slow rider never completes its body; so the selects can only return if parsed as the body arrives
+        Connection con = Jsoup.connect(origin().slowRider.url())
+            .data(SlowRider.StartDelayParam, "0")
+            .data(SlowRider.IntroSizeParam, "4000")
+            .data(SlowRider.IntervalParam, "200");
+        long start = System.currentTimeMillis();
+        try (StreamParser streamer = con.streamParserAsync().get()) {
+            assertEquals("Slow Rider", streamer.selectFirst("title").text());
+            assertNotNull(streamer.selectNext("p"));
+        } // closing the parser abandons the rest of the download
+        assertTrue(System.currentTimeMillis() - start < 5000);
+    }
+
+    @Test public void usesRegisteredDecoders() throws IOException {
+        AtomicInteger decoded = new AtomicInteger();
+        Connection session = Jsoup.newSession()
+            .decoder("gzip", encoded -> {
+                decoded.incrementAndGet();
+                return new GZIPInputStream(encoded);
+            })
+            .decoder("br", encoded -> encoded);
+
+        Document echo = session.newRequest(echoUrl).get();
+        assertEquals("gzip, br", ihVal("Accept-Encoding", echo));
+
+        Connection.Response res = session.newRequest(origin().file.url("/htmltests/xwiki-1324.html.gz")).execute();
+        assertEquals("gzip", res.header("Content-Encoding"));
+        assertEquals("XWiki Jetty HSQLDB 12.1-SNAPSHOT", res.parse().select("#xwikiplatformversion").text());
+        assertEquals(1, decoded.get());
+
+        // the max body size applies to the decoded body
+        Connection.Response capped = session.newRequest(origin().file.url("/htmltests/xwiki-1324.html.gz"))
+            .maxBodySize(1000).execute();
+        assertEquals(1000, capped.bodyAsBytes().length);
+    }
+
+    private static String cacheUrl(String key, String params) {
+        return origin().cache.url() + "?" + CacheRoute.KeyParam + "=" + key + params;
+    }
+
+    @Test public void cacheRevalidatesWithETag() throws IOException {
+        String key = UUID.randomUUID().toString();
+        HttpCache cache = HttpCache.memory(10);
+        Connection session = Jsoup.newSession().cache(cache);
+
+        Document doc = session.newRequest(cacheUrl(key, "")).get();
+        assertEquals("Version 1", doc.text());
+        doc.select("p").remove(); // served docs are clones
+
+        Connection revalidated = session.newRequest(cacheUrl(key, ""));
+        Document cachedDoc = revalidated.get();
+        assertEquals("Version 1", cachedDoc.text());
+        assertEquals(200, revalidated.response().statusCode());
+        assertEquals("\"v1\"", revalidated.response().header("ETag"));
+        assertNotSame(doc, cachedDoc);
+        assertSame(revalidated.response(), cachedDoc.connection().response());
+        assertEquals("<p>Version 1</p>", session.newRequest(cacheUrl(key, "")).execute().body());
+        assertEquals(1, cache.missCount());
+        assertEquals(2, cache.revalidatedCount());
+        assertEquals(0, cache.hitCount());
+
+        CacheRoute.version(key, 2);
+        assertEquals("Version 2", session.newRequest(cacheUrl(key, "")).get().text());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test public void cacheServesFreshResponses() throws IOException {
+        String key = UUID.randomUUID().toString();
+        HttpCache cache = HttpCache.memory(10);
+        Connection session = Jsoup.newSession().cache(cache);
+        String url = cacheUrl(key, "&" + CacheRoute.CacheControlParam + "=max-age=60");
+
+        assertEquals("Version 1", session.newRequest(url).get().text());
+        CacheRoute.version(key, 2);
+        assertEquals("Version 1", session.newRequest(url).get().text()); // fresh, so not revalidated
+        assertEquals(1, cache.hitCount());
+
+        assertEquals("Version 2", session.newRequest(url).header("Cache-Control", "no-cache").get().text());
+        assertEquals(2, cache.missCount());
+
+        // not stored if no-store
+        String noStore = cacheUrl(key, "&" + CacheRoute.CacheControlParam + "=no-store");
+        session.newRequest(noStore).get();
+        session.newRequest(noStore).get();
+        assertEquals(4, cache.missCount());
+        assertEquals(1, cache.hitCount());
+        assertEquals(0, cache.revalidatedCount());
+    }
+
+    @Test public void cacheDoesNotStoreAuthorizedResponses() throws IOException {
+        String key = UUID.randomUUID().toString();
+        HttpCache cache = HttpCache.memory(10);
+        Connection session = Jsoup.newSession().cache(cache);
+        String url = cacheUrl(key, "&" + CacheRoute.CacheControlParam + "=max-age=60");
+
+        assertEquals("Version 1", session.newRequest(url).header("Authorization", "Bearer one").get().text());
+        CacheRoute.version(key, 2);
+        assertEquals("Version 2", session.newRequest(url).get().text()); // not served another's authorized response
+        assertEquals(0, cache.hitCount());
+        assertEquals(0, cache.revalidatedCount());
+
+        // unless marked as sharable
+        String publicUrl = cacheUrl(key, "&" + CacheRoute.CacheControlParam + "=public,max-age=60");
+        assertEquals("Version 2", session.newRequest(publicUrl).header("Authorization", "Bearer one").get().text());
+        CacheRoute.version(key, 3);
+        assertEquals("Version 2", session.newRequest(publicUrl).get().text());
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test public void cacheDoesNotStoreTruncatedBodies() throws IOException {
+        String key = UUID.randomUUID().toString();
+        HttpCache cache = HttpCache.memory(10);
+        Connection session = Jsoup.newSession().cache(cache);
+
+        Connection.Response capped = session.newRequest(cacheUrl(key, "")).maxBodySize(10).execute();
+        assertEquals("<p>Version", capped.body());
+        assertEquals(1, cache.missCount());
+
+        // not stored, so not revalidated and served truncated
+        assertEquals("Version 1", session.newRequest(cacheUrl(key, "")).get().text());
+        assertEquals(2, cache.missCount());
+        assertEquals(0, cache.revalidatedCount());
+        assertEquals("Version 1", session.newRequest(cacheUrl(key, "")).maxBodySize(0).get().text());
+        assertEquals(1, cache.revalidatedCount());
+    }
+
+    @Test public void directoryCacheRevalidatesWithLastModified(@TempDir Path dir) throws IOException {
+        String key = UUID.randomUUID().toString();
+        String url = cacheUrl(key, "&" + CacheRoute.LastModifiedParam + "=1");
+        Jsoup.newSession().cache(HttpCache.directory(dir)).newRequest(url).get();
+
+        HttpCache cache = HttpCache.directory(dir); // a later session, reading the stored entry
+        Connection con = Jsoup.newSession().cache(cache).newRequest(url);
+        assertEquals("Version 1", con.get().text());
+        assertEquals(1, cache.revalidatedCount());
+        assertEquals("Thu, 01 Jan 1970 00:00:01 GMT", con.response().header("Last-Modified"));
+    }
+
+    @Test public void asyncUsesCache() throws Exception {
+        String key = UUID.randomUUID().toString();
+        HttpCache cache = HttpCache.memory(10);
+        Connection session = Jsoup.newSession().cache(cache);
+
+        assertEquals("Version 1", session.newRequest(cacheUrl(key, "")).getAsync().get().text());
+        assertEquals("Version 1", session.newRequest(cacheUrl(key, "")).getAsync().get().text());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.revalidatedCount());
+    }
+
     @Test public void getUtf8Bom() throws IOException {
         Connection con = Jsoup.connect(origin().file.url("/bomtests/bom_utf8.html"));
         Document doc = con.get();
@@ -83,8 +83,9 @@ public class TestServer {
         public final Endpoint deflate = new Endpoint("/Deflate", DeflateRoute::handle);
         public final Endpoint interrupted = new Endpoint("/Interrupted", InterruptedRoute::handle);
         public final Endpoint slowRider = new Endpoint("/SlowRider", SlowRider::handle);
+        public final Endpoint cache = new Endpoint("/Cache", CacheRoute::handle);
         private final List<Endpoint> endpoints = Collections.unmodifiableList(Arrays.asList(
-            hello, echo, file, redirect, cookie, deflate, interrupted, slowRider));
+            hello, echo, file, redirect, cookie, deflate, interrupted, slowRider, cache));
 
         private Origin() {
         }
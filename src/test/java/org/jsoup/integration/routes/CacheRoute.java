@@ -0,0 +1,61 @@
+package org.jsoup.integration.routes;
+
+import org.jsoup.integration.netty.TestRequest;
+import org.jsoup.integration.netty.TestResponse;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class CacheRoute {
+    public static final String KeyParam = "key";
+    public static final String CacheControlParam = "cacheControl";
+    public static final String LastModifiedParam = "lastModified"; // validate with Last-Modified instead of ETag
+    private static final String TextHtml = "text/html; charset=UTF-8";
+    private static final Map<String, Integer> versions = new ConcurrentHashMap<>();
+
+    private CacheRoute() {
+    }
+
+    /**
+     Sets the current version of the resource for the key, which changes its validators
+     */
+    public static void version(String key, int version) {
+        versions.put(key, version);
+    }
+
+    /**
+     Serves a versioned page with validators, and replies 304 Not Modified to a matching conditional request
+     */
+    public static void handle(TestRequest req, TestResponse res) {
+        String key = req.parameter(KeyParam);
+        int version = key != null ? versions.getOrDefault(key, 1) : 1;
+
+        boolean notModified;
+        if (req.parameter(LastModifiedParam) != null) {
+            SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+            format.setTimeZone(TimeZone.getTimeZone("GMT"));
+            String lastModified = format.format(new Date(version * 1000L));
+            res.setHeader("Last-Modified", lastModified);
+            notModified = lastModified.equals(req.header("If-Modified-Since"));
+        } else {
+            String etag = "\"v" + version + "\"";
+            res.setHeader("ETag", etag);
+            notModified = etag.equals(req.header("If-None-Match"));
+        }
+        String cacheControl = req.parameter(CacheControlParam);
+        if (cacheControl != null)
+            res.setHeader("Cache-Control", cacheControl);
+
+        if (notModified) {
+            res.setStatus(304);
+            return;
+        }
+        res.setContentType(TextHtml);
+        res.setStatus(200);
+        res.write("<p>Version " + version + "</p>");
+    }
+}
@@ -6,11 +6,15 @@ import org.jsoup.integration.netty.TestResponse;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Random;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 
 public final class DeflateRoute {
     private static final String TextHtml = "text/html; charset=UTF-8";
+    public static final String StreamParam = "stream";
+    private static final int StreamMaxTime = 10_000;
+    private static final int StreamChunkSize = 16 * 1024;
 
     private DeflateRoute() {
     }
@@ -22,6 +26,12 @@ public final class DeflateRoute {
         response.setContentType(TextHtml);
         response.setStatus(200);
         response.setHeader("Content-Encoding", "deflate");
+        if (request.parameter(StreamParam) != null) {
+            response.defer();
+            long endTime = System.currentTimeMillis() + StreamMaxTime;
+            response.schedule(0, () -> stream(response, new Deflater(Deflater.BEST_SPEED, true), new Random(1), endTime));
+            return;
+        }
 
         String doc = "<p>Hello, World!<p>That should be enough, right?<p>Hello, World!<p>That should be enough, right?";
 
@@ -32,4 +42,37 @@ public final class DeflateRoute {
         stream.write(doc.getBytes(StandardCharsets.UTF_8));
         stream.close();
     }
+
+    /**
+     Streams a deflated body of random text until the client disconnects or the max time elapses, so that a client
+     must cap how much of it is buffered
+     */
+    private static void stream(TestResponse response, Deflater deflater, Random random, long endTime) {
+        if (!response.isOpen()) {
+            deflater.end();
+            return;
+        }
+
+        StringBuilder text = new StringBuilder();
+        while (text.length() < StreamChunkSize)
+            text.append("<p>").append(Long.toHexString(random.nextLong())).append("</p>\n");
+        deflater.setInput(text.toString().getBytes(StandardCharsets.UTF_8));
+        boolean done = System.currentTimeMillis() > endTime;
+        if (done) deflater.finish();
+
+        byte[] buf = new byte[StreamChunkSize];
+        int len;
+        while ((len = deflater.deflate(buf, 0, buf.length, done ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH)) > 0) {
+            byte[] chunk = new byte[len];
+            System.arraycopy(buf, 0, chunk, 0, len);
+            response.writeChunk(chunk);
+        }
+
+        if (done) {
+            deflater.end();
+            response.finish();
+        } else {
+            response.schedule(1, () -> stream(response, deflater, random, endTime));
+        }
+    }
 }
@@ -0,0 +1,95 @@
+package org.jsoup.internal;
+
+import org.jsoup.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteAppendableTest {
+    static final String Mixed = "Hello <p> é ü € 日本語 😀 done";
+
+    private static String longInput() {
+        // long enough to cross several buffer boundaries, with multibyte sequences (and some split surrogates) at varying offsets
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 3000; i++)
+            sb.append(Mixed, 0, i % Mixed.length()).append(i);
+        return sb.toString();
+    }
+
+    private static byte[] write(String input, Charset charset, boolean byChar) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ByteAppendable accum = new ByteAppendable(out, charset)) {
+            if (byChar) {
+                for (int i = 0; i < input.length(); i++)
+                    accum.append(input.charAt(i));
+            } else {
+                accum.append(input);
+            }
+            accum.finish();
+        }
+        return out.toByteArray();
+    }
+
+    @Test void matchesStringEncoding() throws IOException {
+        String input = longInput();
+        for (String name : new String[]{"UTF-8", "US-ASCII", "ISO-8859-1", "Shift_JIS", "UTF-16"}) {
+            Charset charset = Charset.forName(name);
+            byte[] expected = input.getBytes(charset);
+            assertArrayEquals(expected, write(input, charset, false), name);
+            assertArrayEquals(expected, write(input, charset, true), name);
+        }
+    }
+
+    @Test void replacesUnpairedSurrogates() throws IOException {
+        String input = "a\uD83Db\uDE00c\uD83D";
+        assertEquals("a?b?c?", new String(write(input, StandardCharsets.UTF_8, false), StandardCharsets.UTF_8));
+        assertEquals("a?b?c?", new String(write(input, StandardCharsets.UTF_8, true), StandardCharsets.UTF_8));
+    }
+
+    @Test void appendsCharArrays() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        char[] chars = "x😀y".toCharArray();
+        try (ByteAppendable accum = new ByteAppendable(out, StandardCharsets.UTF_8)) {
+            accum.append(chars, 1, 2).append(chars, 3, 1);
+            accum.finish();
+        }
+        assertEquals("😀y", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test void writesToChannel() throws IOException {
+        String input = longInput();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ByteAppendable accum = new ByteAppendable(Channels.newChannel(out), StandardCharsets.UTF_8)) {
+            accum.append(input);
+            accum.finish();
+        }
+        assertArrayEquals(input.getBytes(StandardCharsets.UTF_8), out.toByteArray());
+    }
+
+    @Test void throwsOutputErrors() {
+        OutputStream failing = new OutputStream() {
+            @Override public void write(int b) throws IOException {
+                throw new IOException("Write failed");
+            }
+        };
+
+        try (ByteAppendable accum = new ByteAppendable(failing, StandardCharsets.UTF_8)) {
+            // errors are quiet (as SerializationExceptions) during append, and IOExceptions from finish
+            SerializationException e = assertThrows(SerializationException.class, () -> accum.append(longInput()));
+            assertEquals("Write failed", e.getCause().getMessage());
+        }
+
+        try (ByteAppendable accum = new ByteAppendable(failing, StandardCharsets.UTF_8)) {
+            accum.append("small");
+            IOException e = assertThrows(IOException.class, accum::finish);
+            assertEquals("Write failed", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.jsoup.internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.jsoup.integration.ParseTest.getPath;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedReaderTest {
+
+    private static String readAll(Reader reader, int chunk) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        char[] buf = new char[chunk];
+        int read;
+        while ((read = reader.read(buf)) != -1)
+            builder.append(buf, 0, read);
+        return builder.toString();
+    }
+
+    private static MappedReader open(Path path, long offset, Charset charset, long window) throws IOException {
+        return new MappedReader((FileChannel) Files.newByteChannel(path), offset, charset, window);
+    }
+
+    @Test void readsFile() throws IOException {
+        Path path = getPath("/fuzztests/garble.html");
+        String expected = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        try (MappedReader reader = open(path, 0, StandardCharsets.UTF_8, MappedReader.MaxWindow)) {
+            assertEquals(expected, readAll(reader, 1024));
+        }
+    }
+
+    @Test void multibyteAcrossWindows(@TempDir Path dir) throws IOException {
+        // windows of 17 bytes split the 2, 3, and 4 byte sequences at varying points. (Reads of at least 2 chars, to fit a surrogate pair.)
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 500; i++)
+            sb.append("aé€😀").append(i);
+        String expected = sb.toString();
+        Path path = dir.resolve("utf8.txt");
+        Files.write(path, expected.getBytes(StandardCharsets.UTF_8));
+
+        for (int chunk : new int[]{2, 7, 1024}) {
+            try (MappedReader reader = open(path, 0, StandardCharsets.UTF_8, 17)) {
+                assertEquals(expected, readAll(reader, chunk), "chunk " + chunk);
+            }
+        }
+    }
+
+    @Test void readsFromOffset(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("bom.txt");
+        Files.write(path, new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, 'O', 'K'});
+        try (MappedReader reader = open(path, 3, StandardCharsets.UTF_8, MappedReader.MaxWindow)) {
+            assertEquals("OK", readAll(reader, 16));
+            assertEquals(-1, reader.read(new char[4], 0, 4));
+        }
+    }
+
+    @Test void replacesMalformedInput(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("bad.txt");
+        Files.write(path, new byte[]{'a', (byte) 0xC3, 'b', (byte) 0xE2, (byte) 0x82}); // truncated sequences
+        try (MappedReader reader = open(path, 0, StandardCharsets.UTF_8, MappedReader.MaxWindow)) {
+            assertEquals("a�b�", readAll(reader, 16));
+        }
+    }
+
+    @Test void closesChannel() throws IOException {
+        FileChannel channel = (FileChannel) Files.newByteChannel(getPath("/htmltests/medium.html"));
+        MappedReader reader = new MappedReader(channel, 0, StandardCharsets.UTF_8);
+        reader.close();
+        assertFalse(channel.isOpen());
+        reader.close(); // idempotent
+    }
+}
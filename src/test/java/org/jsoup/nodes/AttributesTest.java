@@ -1,6 +1,7 @@
 package org.jsoup.nodes;
 
 import org.jsoup.Jsoup;
+import org.jsoup.internal.SharedConstants;
 import org.jsoup.parser.Parser;
 import org.junit.jupiter.api.Test;
 
@@ -464,4 +465,69 @@ public class AttributesTest {
         assertTrue(attrs.isEmpty());
     }
 
+    @Test void forEachVisitsKeysAndValues() {
+        Attributes attrs = new Attributes();
+        attrs.put("a", "1");
+        attrs.put("b", true);
+        attrs.userData("x", "y"); // internal, skipped
+        attrs.put("c", "3");
+
+        StringBuilder sb = new StringBuilder();
+        attrs.forEach((key, value) -> sb.append(key).append('=').append(value).append(';'));
+        assertEquals("a=1;b=;c=3;", sb.toString());
+
+        assertThrows(ConcurrentModificationException.class, () -> attrs.forEach((key, value) -> attrs.remove(key)));
+    }
+
+    @Test void movesFromInlineToArrayStorage() {
+        Attributes attrs = new Attributes();
+        attrs.put("a", "1").put("b", "2");
+        Attributes small = attrs.clone();
+        attrs.put("c", "3").put("d", "4").put("e", "5"); // grows past inline
+        assertEquals(" a=\"1\" b=\"2\" c=\"3\" d=\"4\" e=\"5\"", attrs.html());
+        assertEquals(" a=\"1\" b=\"2\"", small.html());
+
+        attrs.remove("a");
+        attrs.remove("d");
+        assertEquals(" b=\"2\" c=\"3\" e=\"5\"", attrs.html());
+        assertEquals("5", attrs.get("e"));
+
+        small.remove("a");
+        assertEquals(" b=\"2\"", small.html());
+        small.put("a", "1");
+        small.attribute("b").setKey("B");
+        small.attribute("a").setValue("One");
+        assertEquals(" B=\"2\" a=\"One\"", small.html());
+
+        // equality and hashes are independent of order and storage
+        Attributes one = new Attributes().put("x", "1").put("y", "2");
+        Attributes two = new Attributes().put("z", "3").put("y", "2").put("x", "1");
+        two.remove("z");
+        assertEquals(one, two);
+        assertEquals(one.hashCode(), two.hashCode());
+    }
+
+    @Test void pendingAttributesParseOnFirstUse() {
+        int[] parses = {0};
+        Attributes attrs = Attributes.pending(() -> {
+            parses[0]++;
+            return new Attributes().put("id", "one").put("class", "a b");
+        });
+        assertFalse(attrs.hasKey(SharedConstants.UserDataKey)); // internal lookups don't need the parse
+        assertNull(attrs.userData("x"));
+        Attributes clone = attrs.clone();
+        assertEquals(0, parses[0]);
+
+        assertEquals("one", attrs.get("id"));
+        assertEquals(2, attrs.size());
+        attrs.put("title", "Two");
+        assertEquals(" id=\"one\" class=\"a b\" title=\"Two\"", attrs.html());
+        assertEquals(1, parses[0]);
+
+        assertEquals(" id=\"one\" class=\"a b\"", clone.html()); // parses its own copy
+        assertEquals(2, parses[0]);
+        assertNotEquals(attrs, clone);
+        clone.put("title", "Two");
+        assertEquals(attrs, clone);
+    }
 }
@@ -0,0 +1,102 @@
+package org.jsoup.nodes;
+
+import org.jsoup.Jsoup;
+import org.jsoup.parser.Parser;
+import org.jsoup.select.Elements;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactDocumentTest {
+    static final String Html = "<!doctype html><html><head><title>Title</title><script>if (a < b) go();</script>" +
+        "<base href='https://example.com/dir/'></head><body><!-- note --><div id=one class='a b'><p>One <b>two</b></p>" +
+        "<pre>  keep\n  space  </pre><input checked></div><form><input name=q></form><p class=last>Last <a href=x>link</a></p></body></html>";
+
+    @Test void matchesSourceOutput() {
+        Document doc = Jsoup.parse(Html, "https://example.com/");
+        CompactDocument compact = doc.freeze();
+        assertEquals(doc.outerHtml(), compact.outerHtml());
+        assertEquals(doc.text(), compact.text());
+        assertEquals(doc.outerHtml(), compact.toDocument().outerHtml());
+        assertEquals("https://example.com/", compact.location());
+        assertEquals(doc.nodeStream().count(), compact.nodeCount());
+
+        CompactDocument direct = CompactDocument.of(doc, true);
+        assertEquals(doc.outerHtml(), direct.outerHtml());
+    }
+
+    @Test void holdsNonAsciiText() {
+        // held as UTF-8, or as UTF-16 when that's smaller (mostly CJK) or the text has an unpaired surrogate
+        String[] texts = {"Café ünïcödé", "日本語のテキストです。日本語のテキストです。", "Emoji \uD83D\uDE00 and \uD800 lone"};
+        for (String text : texts) {
+            Document doc = Jsoup.parse("<p title='" + text + "' data-é=x>" + text + "</p>");
+            for (boolean direct : new boolean[]{false, true}) {
+                CompactDocument compact = CompactDocument.of(doc, direct);
+                assertEquals(doc.outerHtml(), compact.outerHtml());
+                CompactDocument.ElementView p = compact.selectFirst("p");
+                assertNotNull(p);
+                assertEquals(text, p.attr("title"));
+                assertEquals("x", p.attr("data-é"));
+                assertFalse(p.hasAttr("data-e"));
+                assertEquals(text, compact.toDocument().expectFirst("p").text());
+            }
+        }
+    }
+
+    @Test void selectsViews() {
+        Document doc = Jsoup.parse(Html, "https://example.com/");
+        CompactDocument compact = doc.freeze();
+
+        List<CompactDocument.ElementView> ps = compact.select("div > p, p.last");
+        Elements sourcePs = doc.select("div > p, p.last");
+        assertEquals(2, ps.size());
+        for (int i = 0; i < ps.size(); i++)
+            assertEquals(sourcePs.get(i).outerHtml(), ps.get(i).outerHtml());
+
+        CompactDocument.ElementView div = compact.selectFirst("#one");
+        assertNotNull(div);
+        assertEquals("div", div.tagName());
+        assertEquals("a b", div.attr("class"));
+        assertEquals("", div.attr("title"));
+        assertEquals(doc.expectFirst("#one").text(), div.text());
+        assertEquals(3, div.children().size());
+        assertEquals("body", div.parent().tagName());
+        assertEquals(div, div.children().get(0).parent());
+
+        CompactDocument.ElementView input = div.selectFirst("input");
+        assertNotNull(input);
+        assertTrue(input.hasAttr("checked"));
+        assertEquals("<input checked>", input.outerHtml());
+        assertEquals("https://example.com/dir/x", compact.selectFirst("a").toElement().absUrl("href"));
+        assertNull(compact.selectFirst("p").selectFirst("div"));
+    }
+
+    @Test void preservesXmlNodes() {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><!DOCTYPE feed SYSTEM \"feed.dtd\">" +
+            "<feed xmlns=\"http://www.w3.org/2005/Atom\"><Entry id=\"1\"><![CDATA[<raw>]]></Entry><empty/></feed>";
+        Document doc = Jsoup.parse(xml, "", Parser.xmlParser());
+        CompactDocument compact = doc.freeze();
+        assertEquals(doc.outerHtml(), compact.outerHtml());
+
+        Document inflated = compact.toDocument();
+        assertEquals(Parser.NamespaceXml, inflated.parser().defaultNamespace());
+        assertInstanceOf(XmlDeclaration.class, inflated.childNode(0));
+        assertInstanceOf(CDataNode.class, inflated.expectFirst("Entry").childNode(0));
+        assertEquals("1", compact.selectFirst("Entry").id());
+    }
+
+    @Test void isIndependentOfSource() {
+        Document doc = Jsoup.parse("<p>One</p>");
+        doc.expectFirst("p").attributes().userData("key", new Object());
+        CompactDocument compact = doc.freeze();
+        doc.expectFirst("p").text("Two");
+        assertEquals("One", compact.text());
+
+        Document inflated = compact.toDocument();
+        assertNull(inflated.expectFirst("p").attributes().userData("key"));
+        inflated.expectFirst("p").text("Three");
+        assertEquals("One", compact.selectFirst("p").text());
+    }
+}
@@ -13,6 +13,7 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
+import java.nio.channels.Channels;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
@@ -566,4 +567,23 @@ public class DocumentTest {
         assertTrue(threw);
 
     }
+    @Test void writeHtmlMatchesOuterHtml() throws IOException {
+        Document doc = Jsoup.parse(ParseTest.getFile("/htmltests/medium.html"), "UTF-8");
+        doc.body().appendElement("p").text("Unicode: é € 日本語 😀 & <tags>");
+        for (String charset : new String[]{"UTF-8", "US-ASCII", "ISO-8859-1", "Shift_JIS"}) {
+            doc.outputSettings().charset(charset);
+            for (boolean pretty : new boolean[]{true, false}) {
+                doc.outputSettings().prettyPrint(pretty);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                doc.writeHtml(out);
+                String expected = doc.outerHtml();
+                assertEquals(expected, new String(out.toByteArray(), doc.charset()).trim(), charset); // outerHtml is trimmed
+            }
+        }
+
+        Element p = doc.expectFirst("p");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        p.writeHtml(Channels.newChannel(out));
+        assertEquals(p.outerHtml(), new String(out.toByteArray(), doc.charset()));
+    }
 }
@@ -0,0 +1,136 @@
+package org.jsoup.nodes;
+
+import org.jsoup.Jsoup;
+import org.jsoup.parser.StreamParser;
+import org.jsoup.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ElementIndexTest {
+    static final String Html = "<div id=main><h2 class='title Big'>One</h2><a class=title href=1>Two</a>" +
+        "<p class='x title title'>Three <a class=TITLE>Four</a></p></div><div id=side><a class=title>Five</a></div>";
+
+    static Document indexed(String html) {
+        return Jsoup.parse(html).selectorIndex(true);
+    }
+
+    @Test void disabledByDefault() {
+        Document doc = Jsoup.parse(Html);
+        assertFalse(doc.selectorIndex());
+        assertNull(NodeInternals.indexedByTag(doc, "a"));
+    }
+
+    @Test void matchesUnindexedSelect() {
+        Document plain = Jsoup.parse(Html);
+        Document doc = indexed(Html);
+        String[] queries = {"#main a.title", "a", ".title", ".Title", "#side", "div#main > p", "a.title:contains(four)",
+            "h2.big.title", "#nope", ".nope a", "div", "p a, h2", "*", "#main .x > a"};
+        for (String query : queries) {
+            assertEquals(plain.select(query).eachText(), doc.select(query).eachText(), query);
+            Element first = plain.selectFirst(query);
+            assertEquals(first != null ? first.text() : null, doc.selectFirst(query) != null ? doc.selectFirst(query).text() : null, query);
+        }
+    }
+
+    @Test void lookups() {
+        Document doc = indexed(Html);
+        assertEquals(3, NodeInternals.indexedByTag(doc, "a").size());
+        assertEquals(5, NodeInternals.indexedByClass(doc, "TiTlE").size()); // case insensitive, and one per element
+        assertEquals(1, NodeInternals.indexedById(doc, "main").size());
+        assertEquals(0, NodeInternals.indexedById(doc, "MAIN").size()); // ids are case sensitive
+        assertEquals("main", doc.getElementById("main").id());
+    }
+
+    @Test void invalidatedByStructureChanges() {
+        Document doc = indexed(Html);
+        assertEquals(3, doc.select("a").size());
+
+        doc.expectFirst("#side").appendElement("a").text("Six");
+        assertEquals(4, doc.select("a").size());
+
+        doc.expectFirst("#side").prepend("<a>Zero</a>");
+        assertEquals("Zero", doc.select("#side a").first().text());
+
+        doc.select("p").remove();
+        assertEquals(4, doc.select("a").size());
+
+        doc.expectFirst("#side").html("<span class=title>Seven</span>");
+        assertEquals("One Two Seven", doc.select(".title").text());
+
+        doc.expectFirst("h2").replaceWith(new Element("a").text("Eight"));
+        assertEquals("Eight Two", doc.select("a").text());
+
+        doc.expectFirst("#main").empty();
+        assertEquals(0, doc.select("a").size());
+    }
+
+    @Test void invalidatedByTagIdAndClassChanges() {
+        Document doc = indexed(Html);
+        assertEquals(1, doc.select("h2").size());
+
+        Element h2 = doc.expectFirst("h2");
+        h2.tagName("h3");
+        assertEquals(0, doc.select("h2").size());
+        assertEquals(1, doc.select("h3").size());
+
+        h2.id("heading");
+        assertSame(h2, doc.selectFirst("#heading"));
+        h2.removeAttr("id");
+        assertNull(doc.selectFirst("#heading"));
+
+        h2.addClass("new");
+        assertSame(h2, doc.selectFirst(".new"));
+        h2.removeClass("new");
+        assertNull(doc.selectFirst(".new"));
+        h2.attr("class", "other");
+        assertSame(h2, doc.selectFirst(".other"));
+        h2.clearAttributes();
+        assertNull(doc.selectFirst(".other"));
+    }
+
+    @Test void directAttributeChangesNeedRebuild() {
+        Document doc = indexed(Html);
+        assertNull(doc.selectFirst(".direct"));
+        doc.expectFirst("h2").attributes().put("class", "direct");
+        doc.selectorIndex(true); // rebuild
+        assertNotNull(doc.selectFirst(".direct"));
+    }
+
+    @Test void indexesDescendantQueries() {
+        // the compound a.title in "#main a.title" is nested in the query's And; its candidates still come from the
+        // index, as shown by a direct (unindexed) attribute change not being seen until a rebuild
+        Document doc = indexed(Html);
+        assertEquals("Two Four", doc.select("#main a.title").text());
+        doc.expectFirst("h2").attributes().put("class", "direct");
+        assertEquals(0, doc.select("#main h2.direct").size());
+        assertNull(doc.selectFirst("div h2.direct"));
+
+        doc.selectorIndex(true);
+        assertEquals("One", doc.select("#main h2.direct").text());
+    }
+
+    @Test void cloneRebuildsIndex() {
+        Document doc = indexed(Html);
+        assertEquals(3, doc.select("a").size());
+
+        Document clone = doc.clone();
+        assertTrue(clone.selectorIndex());
+        List<Element> cloned = clone.select("a");
+        assertEquals(3, cloned.size());
+        assertSame(clone, cloned.get(0).ownerDocument());
+    }
+
+    @Test void invalidatedDuringStreamParse() throws IOException {
+        StreamParser streamer = new StreamParser(Parser.htmlParser()).parse(Html, "");
+        Document doc = streamer.document().selectorIndex(true);
+        assertNotNull(streamer.selectFirst("h2"));
+        assertTrue(doc.select("a").size() < 3); // indexed on the partial doc
+        assertNotNull(streamer.selectFirst("#side"));
+        assertEquals(3, doc.select("a").size());
+        assertEquals("Five", doc.select("#side a").text());
+    }
+}
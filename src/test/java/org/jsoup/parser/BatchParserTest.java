@@ -0,0 +1,158 @@
+package org.jsoup.parser;
+
+import org.jsoup.integration.ParseTest;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchParserTest {
+
+    private static List<BatchParser.Input> inputs(int count) {
+        List<BatchParser.Input> inputs = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            inputs.add(BatchParser.Input.of("<title>Doc " + i + "</title><p>One <a href=/" + i + ">Two</a>", "https://example.com/"));
+        return inputs;
+    }
+
+    @Test void parsesInOrder() {
+        BatchParser batch = new BatchParser(Parser.htmlParser()).threads(4).maxInFlight(3);
+        List<String> titles = new ArrayList<>();
+        try (BatchParser.Results results = batch.parse(inputs(50))) {
+            while (results.hasNext()) {
+                BatchParser.Result result = results.next();
+                assertTrue(result.isSuccess());
+                assertEquals(titles.size(), result.index());
+                Document doc = result.document();
+                assertNotNull(doc);
+                titles.add(doc.title());
+                assertEquals("https://example.com/" + result.index(), doc.expectFirst("a").absUrl("href"));
+            }
+        }
+        assertEquals(50, titles.size());
+        assertEquals("Doc 49", titles.get(49));
+    }
+
+    @Test void parsesAsCompleted() {
+        BatchParser batch = new BatchParser(Parser.htmlParser()).threads(4).ordered(false);
+        Set<Integer> seen = new HashSet<>();
+        try (BatchParser.Results results = batch.parse(inputs(40).stream())) {
+            results.stream().forEach(result -> {
+                assertTrue(result.isSuccess());
+                assertTrue(seen.add(result.index()));
+                assertEquals("Doc " + result.index(), result.document().title());
+            });
+        }
+        assertEquals(40, seen.size());
+    }
+
+    @Test void errorsDoNotAbortBatch() {
+        List<BatchParser.Input> inputs = inputs(5);
+        inputs.add(2, BatchParser.Input.of(Paths.get("/does/not/exist.html")));
+        inputs.add(4, BatchParser.Input.of(new InputStream() {
+            @Override public int read() throws IOException {
+                throw new IOException("Read failed");
+            }
+        }, null, "https://example.com/"));
+
+        List<BatchParser.Result> results = new BatchParser(Parser.htmlParser()).threads(2).parseAll(inputs);
+        assertEquals(7, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            BatchParser.Result result = results.get(i);
+            assertEquals(i, result.index());
+            if (i == 2 || i == 4) {
+                assertFalse(result.isSuccess());
+                assertNull(result.document());
+                assertInstanceOf(IOException.class, result.error());
+            } else {
+                assertTrue(result.isSuccess());
+                assertNull(result.error());
+            }
+        }
+        assertEquals("Read failed", results.get(4).error().getMessage());
+    }
+
+    @Test void parsesFilesAndStreams() {
+        Path path = ParseTest.getPath("/htmltests/medium.html");
+        Path gzPath = ParseTest.getPath("/htmltests/yahoo-jp.html.gz");
+        byte[] xml = "<?xml version='1.0' encoding='UTF-8'?><doc><item>Hello</item></doc>".getBytes(StandardCharsets.UTF_8);
+
+        List<BatchParser.Input> inputs = new ArrayList<>();
+        inputs.add(BatchParser.Input.of(path));
+        inputs.add(BatchParser.Input.of(gzPath, null, "http://example.com/"));
+        inputs.add(BatchParser.Input.of(new ByteArrayInputStream(xml), null, "http://example.com/feed"));
+        List<BatchParser.Result> results = new BatchParser(Parser.xmlParser()).parseAll(inputs);
+
+        for (BatchParser.Result result : results)
+            assertTrue(result.isSuccess(), result.toString());
+        assertEquals(path.toAbsolutePath().toString(), results.get(0).document().location());
+        assertEquals("Hello", results.get(2).document().expectFirst("item").text());
+        assertEquals(Document.OutputSettings.Syntax.xml, results.get(2).document().outputSettings().syntax());
+    }
+
+    @Test void appliesBackpressure() {
+        AtomicInteger taken = new AtomicInteger();
+        Iterator<BatchParser.Input> source = IntStream.range(0, 1000)
+            .peek(i -> taken.incrementAndGet())
+            .mapToObj(i -> BatchParser.Input.of("<p>" + i, ""))
+            .iterator();
+
+        BatchParser batch = new BatchParser(Parser.htmlParser()).threads(2).maxInFlight(5);
+        try (BatchParser.Results results = batch.parse(source)) {
+            assertTrue(results.hasNext());
+            assertEquals(5, taken.get()); // only the window is read ahead
+            results.next();
+            assertEquals(6, taken.get());
+        } // closed early; the rest of the inputs are not read
+        assertEquals(6, taken.get());
+    }
+
+    @Test void usesSuppliedExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            BatchParser batch = new BatchParser(Parser.htmlParser()).executor(executor);
+            List<String> titles = batch.parseAll(inputs(10)).stream()
+                .map(result -> result.document().title())
+                .collect(Collectors.toList());
+            assertEquals(10, titles.size());
+            assertFalse(executor.isShutdown()); // not owned by the batch, so still running
+
+            // and can be reused
+            assertEquals(10, batch.parseAll(inputs(10)).size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test void virtualThreadsFallBackWhenUnsupported() {
+        // runs on virtual threads on Java 21+, and on the platform pool otherwise
+        BatchParser batch = new BatchParser(Parser.htmlParser()).virtualThreads(true);
+        List<BatchParser.Result> results = batch.parseAll(inputs(20));
+        assertEquals(20, results.size());
+        assertEquals("Doc 19", results.get(19).document().title());
+    }
+
+    @Test void emptyBatch() {
+        BatchParser.Results results = new BatchParser(Parser.htmlParser()).parse(Collections.emptyList());
+        assertFalse(results.hasNext());
+        assertThrows(java.util.NoSuchElementException.class, results::next);
+    }
+}
@@ -176,6 +176,28 @@ public class CharacterReaderTest {
         assertEquals(" qux", r.consumeToAny('&', ';'));
     }
 
+    @Test public void consumeToAnyAroundMaxDelimiter() {
+        // the scans skip chars above the highest delimiter; check delimiters and near misses on both sides of it
+        CharacterReader r = new CharacterReader("a=;<b>céd☃e\u0000f");
+        assertEquals("a=;", r.consumeToAny('<', '&'));
+        assertEquals("<b", r.consumeToAny('>', '?', '='));
+        assertEquals(">c", r.consumeToAny('é'));
+        assertEquals("éd", r.consumeToAny('☃', 'D', 'è'));
+        assertEquals("☃e", r.consumeToAny(TokeniserState.nullChar, '&', '"'));
+        assertEquals("\u0000f", r.consumeToAny('☄', 'A'));
+        assertTrue(r.isEmpty());
+
+        r = new CharacterReader("näme?x=y z");
+        assertEquals("näme", r.consumeToAnySorted(TokeniserState.attributeNameCharsSorted));
+        r.advance();
+        assertEquals("x", r.consumeToAnySorted(TokeniserState.attributeValueUnquoted));
+        r.advance();
+        assertEquals("y", r.consumeToAnySorted(TokeniserState.attributeValueUnquoted));
+
+        r = new CharacterReader("élément?x/");
+        assertEquals("élément?x", r.consumeTagName());
+    }
+
     @Test public void consumeLetterSequence() {
         CharacterReader r = new CharacterReader("One &bar; qux");
         assertEquals("One", r.consumeLetterSequence());
@@ -270,6 +292,31 @@ public class CharacterReaderTest {
         assertTrue(r.containsIgnoreCase("</title>"));
     }
 
+    @Test void stringInputMatchesReaderInput() {
+        // a String input is copied directly into the buffer, vs via a Reader; should see the same content and positions
+        String content = BufferBuster("<p class=foo>One &amp; Two</p>\n") + BufferBuster("<a href='/a/long/path'>Three ü</a>");
+        CharacterReader fromString = new CharacterReader(content);
+        CharacterReader fromReader = new CharacterReader(new StringReader(content));
+
+        while (!fromReader.isEmpty()) {
+            assertFalse(fromString.isEmpty());
+            assertEquals(fromReader.pos(), fromString.pos());
+            assertEquals(fromReader.consumeData(), fromString.consumeData());
+            if (!fromReader.isEmpty()) assertEquals(fromReader.consume(), fromString.consume());
+        }
+        assertTrue(fromString.isEmpty());
+        assertTrue(fromString.readFully());
+        assertEquals(content.length(), fromString.pos());
+        fromString.close();
+        fromReader.close();
+    }
+
+    @Test void parseStringMatchesParseReader() throws IOException {
+        String html = ParseTest.getFileAsString(ParseTest.getFile("/htmltests/large.html"));
+        Parser parser = Parser.htmlParser().setTrackPosition(true);
+        assertTrue(parser.parseInput(html, "").hasSameValue(parser.parseInput(new StringReader(html), "")));
+    }
+
     static String BufferBuster(String content) {
         StringBuilder builder = new StringBuilder();
         while (builder.length() < maxBufferLen)
@@ -551,4 +598,26 @@ public class CharacterReaderTest {
         assertEquals('&', r.consume());
     }
 
+    @Test public void skipsToPosition() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < CharacterReader.BufferSize * 3; i++)
+            sb.append((char) ('a' + i % 26));
+        String input = sb.toString();
+        CharacterReader r = new CharacterReader(input);
+        assertSame(input, r.inputString());
+
+        r.skipTo(10); // within the buffer
+        assertEquals(10, r.pos());
+        assertEquals('k', r.consume());
+
+        int far = CharacterReader.BufferSize * 2 + 5; // beyond it
+        r.skipTo(far);
+        assertEquals(far, r.pos());
+        assertEquals(input.charAt(far), r.consume());
+        assertEquals(input.substring(far + 1, far + 20), r.consumeTo(input.charAt(far + 20)));
+
+        r.skipTo(input.length());
+        assertTrue(r.isEmpty());
+        assertNull(new CharacterReader(new StringReader("Reader")).inputString());
+    }
 }
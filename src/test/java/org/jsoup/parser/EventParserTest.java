@@ -0,0 +1,184 @@
+package org.jsoup.parser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Attributes;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.NodeVisitor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventParserTest {
+
+    /** Records events as compact strings; synthetic events are marked with a *. */
+    static class Recorder implements EventParser.Handler {
+        final List<String> events = new ArrayList<>();
+
+        @Override public void startElement(String name, Attributes attributes, boolean synthetic) {
+            events.add("<" + name + (attributes.size() > 0 ? " " + attributes.html().trim() : "") + (synthetic ? "*" : "") + ">");
+        }
+
+        @Override public void endElement(String name, boolean synthetic) {
+            events.add("</" + name + (synthetic ? "*" : "") + ">");
+        }
+
+        @Override public void text(String text) {
+            events.add("'" + text + "'");
+        }
+
+        @Override public void comment(String data) {
+            events.add("#" + data);
+        }
+
+        @Override public void doctype(String name, String publicId, String systemId) {
+            events.add("!" + name);
+        }
+
+        String joined() {
+            return String.join("", events);
+        }
+    }
+
+    private static String events(String html) {
+        Recorder recorder = new Recorder();
+        new EventParser(Parser.htmlParser()).parse(html, "", recorder);
+        return recorder.joined();
+    }
+
+    @Test void emitsEventsInOrder() {
+        String html = "<!doctype html><html><head><title>Hi</title></head><body><!--c--><p class=x>One <b>Two</b></p></body></html>";
+        assertEquals(
+            "!html<html><head><title>'Hi'</title></head><body>#c<p class=\"x\">'One '<b>'Two'</b></p></body*></html*>",
+            events(html));
+    }
+
+    @Test void reportsImpliedTags() {
+        assertEquals(
+            "<html*><head*></head*><body*><p>'One'</p*><p>'Two'</p*></body*></html*>",
+            events("<p>One<p>Two"));
+
+        assertEquals(
+            "<html*><head*></head*><body*><table><tbody*><tr><td>'1'</td*></tr*></tbody*></table></body*></html*>",
+            events("<table><tr><td>1</table>"));
+    }
+
+    @Test void voidAndSelfClosingAreNotImpliedEnds() {
+        assertEquals(
+            "<html*><head*></head*><body*>'a'<br></br>'b'<img src=\"x\"></img></body*></html*>",
+            events("a<br>b<img src=x />"));
+    }
+
+    @Test void reportsFosterParentingAsSynthetic() {
+        // the div appears inside the table, but is placed before it
+        assertEquals(
+            "<html*><head*></head*><body*><table><div*>'x'</div></table></body*></html*>",
+            events("<table><div>x</div></table>"));
+    }
+
+    @Test void reportsReconstructedFormatting() {
+        assertEquals(
+            "<html*><head*></head*><body*><p><b>'1'</b*></p><b*>'2'</b*></body*></html*>",
+            events("<p><b>1</p>2"));
+    }
+
+    @Test void dataAndRawText() {
+        assertEquals(
+            "<html*><head><script>'a < b && c'</script></head><body*><textarea>'<p>x'</textarea></body*></html*>",
+            events("<head><script>a < b && c</script></head><textarea><p>x</textarea>"));
+    }
+
+    @Test void retainsNoTree() {
+        StringBuilder sb = new StringBuilder("<table>");
+        for (int i = 0; i < 1000; i++)
+            sb.append("<tr><td><a href=/").append(i).append(">Link</a><p>Para");
+        sb.append("</table>");
+
+        Parser parser = Parser.htmlParser();
+        EventParser events = new EventParser(parser);
+        List<String> hrefs = new ArrayList<>();
+        events.parse(sb.toString(), "https://example.com/", new EventParser.Handler() {
+            @Override public void startElement(String name, Attributes attributes, boolean synthetic) {
+                if (name.equals("a")) hrefs.add(attributes.get("href"));
+            }
+        });
+        assertEquals(1000, hrefs.size());
+        assertEquals("/999", hrefs.get(999));
+
+        // only the html, head, and body shells remain
+        Document doc = parser.getTreeBuilder().doc;
+        assertEquals("<html><head></head><body></body></html>", doc.html().replaceAll("\\s", ""));
+    }
+
+    @Test void matchesDomParse() {
+        String html = "<div id=1><ul><li>One<li>Two</ul><p>Three <i>four</i></div><!-- five --><span>six</span>";
+        Document doc = Jsoup.parse(html);
+        Recorder fromDom = new Recorder();
+        doc.traverse(new NodeVisitor() {
+            @Override public void head(Node node, int depth) {
+                if (node instanceof Element && node != doc) fromDom.startElement(node.nodeName(), node.attributes(), false);
+                else if (node instanceof TextNode) fromDom.text(((TextNode) node).getWholeText());
+                else if (node instanceof Comment) fromDom.comment(((Comment) node).getData());
+            }
+
+            @Override public void tail(Node node, int depth) {
+                if (node instanceof Element && node != doc) fromDom.endElement(node.nodeName(), false);
+            }
+        });
+
+        String events = events(html).replace("*", "");
+        assertEquals(fromDom.joined(), events);
+    }
+
+    @Test void stopsEarly() {
+        Parser parser = Parser.htmlParser();
+        EventParser events = new EventParser(parser);
+        List<String> names = new ArrayList<>();
+        events.parse("<title>T</title><meta name=a><body><p>One<p>Two", "", new EventParser.Handler() {
+            @Override public void endElement(String name, boolean synthetic) {
+                names.add(name);
+                if (name.equals("head")) events.stop();
+            }
+        });
+        assertEquals("title,meta,head", String.join(",", names));
+
+        // and can be reused
+        Recorder recorder = new Recorder();
+        events.parse("<p>Again", "", recorder);
+        assertTrue(recorder.joined().contains("<p>'Again'</p*>"));
+    }
+
+    @Test void xmlEvents() {
+        Recorder recorder = new Recorder();
+        new EventParser(Parser.xmlParser()).parse("<feed><item id=1>One</item><item/><!-- c --></feed>", "", recorder);
+        assertEquals("<feed><item id=\"1\">'One'</item><item></item># c </feed>", recorder.joined());
+    }
+
+    @Test void rethrowsReaderErrors() {
+        Reader failing = new Reader() {
+            boolean first = true;
+            @Override public int read(char[] cbuf, int off, int len) throws IOException {
+                if (first) {
+                    first = false;
+                    return new StringReader("<p>One").read(cbuf, off, len);
+                }
+                throw new IOException("Boom");
+            }
+            @Override public void close() {}
+        };
+        Recorder recorder = new Recorder();
+        UncheckedIOException e = assertThrows(UncheckedIOException.class,
+            () -> new EventParser(Parser.htmlParser()).parse(failing, "", recorder));
+        assertEquals("Boom", e.getCause().getMessage());
+    }
+}
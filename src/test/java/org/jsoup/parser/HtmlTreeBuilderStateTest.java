@@ -45,7 +45,7 @@ public class HtmlTreeBuilderStateTest {
     public void ensureArraysAreSorted() {
         List<Object[]> constants = findConstantArrays(Constants.class);
         ensureSorted(constants);
-        assertEquals(39, constants.size());
+        assertEquals(38, constants.size());
     }
 
     @Test public void ensureTagSearchesAreKnownTags() {
@@ -61,6 +61,47 @@ public class HtmlTreeBuilderStateTest {
     }
 
 
+    @Test public void categoryOptionsMatchConstants() {
+        Object[][] categories = {
+            {HtmlTagOptions.Formatter, Constants.InBodyEndAdoptionFormatters},
+            {HtmlTagOptions.PCloser, Constants.InBodyStartPClosers},
+            {HtmlTagOptions.HeadContent, Constants.InBodyStartToHead},
+            {HtmlTagOptions.Applet, Constants.InBodyStartApplets},
+            {HtmlTagOptions.Media, Constants.InBodyStartMedia},
+            {HtmlTagOptions.BodyDrop, Constants.InBodyStartDrop},
+            {HtmlTagOptions.BodyCloser, Constants.InBodyEndClosers},
+            {HtmlTagOptions.LiBreaker, Constants.InBodyStartLiBreakers},
+            {HtmlTagOptions.Heading, Constants.Headings},
+            {HtmlTagOptions.DdDt, Constants.DdDt},
+            {HtmlTagOptions.TableFoster, Constants.InTableFoster},
+            {HtmlTagOptions.Cell, Constants.InCellNames},
+            {HtmlTagOptions.TableSection, Constants.InTableToBody},
+            {HtmlTagOptions.TableAddBody, Constants.InTableAddBody},
+            {HtmlTagOptions.TableBodyExit, Constants.InTableBodyExit},
+            {HtmlTagOptions.RowExit, Constants.InRowMissing},
+            {HtmlTagOptions.CellExit, Constants.InCellCol},
+            {HtmlTagOptions.CellTableClose, Constants.InCellTable},
+        };
+        TagSet tags = TagSet.Html();
+        for (Object[] constant : findConstantArrays(Constants.class)) {
+            for (String name : (String[]) constant) {
+                Tag tag = tags.valueOf(name, Parser.NamespaceHtml);
+                for (Object[] category : categories) {
+                    boolean expected = StringUtil.inSorted(name, (String[]) category[1]);
+                    assertEquals(expected, tag.hasParserOption((Integer) category[0]), name);
+                }
+            }
+        }
+        assertFalse(tags.valueOf("td", Parser.NamespaceSvg).hasParserOption(HtmlTagOptions.Cell));
+    }
+
+    @Test public void endTagsDontAddToTagSet() {
+        Parser parser = Parser.htmlParser();
+        Jsoup.parse("<table><tr><td>One</custom-end></td></tr></table>", parser);
+        assertNotNull(parser.tagSet().get("td", Parser.NamespaceHtml));
+        assertNull(parser.tagSet().get("custom-end", Parser.NamespaceHtml));
+    }
+
     @Test
     public void nestedAnchorElements01() {
         String html = "<html>\n" +
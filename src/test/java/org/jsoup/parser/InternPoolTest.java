@@ -0,0 +1,91 @@
+package org.jsoup.parser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InternPoolTest {
+    @Test void internsAndCounts() {
+        InternPool pool = new InternPool(16, 8);
+        String a = new String("item");
+        String b = new String("item");
+        assertSame(a, pool.intern(a));
+        assertSame(a, pool.intern(b));
+        assertEquals(1, pool.hitCount());
+        assertEquals(1, pool.missCount());
+        assertEquals(0.5, pool.hitRate());
+
+        String longer = "not-pooled-value";
+        assertNotSame(pool.intern(new String(longer)), pool.intern(new String(longer)));
+        assertEquals(1, pool.missCount()); // long strings aren't counted
+
+        pool.resetStats();
+        assertEquals(0, pool.hitRate());
+        pool.clear();
+        assertEquals(0, pool.size());
+        assertEquals(16, pool.capacity());
+    }
+
+    @Test void isBounded() {
+        InternPool pool = new InternPool(100, 8);
+        assertEquals(128, pool.capacity());
+        for (int i = 0; i < 10_000; i++)
+            assertEquals("s" + i, pool.intern("s" + i));
+        assertTrue(pool.size() <= 128);
+        assertEquals(10_000, pool.missCount());
+    }
+
+    @Test void sharesStringsAcrossParses() {
+        InternPool pool = new InternPool();
+        Parser parser = Parser.htmlParser().internPool(pool);
+        String html = "<my-card class=item data-x=1><a href='#'>One</a></my-card>";
+        Document one = Jsoup.parse(html, parser);
+        Document two = Jsoup.parse(html, parser.newInstance());
+        assertSame(pool, parser.newInstance().internPool());
+
+        Element card1 = one.expectFirst("my-card");
+        Element card2 = two.expectFirst("my-card");
+        assertSame(card1.tagName(), card2.tagName());
+        assertSame(attribute(card1, "data-x").getKey(), attribute(card2, "data-x").getKey());
+        assertSame(card1.attr("class"), card2.attr("class"));
+        assertSame(one.expectFirst("a").attr("href"), two.expectFirst("a").attr("href"));
+        assertTrue(pool.hitRate() > 0.4, pool.toString());
+
+        assertNull(Parser.htmlParser().internPool());
+    }
+
+    @Test void sharesAcrossThreads() throws Exception {
+        InternPool pool = new InternPool(64, 16);
+        Parser parser = Parser.htmlParser().internPool(pool);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String html = "<div class=c" + (i % 8) + " id=x>Text</div>";
+            Parser threadParser = parser.newInstance();
+            results.add(executor.submit(() -> Jsoup.parse(html, threadParser).expectFirst("div").className()));
+        }
+        for (int i = 0; i < 40; i++)
+            assertEquals("c" + (i % 8), results.get(i).get());
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(pool.hitCount() > 0);
+    }
+
+    private static Attribute attribute(Element el, String key) {
+        for (Attribute attribute : el.attributes()) {
+            if (attribute.getKey().equals(key)) return attribute;
+        }
+        throw new IllegalArgumentException(key);
+    }
+}
@@ -0,0 +1,125 @@
+package org.jsoup.parser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.CharacterReader.StringInput;
+import org.jsoup.select.Elements;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyAttributesTest {
+    static Parser lazyParser() {
+        return Parser.htmlParser().setLazyAttributes(true);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "<a href=x title='One > Two' data-q=\"it's\">One</a>",
+        "<p CLASS=A class=b id=1 Id=2>Duplicates</p>",
+        "<br/><br /><img src=a/>x<img src=a />",
+        "<div a=1/ b=2>", "<div a=\"1\"/b>", "<div a=\"1\"b=2>", "<p a=b=c d==e f=`g`>", "<p =x \"q 'r <s>t",
+        "<a href=?a=1&amp;b=2&lt;&copy x title='&notit;&notin;'>Refs</a>",
+        "<p a", "<p a=", "<p a='x", "<p a=x", "<p a ", "<p/", "</p a=1><p b>x",
+        "<div\tid=a\nclass=b\fdata-x\r=y>Whitespace</div>", "<a\u0000b=c d\u0000=e>Nulls</a>",
+        "<svg viewBox='0 0 1 1'><path D=1 d=2></path><foreignObject><p Class=x>h</p></foreignObject></svg>",
+        "<math definitionURL=x><mi MathVariant=y>x</mi></math>",
+        "<b class=x>1<p>2</b>3", "<b a=1>1<b a=1>2<b a=1>3<b a=1>4<p>5",
+        "<table><input type=hidden><input type=text></table>", "<svg><font color=red>x</font></svg>",
+        "<html lang=en><body class=a><html dir=ltr><body id=b class=c>",
+        "<textarea name=t>a<b c=d></textarea><script type=x>if (a<b) {}</script>",
+        "<form action=/x><select name=s><option value=1 selected>1</select><input name=q></form>",
+    })
+    void matchesEagerParse(String html) {
+        Document eager = Jsoup.parse(html);
+        Document lazy = Jsoup.parse(html, lazyParser());
+        assertEquals(eager.html(), lazy.html());
+
+        Elements eagerEls = eager.getAllElements();
+        Elements lazyEls = lazy.getAllElements();
+        assertEquals(eagerEls.size(), lazyEls.size());
+        for (int i = 0; i < eagerEls.size(); i++) {
+            assertEquals(eagerEls.get(i).attributes(), lazyEls.get(i).attributes());
+            assertEquals(eagerEls.get(i).tag().isSelfClosing(), lazyEls.get(i).tag().isSelfClosing());
+        }
+    }
+
+    @Test void retainsSpansForStartTags() {
+        HtmlTreeBuilder tb = new HtmlTreeBuilder();
+        tb.initialiseParse(new StringInput("<a href=x>One</a title=y><input type=hidden><p >"), "", lazyParser());
+        Tokeniser tokeniser = tb.tokeniser;
+
+        Token.StartTag a = (Token.StartTag) tokeniser.read();
+        assertTrue(a.hasAttributeSpan());
+        assertNull(a.attributes);
+        assertEquals("href=x>", tb.reader.inputString().substring(a.attrSpanStart, a.attrSpanEnd));
+        a.reset();
+        tokeniser.read().reset(); // One
+
+        Token.EndTag end = (Token.EndTag) tokeniser.read();
+        assertFalse(end.hasAttributeSpan()); // skipped, and not retained
+        assertNull(end.attributes);
+        end.reset();
+
+        Token.StartTag input = (Token.StartTag) tokeniser.read(); // read by the tree builder, so parsed
+        assertFalse(input.hasAttributeSpan());
+        assertEquals("hidden", input.attributes.get("type"));
+        input.reset();
+
+        Token.StartTag p = (Token.StartTag) tokeniser.read(); // no attributes
+        assertFalse(p.hasAttributeSpan());
+        assertNull(p.attributes);
+        tb.completeParse();
+    }
+
+    @Test void attributesUsableWhenParsed() {
+        String html = "<base href='https://example.com/path/'><div id=main class='one two'><a href=next>Next</a>" +
+            "<a href='/top' rel=up>Top</a></div>";
+        Document doc = Jsoup.parse(html, "https://example.com/", lazyParser());
+
+        assertEquals("https://example.com/path/next", doc.expectFirst("a").absUrl("href"));
+        assertEquals(1, doc.select("a[rel=up]").size());
+        Element div = doc.expectFirst("#main");
+        assertTrue(div.hasClass("two"));
+
+        Element clone = div.clone();
+        div.attr("id", "changed").removeClass("one");
+        assertEquals("changed", div.id());
+        assertEquals("two", div.className());
+        assertEquals("main", clone.id());
+        assertEquals("one two", clone.className());
+    }
+
+    @Test void parsesEagerlyWhenTrackingOrReading() {
+        String html = "<p id=a ID=b>One</p>";
+        Parser tracking = lazyParser().setTrackErrors(10).setTrackPosition(true);
+        Document doc = Jsoup.parse(html, tracking);
+        assertEquals(1, tracking.getErrors().size()); // the duplicate; reported as lazy spans are off
+        assertTrue(doc.expectFirst("p").attribute("id").sourceRange().isTracked());
+
+        Document fromReader = lazyParser().parseInput(new StringReader(html), "");
+        assertEquals(Jsoup.parse(html).html(), fromReader.html());
+    }
+
+    @Test void parsingDoesNotUpdateParserTagSet() {
+        // the parser may be parsing another input concurrently, so the deferred parse must not pool keys in its TagSet
+        Parser parser = lazyParser();
+        Document doc = Jsoup.parse("<p data-lazy-key=1>One</p>", parser);
+        assertEquals("1", doc.expectFirst("p").attr("data-lazy-key"));
+
+        String key = new String("data-lazy-key");
+        assertSame(key, parser.tagSet().attributeKey(key)); // not previously pooled
+    }
+
+    @Test void settingIsCopied() {
+        assertFalse(Parser.htmlParser().isLazyAttributes());
+        Parser parser = lazyParser();
+        assertTrue(parser.isLazyAttributes());
+        assertTrue(parser.newInstance().isLazyAttributes());
+    }
+}
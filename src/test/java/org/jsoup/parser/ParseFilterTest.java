@@ -0,0 +1,120 @@
+package org.jsoup.parser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.TextUtil;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.ParseFilter.Action;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParseFilterTest {
+    static ParseFilter skipping(String css, Action action) {
+        return el -> el.is(css) ? action : Action.KEEP;
+    }
+
+    /** Parsing with a filter that skips the selected elements should match a full parse with them removed. */
+    static void assertSkips(String html, String css) {
+        Document filtered = Jsoup.parse(html, Parser.htmlParser().parseFilter(skipping(css, Action.SKIP)));
+        Document expected = Jsoup.parse(html);
+        expected.select(css).remove();
+        assertEquals(expected.outerHtml(), filtered.outerHtml());
+    }
+
+    @Test void skipsSubtrees() {
+        String html = "<html><head><title>Title</title><script>var x = '<p>';</script></head><body>" +
+            "<nav><ul><li>One<li>Two</ul></nav><article><p>Body <b>text</b><p>More</article>" +
+            "<svg><g><text>Image</text></g></svg><footer><!-- note -->Footer</footer></body></html>";
+        assertSkips(html, "nav, script, svg, footer");
+
+        Document doc = Jsoup.parse(html, Parser.htmlParser().parseFilter(skipping("nav, script, svg, footer", Action.SKIP)));
+        assertEquals("<article><p>Body <b>text</b></p><p>More</p></article>", TextUtil.stripNewlines(doc.body().html()));
+        assertEquals("Title", doc.title());
+    }
+
+    @Test void keepsTreeConstructionSemantics() {
+        assertSkips("<ul><li>One<li class=x>Skip <p>Para<li>Three</ul><p>After", ".x"); // implied end tag closes the skipped li
+        assertSkips("<p>One<div class=x><p>Two</div>Three", ".x");
+        assertSkips("<table><tr><td>Cell</td></tr><div>Fostered</div></table><p>After", "table"); // fostered out of the skipped table
+        assertSkips("<table class=x><tr><td><table><div>Inner fostered</div></table></td></tr></table>After", ".x");
+        assertSkips("<select><option>One<option class=x>Two<option>Three</select>", ".x");
+        assertSkips("<textarea class=x><p>Not a tag</textarea><p>Tag", ".x"); // tokeniser still switches to RCDATA
+        assertSkips("<p>1<b class=x>2<p>3</b>4", ".x"); // reconstructed formatting elements are filtered again
+        assertSkips("<div class=x><div><div><span>Deep</div></div></div><div class=x>Again</div><p>Kept", ".x");
+    }
+
+    @Test void skipsThroughAdoptionAgency() {
+        // misnested formatting elements are cloned and their content moved by the adoption agency
+        assertSkips("<b>1<p>2</b>3</p>", "b");
+        assertSkips("<a href=x>1<div>2</a>3</div>", "a");
+        assertSkips("<a href=x>1<div>2<i>3</a>4</i>5</div>6", "a");
+        assertSkips("<b>1<i>2<p>3</b>4</i>5</p>", "b");
+        assertSkips("<b>1<i>2<p>3</b>4</i>5</p>", "i");
+        assertSkips("<b>1<i>2<p>3</b>4</i>5</p>", "p");
+        assertSkips("<a>1<b>2<div>3<p>4</a>5</b>6</p>7</div>", "b");
+        assertSkips("<p><b class=x>1<div>2</b>3</div>4</p>", ".x");
+
+        Parser parser = Parser.htmlParser().parseFilter(skipping("b", Action.SKIP_CHILDREN));
+        Document doc = Jsoup.parse("<b>1<p>2</b>3</p>", parser);
+        assertEquals("<b></b><p><b></b>3</p>", TextUtil.stripNewlines(doc.body().html()));
+    }
+
+    @Test void skipsChildren() {
+        Parser parser = Parser.htmlParser().parseFilter(skipping("script, .x", Action.SKIP_CHILDREN));
+        Document doc = Jsoup.parse("<script src=app.js>var a;</script><div class=x>One <b>Two</b></div><p>Three", parser);
+        assertEquals("<script src=\"app.js\"></script>", doc.head().html());
+        assertEquals("<div class=\"x\"></div>\n<p>Three</p>", doc.body().html());
+    }
+
+    @Test void stops() {
+        List<String> seen = new ArrayList<>();
+        Parser parser = Parser.htmlParser().parseFilter(el -> {
+            seen.add(el.normalName());
+            return el.nameIs("body") ? Action.STOP : Action.KEEP;
+        });
+        Document doc = Jsoup.parse("<title>Title</title><meta charset=utf-8><body><p>One<p>Two", parser);
+        assertEquals("Title", doc.title());
+        assertEquals("utf-8", doc.expectFirst("meta").attr("charset"));
+        assertEquals(0, doc.body().childNodeSize());
+        assertEquals("[html, head, title, meta, body]", seen.toString());
+    }
+
+    @Test void filterNotCalledInSkippedSubtree() {
+        List<String> seen = new ArrayList<>();
+        Parser parser = Parser.htmlParser().parseFilter(el -> {
+            seen.add(el.normalName());
+            return el.nameIs("nav") ? Action.SKIP : Action.KEEP;
+        });
+        Jsoup.parse("<nav><ul><li><a href=#>One</a></ul></nav><p>Two", parser);
+        assertEquals("[html, head, body, nav, p]", seen.toString());
+        assertSame(parser.parseFilter(), parser.newInstance().parseFilter());
+    }
+
+    @Test void skipsInXml() {
+        Parser parser = Parser.xmlParser().parseFilter(skipping("b", Action.SKIP));
+        Document doc = Jsoup.parse("<a><b><c>One</c><!-- c --></b><d>Two</d><b>Three</b></a>", parser);
+        assertEquals("<a><d>Two</d></a>", doc.html());
+    }
+
+    @Test void streamsOnlyKept() throws IOException {
+        Parser parser = Parser.htmlParser().parseFilter(skipping("nav", Action.SKIP));
+        List<String> names = new ArrayList<>();
+        try (StreamParser streamer = new StreamParser(parser).parse("<nav><a>One</a></nav><p>Two<p>Three", "")) {
+            streamer.stream().forEach(el -> names.add(el.nodeName()));
+        }
+        assertEquals("[head, p, p, body, html, #document]", names.toString());
+    }
+
+    @Test void tracksPositionsOfKept() {
+        Parser parser = Parser.htmlParser().setTrackPosition(true).parseFilter(skipping("nav", Action.SKIP));
+        Document doc = Jsoup.parse("<nav>One</nav><p>Two</p>", parser);
+        Element p = doc.expectFirst("p");
+        assertEquals("1,15:14-1,18:17", p.sourceRange().toString());
+        assertEquals("1,21:20-1,25:24", p.endSourceRange().toString());
+    }
+}
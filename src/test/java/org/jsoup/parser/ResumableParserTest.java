@@ -0,0 +1,103 @@
+package org.jsoup.parser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResumableParserTest {
+    static String html(int paras) {
+        StringBuilder sb = new StringBuilder("<!doctype html><title>Resume</title><table><tr><td>Cell");
+        for (int i = 0; i < paras; i++)
+            sb.append("<p class=p").append(i).append(">Para <b>").append(i).append("</b> &amp; more");
+        return sb.append("</table>").toString();
+    }
+
+    @Test void advancesInTokenSlices() throws IOException {
+        String html = html(50);
+        ResumableParser parser = new ResumableParser(Parser.htmlParser()).parse(html, "https://example.com/");
+        Document doc = parser.document();
+        assertFalse(parser.isComplete());
+
+        assertTrue(parser.advance(10));
+        assertEquals(10, parser.tokenCount());
+        assertEquals("Resume", doc.title()); // partial doc already has the head
+
+        int slices = 1;
+        while (parser.advance(10)) slices++;
+        assertTrue(slices > 10);
+        assertTrue(parser.isComplete());
+        assertFalse(parser.advance(10));
+        assertEquals(Jsoup.parse(html, "https://example.com/").outerHtml(), doc.outerHtml());
+        assertSame(doc, parser.complete());
+    }
+
+    @Test void advancesInTimeSlices() throws IOException {
+        String html = html(2000);
+        ResumableParser parser = new ResumableParser(Parser.htmlParser()).parse(html, "");
+        assertTrue(parser.advance(0, TimeUnit.MILLISECONDS)); // a zero budget still makes progress
+        assertEquals(1, parser.tokenCount());
+
+        long tokens = 1;
+        while (parser.advance(100, 50, TimeUnit.MICROSECONDS)) {
+            long count = parser.tokenCount();
+            assertTrue(count - tokens <= 100);
+            tokens = count;
+        }
+        assertEquals(Jsoup.parse(html).outerHtml(), parser.document().outerHtml());
+    }
+
+    @Test void resumesOnOtherThreads() throws Exception {
+        String html = html(500);
+        ResumableParser parser = new ResumableParser(Parser.htmlParser()).parse(new StringReader(html), "");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            while (executor.submit(() -> parser.advance(50)).get()) {
+                // each slice runs on whichever pool thread picks it up
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(Jsoup.parse(html).outerHtml(), parser.document().outerHtml());
+    }
+
+    @Test void reusableAndClosable() throws IOException {
+        ResumableParser parser = new ResumableParser(Parser.xmlParser()).parse("<a><b>One</b><b>Two</b></a>", "");
+        assertTrue(parser.advance(3));
+        parser.close();
+        assertThrows(IllegalArgumentException.class, () -> parser.advance(1));
+
+        Document doc = parser.parse("<c>Three</c>", "").complete();
+        assertEquals("<c>Three</c>", doc.html());
+        assertTrue(parser.isComplete());
+        assertThrows(IllegalArgumentException.class, () -> parser.advance(0));
+    }
+
+    @Test void throwsReaderErrors() {
+        Reader failing = new Reader() { // fails after the first buffer fills, mid-parse
+            int remaining = CharacterReader.BufferSize * 2;
+            @Override public int read(char[] buf, int off, int len) throws IOException {
+                if (remaining <= 0) throw new IOException("Boom");
+                int read = Math.min(len, remaining);
+                for (int i = 0; i < read; i++) buf[off + i] = i % 8 == 0 ? ' ' : 'a';
+                remaining -= read;
+                return read;
+            }
+            @Override public void close() {}
+        };
+        ResumableParser parser = new ResumableParser(Parser.htmlParser()).parse(failing, "");
+        IOException e = assertThrows(IOException.class, () -> {
+            //noinspection StatementWithEmptyBody
+            while (parser.advance(10)) {}
+        });
+        assertEquals("Boom", e.getMessage());
+    }
+}
@@ -228,4 +228,22 @@ public class TagSetTest {
             throw new RuntimeException(e);
         }
     }
+
+    private static String firstKey(Element el) {
+        return el.attributes().asList().get(0).getKey();
+    }
+
+    @Test void poolsAttributeKeys() {
+        Document doc1 = Jsoup.parse("<p title=1>One</p><p data-custom=1>Two</p><p data-custom=2>Three</p>");
+        Document doc2 = Jsoup.parse("<p title=2>Four</p>");
+        // common keys are shared across parses, and others within a parse
+        assertSame(firstKey(doc1.expectFirst("p")), firstKey(doc2.expectFirst("p")));
+        assertSame(firstKey(doc1.select("p").get(1)), firstKey(doc1.select("p").get(2)));
+
+        TagSet tagSet = TagSet.Html();
+        for (int i = 0; i < 2000; i++)
+            tagSet.attributeKey("k" + i);
+        String unpooled = new String("k1999"); // beyond the pool limit
+        assertSame(unpooled, tagSet.attributeKey(unpooled));
+    }
 }
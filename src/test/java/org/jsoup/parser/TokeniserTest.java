@@ -5,6 +5,7 @@ import org.jsoup.nodes.*;
 import org.jsoup.select.Elements;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 
@@ -218,4 +219,21 @@ public class TokeniserTest {
         data.append("def");
         assertEquals("abcdef", data.toString());
     }
+
+    @Test void pooledTokeniserIsResetBetweenParses() throws IOException {
+        // leaves the tokeniser mid-state, with a pending end tag sequence
+        assertEquals("<script>if (a < b)</script>", Jsoup.parse("<script>if (a < b)").head().html());
+        Document doc = Jsoup.parse("<p id=1>One</p>", Parser.htmlParser().setTrackPosition(true));
+        Element p = doc.expectFirst("p");
+        assertEquals("1,1:0-1,9:8", p.sourceRange().toString());
+        assertEquals("1,4:3-1,6:5", p.attributes().sourceRange("id").nameRange().toString());
+        assertEquals("<?xml version=\"1.0\"?><a>Two</a>", Jsoup.parse("<?xml version=\"1.0\"?><a>Two</a>", Parser.xmlParser()).html());
+
+        // a parse in progress keeps its own tokeniser while another runs on the same thread
+        try (StreamParser streamer = new StreamParser(Parser.htmlParser()).parse("<div><b>One</b><i>Two</i></div>", "")) {
+            assertEquals("One", streamer.expectNext("b").text());
+            assertEquals("Inner", Jsoup.parse("<p>Inner").expectFirst("p").text());
+            assertEquals("Two", streamer.expectNext("i").text());
+        }
+    }
 }
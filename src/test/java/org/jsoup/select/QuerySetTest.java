@@ -0,0 +1,67 @@
+package org.jsoup.select;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuerySetTest {
+    static final String Html = "<div id=main class=post><h2>Title</h2><p>One <a href=/one>1</a> <img src=1.png></p>" +
+        "<p class=post>Two <a>2</a></p></div><div class=post><a href=/three>3</a><span>Four</span></div>" +
+        "<ul><li>A</li><li>B</li><li>C</li></ul>";
+
+    @Test void matchesSameAsSelect() {
+        Document doc = Jsoup.parse(Html);
+        List<String> queries = Arrays.asList(
+            "a[href]", "div.post a", "div.post > a[href]", "#main p", "p.post, span", "img[src$=.png]",
+            "li:nth-child(odd)", "div:has(span)", "*", "p:contains(two)", ".post", "div#main > h2 + p a",
+            "#main a[href]", "div.post p.post", ".post a[href]:contains(3)", "div > p.post > a");
+
+        Map<String, Elements> results = QuerySet.of(queries).select(doc);
+        assertEquals(queries, Arrays.asList(results.keySet().toArray()));
+        for (String query : queries) {
+            assertEquals(doc.select(query), results.get(query), query);
+        }
+    }
+
+    @Test void resultsAreInDocumentOrder() {
+        Document doc = Jsoup.parse(Html);
+        Elements links = QuerySet.of("a", "p").select(doc).get("a");
+        assertEquals("1 2 3", links.text());
+    }
+
+    @Test void emptyResultsArePresent() {
+        Document doc = Jsoup.parse(Html);
+        Map<String, Elements> results = QuerySet.of("table", "li").select(doc);
+        assertEquals(2, results.size());
+        assertTrue(results.get("table").isEmpty());
+        assertEquals(3, results.get("li").size());
+    }
+
+    @Test void scopedToRoot() {
+        Document doc = Jsoup.parse(Html);
+        Map<String, Elements> results = QuerySet.of("a", "> p", "div").select(doc.expectFirst("#main"));
+        assertEquals(2, results.get("a").size());
+        assertEquals(2, results.get("> p").size());
+        assertEquals(1, results.get("div").size()); // the root itself
+    }
+
+    @Test void duplicatesIgnoredAndReusable() {
+        QuerySet set = QuerySet.of("li", "li", "a");
+        assertEquals(Arrays.asList("li", "a"), set.queries());
+        assertEquals("li, a", set.toString());
+
+        assertEquals(3, set.select(Jsoup.parse(Html)).get("li").size());
+        assertEquals(1, set.select(Jsoup.parse("<li>")).get("li").size());
+    }
+
+    @Test void invalidQueryThrows() {
+        assertThrows(Selector.SelectorParseException.class, () -> QuerySet.of("a", "div["));
+        assertThrows(IllegalArgumentException.class, QuerySet::of);
+    }
+}
@@ -0,0 +1,124 @@
+package org.jsoup.select;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SelectorCacheTest {
+
+    @Test void parsesOnceAndHits() {
+        SelectorCache cache = new SelectorCache(8);
+        Evaluator first = cache.get("div > p.foo");
+        Evaluator second = cache.get("div > p.foo");
+        assertSame(first, second);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+        assertEquals(0, cache.evictionCount());
+    }
+
+    @Test void evictsLeastRecentlyUsed() {
+        SelectorCache cache = new SelectorCache(2);
+        Evaluator a = cache.get("a");
+        cache.get("b");
+        assertSame(a, cache.get("a")); // a is now more recent than b
+        cache.get("c"); // evicts b
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+        assertSame(a, cache.get("a"));
+        long misses = cache.missCount();
+        cache.get("b");
+        assertEquals(misses + 1, cache.missCount());
+    }
+
+    @Test void shrinkingEvicts() {
+        SelectorCache cache = new SelectorCache(4);
+        cache.get("a");
+        cache.get("b");
+        cache.get("c");
+        cache.maxSize(1);
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.evictionCount());
+        assertEquals(1, cache.maxSize());
+
+        long misses = cache.missCount();
+        cache.get("c"); // the most recent was kept
+        assertEquals(misses, cache.missCount());
+    }
+
+    @Test void zeroSizeDisablesCaching() {
+        SelectorCache cache = new SelectorCache(0);
+        Evaluator first = cache.get("p");
+        Evaluator second = cache.get("p");
+        assertNotSame(first, second);
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test void invalidQueriesAreNotCached() {
+        SelectorCache cache = new SelectorCache(8);
+        assertThrows(Selector.SelectorParseException.class, () -> cache.get("div["));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test void clearAndResetStats() {
+        SelectorCache cache = new SelectorCache(8);
+        cache.get("p");
+        cache.get("p");
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.hitCount());
+        cache.resetStats();
+        assertEquals(0, cache.hitCount());
+        assertEquals(0, cache.missCount());
+    }
+
+    @Test void sharedCacheUsedBySelect() {
+        Document doc = Jsoup.parse("<div><p class=one>One</p><p>Two</p></div>");
+        String query = "div > p.one:not(.nope)"; // unique to this test
+        SelectorCache cache = Selector.cache();
+        long hits = cache.hitCount();
+
+        assertEquals(1, doc.select(query).size());
+        assertEquals("One", doc.selectFirst(query).text());
+        assertEquals(1, doc.select("div").select(query).size());
+        assertTrue(doc.selectFirst("p").is(query));
+        assertTrue(cache.hitCount() >= hits + 3);
+        assertSame(Selector.evaluatorOf(query), Selector.evaluatorOf(query));
+    }
+
+    @Test void concurrentAccess() throws Exception {
+        SelectorCache cache = new SelectorCache(16);
+        Document doc = Jsoup.parse("<div><p class=a>One</p><p class=b>Two</p><span>Three</span></div>");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    int found = 0;
+                    for (int i = 0; i < 500; i++) {
+                        found += Selector.select(cache.get("p.q" + (i % 32) + ", p.a"), doc).size();
+                        found += Selector.select(cache.get("div:has(span) > p"), doc).size();
+                    }
+                    return found;
+                }));
+            }
+            for (Future<Integer> result : results)
+                assertEquals(500 * 3, result.get());
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.size() <= 16);
+        assertTrue(cache.evictionCount() > 0);
+    }
+}
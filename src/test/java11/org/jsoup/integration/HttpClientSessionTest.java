@@ -1,8 +1,18 @@
 package org.jsoup.integration;
 
+import org.jsoup.Connection;
+import org.jsoup.Jsoup;
+import org.jsoup.helper.ClientPool;
 import org.jsoup.helper.HttpClientExecutorTest;
+import org.jsoup.helper.RequestAuthenticator;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.jsoup.integration.TestServer.origin;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class HttpClientSessionTest extends SessionTest {
     @BeforeAll
@@ -14,4 +24,35 @@ public class HttpClientSessionTest extends SessionTest {
     static void resetClient() {
         HttpClientExecutorTest.disableHttpClient();
     }
+
+    @Test void poolsClientsPerAuthenticator() throws IOException {
+        Connection session = Jsoup.newSession();
+        RequestAuthenticator one = ctx -> null;
+        RequestAuthenticator two = ctx -> null;
+        for (int i = 0; i < 6; i++)
+            session.newRequest(origin().hello.url()).auth(i % 2 == 0 ? one : two).get();
+
+        // alternating credentials keep a client (and its connections) for each
+        ClientPool pool = session.clientPool();
+        assertEquals(2, pool.size());
+        assertEquals(2, pool.clientCreatedCount());
+        assertEquals(6, pool.requestCount());
+        assertEquals(4, pool.connectionReuseCount());
+        assertEquals(0, pool.evictionCount());
+    }
+
+    @Test void evictsLeastRecentlyUsedClient() throws IOException {
+        Connection session = Jsoup.newSession();
+        session.clientPool().maxSize(1);
+        RequestAuthenticator one = ctx -> null;
+        RequestAuthenticator two = ctx -> null;
+        for (int i = 0; i < 4; i++)
+            session.newRequest(origin().hello.url()).auth(i % 2 == 0 ? one : two).get();
+
+        ClientPool pool = session.clientPool();
+        assertEquals(1, pool.size());
+        assertEquals(4, pool.clientCreatedCount());
+        assertEquals(3, pool.evictionCount());
+        assertEquals(0, pool.connectionReuseCount());
+    }
 }